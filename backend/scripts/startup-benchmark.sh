@@ -0,0 +1,147 @@
+#!/bin/bash
+# Benchmark de inicialização: mede time-to-first-request (TTFR) e RSS para cada modo.
+#
+# Pré-requisitos (a partir de backend/):
+#   ./gradlew bootJar                              -> modos "jar" e "jar-lazy"
+#   ./gradlew cdsArchive                           -> modo "cds"
+#   ./gradlew -PfastStart bootJar cdsArchive       -> modos "aot" e "aot-cds"
+#
+# Uso: scripts/startup-benchmark.sh [iterações] [modos...]
+# Ex.: scripts/startup-benchmark.sh 5 jar jar-lazy cds aot-cds
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+ITERATIONS=${1:-5}
+shift || true
+MODES=("$@")
+if [ ${#MODES[@]} -eq 0 ]; then
+    MODES=(jar jar-lazy cds aot aot-cds)
+fi
+
+PORT=${BENCHMARK_PORT:-18081}
+TIMEOUT_SECONDS=${BENCHMARK_TIMEOUT:-60}
+JAVA_BIN=${JAVA_HOME:+$JAVA_HOME/bin/}java
+BOOT_JAR=$(ls build/libs/*-SNAPSHOT.jar 2>/dev/null | grep -v plain | head -n 1 || true)
+FAST_START_DIR=build/fast-start
+APP_ARGS=(--server.port="$PORT" --app.migrations.enabled=false --app.warmup.enabled=false)
+
+command_for_mode() {
+    local mode=$1
+    case "$mode" in
+        jar)
+            echo "$JAVA_BIN -jar $BOOT_JAR" ;;
+        jar-lazy)
+            echo "$JAVA_BIN -Dspring.profiles.active=fast-start -jar $BOOT_JAR" ;;
+        cds)
+            echo "$JAVA_BIN -XX:SharedArchiveFile=app.jsa -Xlog:cds=off -Dspring.profiles.active=fast-start @classpath.args $(cat $FAST_START_DIR/main-class)" ;;
+        aot)
+            echo "$JAVA_BIN -Dspring.aot.enabled=true -Dspring.profiles.active=fast-start @classpath.args $(cat $FAST_START_DIR/main-class)" ;;
+        aot-cds)
+            echo "$JAVA_BIN -XX:SharedArchiveFile=app.jsa -Xlog:cds=off -Dspring.aot.enabled=true -Dspring.profiles.active=fast-start @classpath.args $(cat $FAST_START_DIR/main-class)" ;;
+        *)
+            echo "" ;;
+    esac
+}
+
+workdir_for_mode() {
+    case "$1" in
+        jar|jar-lazy) echo "." ;;
+        *) echo "$FAST_START_DIR" ;;
+    esac
+}
+
+mode_available() {
+    local mode=$1
+    case "$mode" in
+        jar|jar-lazy) [ -n "$BOOT_JAR" ] ;;
+        cds) [ -f "$FAST_START_DIR/app.jsa" ] && grep -q false "$FAST_START_DIR/aot-enabled" ;;
+        aot) [ -f "$FAST_START_DIR/aot.jar" ] ;;
+        aot-cds) [ -f "$FAST_START_DIR/app.jsa" ] && grep -q true "$FAST_START_DIR/aot-enabled" ;;
+        *) return 1 ;;
+    esac
+}
+
+now_millis() {
+    date +%s%3N
+}
+
+rss_kb() {
+    local pid=$1
+    if [ -r "/proc/$pid/status" ]; then
+        awk '/VmRSS/ {print $2}' "/proc/$pid/status"
+    else
+        ps -o rss= -p "$pid" | tr -d ' '
+    fi
+}
+
+median() {
+    sort -n | awk '{ values[NR] = $1 } END { if (NR % 2) print values[(NR + 1) / 2]; else print int((values[NR / 2] + values[NR / 2 + 1]) / 2) }'
+}
+
+run_once() {
+    local mode=$1
+    local command
+    command=$(command_for_mode "$mode")
+
+    local workdir
+    workdir=$(workdir_for_mode "$mode")
+    local log_file
+    log_file="$(pwd)/build/startup-benchmark-$mode.log"
+
+    local start
+    start=$(now_millis)
+    # shellcheck disable=SC2086
+    (cd "$workdir" && exec $command "${APP_ARGS[@]}") > "$log_file" 2>&1 &
+    local pid=$!
+
+    local deadline=$((start + TIMEOUT_SECONDS * 1000))
+    until curl -sf -o /dev/null "http://localhost:$PORT/auth/url"; do
+        if [ "$(now_millis)" -gt "$deadline" ] || ! kill -0 "$pid" 2>/dev/null; then
+            kill "$pid" 2>/dev/null || true
+            wait "$pid" 2>/dev/null || true
+            echo "timeout"
+            return
+        fi
+        sleep 0.02
+    done
+
+    local ttfr=$(( $(now_millis) - start ))
+    local rss
+    rss=$(rss_kb "$pid")
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+
+    echo "$ttfr $rss"
+}
+
+printf "%-10s %12s %12s %12s\n" "modo" "TTFR (ms)" "RSS (MB)" "execuções"
+
+for mode in "${MODES[@]}"; do
+    if ! mode_available "$mode"; then
+        printf "%-10s %12s\n" "$mode" "indisponível"
+        continue
+    fi
+
+    ttfrs=()
+    rsss=()
+    for _ in $(seq 1 "$ITERATIONS"); do
+        result=$(run_once "$mode")
+        if [ "$result" = "timeout" ]; then
+            continue
+        fi
+        ttfrs+=("${result% *}")
+        rsss+=("${result#* }")
+    done
+
+    if [ ${#ttfrs[@]} -eq 0 ]; then
+        printf "%-10s %12s\n" "$mode" "falhou (ver build/startup-benchmark-$mode.log)"
+        continue
+    fi
+
+    ttfr_median=$(printf "%s\n" "${ttfrs[@]}" | median)
+    rss_median=$(printf "%s\n" "${rsss[@]}" | median)
+    printf "%-10s %12s %12s %12s\n" "$mode" "$ttfr_median" "$((rss_median / 1024))" "${#ttfrs[@]}/$ITERATIONS"
+done
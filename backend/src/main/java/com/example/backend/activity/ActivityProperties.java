@@ -0,0 +1,19 @@
+package com.example.backend.activity;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "customer.activity")
+@Data
+public class ActivityProperties {
+
+    private boolean enabled = true;
+    private Duration flushInterval = Duration.ofSeconds(5);
+    private int maxBufferedUsers = 50_000;
+    private int batchSize = 1_000;
+    private String writeConcern = "W1";
+}
@@ -0,0 +1,183 @@
+package com.example.backend.activity;
+
+import com.example.backend.model.Customer;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.WriteConcern;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+@Slf4j
+public class CustomerActivityBuffer implements SmartLifecycle {
+
+    public static final Set<String> ACTIVITY_FIELDS = Set.of("lastLoginAt", "loginCount", "lastIdentityProvider");
+
+    private final MongoTemplate mongoTemplate;
+    private final ActivityProperties properties;
+    private final ConcurrentHashMap<ActivityKey, PendingActivity> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public CustomerActivityBuffer(MongoTemplate mongoTemplate, ActivityProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+    }
+
+    public void recordLogin(String tenant, String keycloakUserId, String identityProvider) {
+        if (!properties.isEnabled() || keycloakUserId == null) {
+            return;
+        }
+
+        pending.merge(new ActivityKey(tenant, keycloakUserId), PendingActivity.login(Instant.now(), identityProvider), PendingActivity::merge);
+
+        if (pending.size() >= properties.getMaxBufferedUsers() && running && flushScheduled.compareAndSet(false, true)) {
+            scheduler.execute(this::flushSafely);
+        }
+    }
+
+    @Override
+    public void start() {
+        long interval = properties.getFlushInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "customer-activity-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushSafely, interval, interval, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(properties.getFlushInterval().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public synchronized void flush() {
+        Iterator<ActivityKey> keys = pending.keySet().iterator();
+
+        while (keys.hasNext()) {
+            List<ActivityKey> batchKeys = new ArrayList<>();
+            List<PendingActivity> batch = new ArrayList<>();
+
+            while (keys.hasNext() && batch.size() < properties.getBatchSize()) {
+                ActivityKey key = keys.next();
+                PendingActivity activity = pending.remove(key);
+                if (activity != null) {
+                    batchKeys.add(key);
+                    batch.add(activity);
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                write(batchKeys, batch);
+            }
+        }
+    }
+
+    private void flushSafely() {
+        flushScheduled.set(false);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Erro ao gravar atividade de login: {}", e.getMessage());
+        }
+    }
+
+    private void write(List<ActivityKey> keys, List<PendingActivity> activities) {
+        List<UpdateOneModel<Document>> updates = new ArrayList<>(activities.size());
+        for (int i = 0; i < activities.size(); i++) {
+            updates.add(toUpdate(keys.get(i), activities.get(i)));
+        }
+
+        try {
+            collection().bulkWrite(updates, new BulkWriteOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            for (BulkWriteError error : e.getWriteErrors()) {
+                requeue(keys.get(error.getIndex()), activities.get(error.getIndex()));
+            }
+            log.warn("{} atualizações de atividade falharam e voltaram ao buffer", e.getWriteErrors().size());
+        } catch (MongoException e) {
+            for (int i = 0; i < activities.size(); i++) {
+                requeue(keys.get(i), activities.get(i));
+            }
+            log.warn("Falha ao gravar atividade de login ({} usuários voltaram ao buffer): {}",
+                    activities.size(), e.getMessage());
+        }
+    }
+
+    private void requeue(ActivityKey key, PendingActivity activity) {
+        pending.merge(key, activity, PendingActivity::merge);
+    }
+
+    private UpdateOneModel<Document> toUpdate(ActivityKey key, PendingActivity activity) {
+        List<Bson> changes = new ArrayList<>();
+        changes.add(Updates.max("lastLoginAt", Date.from(activity.lastLoginAt())));
+        changes.add(Updates.inc("loginCount", activity.logins()));
+        if (activity.identityProvider() != null) {
+            changes.add(Updates.set("lastIdentityProvider", activity.identityProvider()));
+        }
+        return new UpdateOneModel<>(
+                Filters.and(Filters.eq("tenant", key.tenant()), Filters.eq("keycloakUserId", key.keycloakUserId())),
+                Updates.combine(changes));
+    }
+
+    private MongoCollection<Document> collection() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Customer.class))
+                .withWriteConcern(WriteConcern.valueOf(properties.getWriteConcern()));
+    }
+
+    private record ActivityKey(String tenant, String keycloakUserId) {}
+
+    private record PendingActivity(Instant lastLoginAt, long logins, String identityProvider) {
+
+        static PendingActivity login(Instant at, String identityProvider) {
+            return new PendingActivity(at, 1, identityProvider);
+        }
+
+        PendingActivity merge(PendingActivity other) {
+            boolean otherIsNewer = other.lastLoginAt.isAfter(lastLoginAt);
+            return new PendingActivity(
+                    otherIsNewer ? other.lastLoginAt : lastLoginAt,
+                    logins + other.logins,
+                    otherIsNewer && other.identityProvider != null ? other.identityProvider : identityProvider
+            );
+        }
+    }
+}
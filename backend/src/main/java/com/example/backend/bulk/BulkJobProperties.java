@@ -0,0 +1,23 @@
+package com.example.backend.bulk;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "customer.bulk")
+@Data
+public class BulkJobProperties {
+
+    private boolean workerEnabled = true;
+    private int maxIds = 10000;
+    private int batchSize = 500;
+    private int keycloakParallelism = 8;
+    private double keycloakRequestsPerSecond = 20;
+    private int maxAttempts = 5;
+    private Duration retryBackoff = Duration.ofSeconds(30);
+    private Duration pollInterval = Duration.ofSeconds(10);
+    private Duration leaseDuration = Duration.ofMinutes(2);
+}
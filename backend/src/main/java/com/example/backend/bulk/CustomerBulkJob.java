@@ -0,0 +1,61 @@
+package com.example.backend.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "customer_bulk_jobs")
+public class CustomerBulkJob {
+
+    @Id
+    private String id;
+
+    private Action action;
+
+    private Status status;
+
+    private String tenant;
+
+    private List<String> ids;
+
+    private LocalDateTime createdBefore;
+
+    private LocalDateTime lastLoginBefore;
+
+    private long customersMatched;
+
+    private long customersRemoved;
+
+    private Instant createdAt;
+
+    private Instant finishedAt;
+
+    private Instant nextRunAt;
+
+    private String leaseOwner;
+
+    private Instant leaseUntil;
+
+    public enum Action {
+        DELETE,
+        DEACTIVATE
+    }
+
+    public enum Status {
+        COLLECTING,
+        CLEANING_KEYCLOAK,
+        COMPLETED,
+        COMPLETED_WITH_FAILURES
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.backend.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "customer_bulk_job_items")
+public class CustomerBulkJobItem {
+
+    @Id
+    private String id;
+
+    private String jobId;
+
+    private String keycloakUserId;
+
+    private Status status;
+
+    private int attempts;
+
+    private String lastError;
+
+    private Instant nextAttemptAt;
+
+    private Instant updatedAt;
+
+    public static CustomerBulkJobItem pending(String jobId, String keycloakUserId) {
+        return CustomerBulkJobItem.builder()
+                .id(jobId + ":" + keycloakUserId)
+                .jobId(jobId)
+                .keycloakUserId(keycloakUserId)
+                .status(Status.PENDING)
+                .updatedAt(Instant.now())
+                .build();
+    }
+
+    public enum Status {
+        PENDING,
+        DONE,
+        FAILED
+    }
+}
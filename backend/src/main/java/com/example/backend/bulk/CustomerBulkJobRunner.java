@@ -0,0 +1,381 @@
+package com.example.backend.bulk;
+
+import com.example.backend.cache.CustomerCache;
+import com.example.backend.cache.CustomerVersionCache;
+import com.example.backend.model.Customer;
+import com.example.backend.service.KeycloakAdminService;
+import com.example.backend.service.KeycloakAttributeSync;
+import com.example.backend.tenant.KeycloakTenant;
+import com.example.backend.tenant.TenantContext;
+import com.example.backend.tenant.TenantRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "customer.bulk.worker-enabled", havingValue = "true", matchIfMissing = true)
+public class CustomerBulkJobRunner implements SmartLifecycle {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final TenantRegistry tenantRegistry;
+    private final KeycloakAdminService keycloakAdminService;
+    private final KeycloakAttributeSync keycloakAttributeSync;
+    private final CustomerCache customerCache;
+    private final CustomerVersionCache versionCache;
+    private final BulkJobProperties properties;
+    private final RequestRateLimiter rateLimiter;
+    private final String nodeId;
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService keycloakPool;
+    private volatile boolean running;
+
+    public CustomerBulkJobRunner(MongoTemplate mongoTemplate,
+                                 TenantRegistry tenantRegistry,
+                                 KeycloakAdminService keycloakAdminService,
+                                 KeycloakAttributeSync keycloakAttributeSync,
+                                 CustomerCache customerCache,
+                                 CustomerVersionCache versionCache,
+                                 BulkJobProperties properties,
+                                 @Value("${HOSTNAME:localhost}-${server.port:8081}") String nodeId) {
+        this.mongoTemplate = mongoTemplate;
+        this.tenantRegistry = tenantRegistry;
+        this.keycloakAdminService = keycloakAdminService;
+        this.keycloakAttributeSync = keycloakAttributeSync;
+        this.customerCache = customerCache;
+        this.versionCache = versionCache;
+        this.properties = properties;
+        this.rateLimiter = new RequestRateLimiter(properties.getKeycloakRequestsPerSecond());
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "customer-bulk-jobs");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger workers = new AtomicInteger();
+        keycloakPool = Executors.newFixedThreadPool(properties.getKeycloakParallelism(), runnable -> {
+            Thread thread = new Thread(runnable, "customer-bulk-keycloak-" + workers.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getPollInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::tick, interval, interval, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        scheduler.shutdownNow();
+        keycloakPool.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void wakeUp() {
+        if (running) {
+            scheduler.execute(this::tick);
+        }
+    }
+
+    private void tick() {
+        try {
+            CustomerBulkJob job;
+            while (running && (job = claimNext()) != null) {
+                CustomerBulkJob claimed = job;
+                KeycloakTenant tenant = tenantOf(claimed);
+                TenantContext.runAs(tenant, () -> process(claimed, tenant));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falha ao processar jobs de clientes em lote: {}", e.getMessage());
+        }
+    }
+
+    private void process(CustomerBulkJob job, KeycloakTenant tenant) {
+        if (job.getStatus() == CustomerBulkJob.Status.COLLECTING) {
+            collect(job);
+        }
+        if (running) {
+            cleanKeycloak(job, tenant);
+        }
+    }
+
+    private void collect(CustomerBulkJob job) {
+        if (job.getAction() == CustomerBulkJob.Action.DEACTIVATE) {
+            mongoTemplate.updateFirst(byId(job), new Update().set("customersMatched", 0), CustomerBulkJob.class);
+        }
+
+        Query query = customersOf(job);
+        query.fields().include("id", "email", "keycloakUserId");
+        List<Customer> batch = new ArrayList<>(properties.getBatchSize());
+
+        try (Stream<Customer> customers = mongoTemplate.stream(query, Customer.class)) {
+            Iterator<Customer> iterator = customers.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() >= properties.getBatchSize()) {
+                    applyBatch(job, batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            applyBatch(job, batch);
+        }
+
+        mongoTemplate.updateFirst(byId(job), new Update().set("status", CustomerBulkJob.Status.CLEANING_KEYCLOAK),
+                CustomerBulkJob.class);
+        log.info("Job em lote {}: clientes coletados, iniciando limpeza no Keycloak", job.getId());
+    }
+
+    private void applyBatch(CustomerBulkJob job, List<Customer> batch) {
+        insertItems(batch.stream()
+                .map(Customer::getKeycloakUserId)
+                .filter(Objects::nonNull)
+                .map(keycloakUserId -> CustomerBulkJobItem.pending(job.getId(), keycloakUserId))
+                .toList());
+
+        long removed = 0;
+        if (job.getAction() == CustomerBulkJob.Action.DELETE) {
+            List<String> ids = batch.stream().map(Customer::getId).toList();
+            removed = mongoTemplate.remove(Query.query(Criteria.where("tenant").is(job.getTenant()).and("id").in(ids)),
+                    Customer.class).getDeletedCount();
+            batch.forEach(this::evict);
+        }
+
+        mongoTemplate.updateFirst(byId(job), new Update()
+                        .inc("customersMatched", batch.size())
+                        .inc("customersRemoved", removed)
+                        .set("leaseUntil", Instant.now().plus(properties.getLeaseDuration())),
+                CustomerBulkJob.class);
+    }
+
+    private void insertItems(List<CustomerBulkJobItem> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CustomerBulkJobItem.class)
+                    .insert(items)
+                    .execute();
+        } catch (BulkOperationException e) {
+            boolean onlyDuplicates = e.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY);
+            if (!onlyDuplicates) {
+                throw e;
+            }
+        }
+    }
+
+    private void evict(Customer customer) {
+        customerCache.evict(customer);
+        versionCache.evict(customer);
+        if (customer.getKeycloakUserId() != null) {
+            keycloakAttributeSync.forget(customer.getKeycloakUserId());
+        }
+    }
+
+    private void cleanKeycloak(CustomerBulkJob job, KeycloakTenant tenant) {
+        while (running) {
+            List<CustomerBulkJobItem> due = mongoTemplate.find(dueItems(job).limit(properties.getBatchSize()),
+                    CustomerBulkJobItem.class);
+            if (due.isEmpty()) {
+                break;
+            }
+
+            List<Callable<Void>> tasks = due.stream()
+                    .map(item -> (Callable<Void>) () -> {
+                        TenantContext.runAs(tenant, () -> cleanUp(job, item));
+                        return null;
+                    })
+                    .toList();
+            try {
+                keycloakPool.invokeAll(tasks);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            renewLease(job);
+        }
+
+        if (running) {
+            finishOrReschedule(job);
+        }
+    }
+
+    private void cleanUp(CustomerBulkJob job, CustomerBulkJobItem item) {
+        rateLimiter.acquire();
+        try {
+            if (job.getAction() == CustomerBulkJob.Action.DELETE) {
+                keycloakAdminService.deleteUser(item.getKeycloakUserId());
+            } else {
+                keycloakAdminService.disableUser(item.getKeycloakUserId());
+            }
+            markDone(item);
+        } catch (RuntimeException e) {
+            if (isNotFound(e)) {
+                markDone(item);
+            } else {
+                markFailed(item, e);
+            }
+        }
+    }
+
+    private void markDone(CustomerBulkJobItem item) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(item.getId())), new Update()
+                        .set("status", CustomerBulkJobItem.Status.DONE)
+                        .set("attempts", item.getAttempts() + 1)
+                        .unset("lastError")
+                        .unset("nextAttemptAt")
+                        .set("updatedAt", Instant.now()),
+                CustomerBulkJobItem.class);
+    }
+
+    private void markFailed(CustomerBulkJobItem item, RuntimeException error) {
+        int attempts = item.getAttempts() + 1;
+        Instant nextAttemptAt = Instant.now().plus(properties.getRetryBackoff().multipliedBy(1L << Math.min(attempts - 1, 10)));
+
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(item.getId())), new Update()
+                        .set("status", CustomerBulkJobItem.Status.FAILED)
+                        .set("attempts", attempts)
+                        .set("lastError", error.getMessage())
+                        .set("nextAttemptAt", nextAttemptAt)
+                        .set("updatedAt", Instant.now()),
+                CustomerBulkJobItem.class);
+        log.warn("Falha na limpeza do usuário {} no Keycloak (tentativa {}): {}",
+                item.getKeycloakUserId(), attempts, error.getMessage());
+    }
+
+    private void finishOrReschedule(CustomerBulkJob job) {
+        Query retriable = Query.query(Criteria.where("jobId").is(job.getId())
+                        .and("status").is(CustomerBulkJobItem.Status.FAILED)
+                        .and("attempts").lt(properties.getMaxAttempts()))
+                .with(Sort.by(Sort.Direction.ASC, "nextAttemptAt"));
+        CustomerBulkJobItem next = mongoTemplate.findOne(retriable, CustomerBulkJobItem.class);
+
+        if (next != null) {
+            mongoTemplate.updateFirst(byId(job), new Update()
+                            .set("nextRunAt", next.getNextAttemptAt())
+                            .unset("leaseOwner")
+                            .unset("leaseUntil"),
+                    CustomerBulkJob.class);
+            return;
+        }
+
+        long failed = mongoTemplate.count(Query.query(Criteria.where("jobId").is(job.getId())
+                .and("status").is(CustomerBulkJobItem.Status.FAILED)), CustomerBulkJobItem.class);
+        CustomerBulkJob.Status status = failed > 0
+                ? CustomerBulkJob.Status.COMPLETED_WITH_FAILURES
+                : CustomerBulkJob.Status.COMPLETED;
+
+        mongoTemplate.updateFirst(byId(job), new Update()
+                        .set("status", status)
+                        .set("finishedAt", Instant.now())
+                        .unset("nextRunAt")
+                        .unset("leaseOwner")
+                        .unset("leaseUntil"),
+                CustomerBulkJob.class);
+        log.info("Job em lote {} finalizado: {} ({} falhas no Keycloak)", job.getId(), status, failed);
+    }
+
+    private CustomerBulkJob claimNext() {
+        Instant now = Instant.now();
+        Query query = Query.query(Criteria.where("status")
+                        .in(CustomerBulkJob.Status.COLLECTING, CustomerBulkJob.Status.CLEANING_KEYCLOAK)
+                        .and("nextRunAt").lte(now)
+                        .orOperator(
+                                Criteria.where("leaseOwner").is(nodeId),
+                                Criteria.where("leaseUntil").lt(now),
+                                Criteria.where("leaseUntil").exists(false)))
+                .with(Sort.by(Sort.Direction.ASC, "nextRunAt"));
+
+        return mongoTemplate.findAndModify(query,
+                new Update().set("leaseOwner", nodeId).set("leaseUntil", now.plus(properties.getLeaseDuration())),
+                FindAndModifyOptions.options().returnNew(true),
+                CustomerBulkJob.class);
+    }
+
+    private void renewLease(CustomerBulkJob job) {
+        mongoTemplate.updateFirst(byId(job).addCriteria(Criteria.where("leaseOwner").is(nodeId)),
+                new Update().set("leaseUntil", Instant.now().plus(properties.getLeaseDuration())),
+                CustomerBulkJob.class);
+    }
+
+    private Query dueItems(CustomerBulkJob job) {
+        return Query.query(Criteria.where("jobId").is(job.getId()).orOperator(
+                Criteria.where("status").is(CustomerBulkJobItem.Status.PENDING),
+                Criteria.where("status").is(CustomerBulkJobItem.Status.FAILED)
+                        .and("attempts").lt(properties.getMaxAttempts())
+                        .and("nextAttemptAt").lte(Instant.now())));
+    }
+
+    private KeycloakTenant tenantOf(CustomerBulkJob job) {
+        return job.getTenant() != null
+                ? tenantRegistry.get(job.getTenant()).orElseGet(tenantRegistry::defaultTenant)
+                : tenantRegistry.defaultTenant();
+    }
+
+    static Query customersOf(CustomerBulkJob job) {
+        List<Criteria> criteria = new ArrayList<>();
+        criteria.add(Criteria.where("tenant").is(job.getTenant()));
+        if (job.getIds() != null && !job.getIds().isEmpty()) {
+            criteria.add(Criteria.where("id").in(job.getIds()));
+        }
+        if (job.getCreatedBefore() != null) {
+            criteria.add(Criteria.where("createdAt").lt(job.getCreatedBefore()));
+        }
+        if (job.getLastLoginBefore() != null) {
+            criteria.add(new Criteria().orOperator(
+                    Criteria.where("lastLoginAt").lt(job.getLastLoginBefore()),
+                    Criteria.where("lastLoginAt").exists(false).and("createdAt").lt(job.getLastLoginBefore())));
+        }
+        return Query.query(new Criteria().andOperator(criteria));
+    }
+
+    private static Query byId(CustomerBulkJob job) {
+        return Query.query(Criteria.where("id").is(job.getId()));
+    }
+
+    private static boolean isNotFound(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpClientErrorException.NotFound) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
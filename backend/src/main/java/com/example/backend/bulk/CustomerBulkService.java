@@ -0,0 +1,162 @@
+package com.example.backend.bulk;
+
+import com.example.backend.model.dto.BulkCustomerJobDTO;
+import com.example.backend.model.dto.BulkCustomerRequestDTO;
+import com.example.backend.tenant.TenantRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerBulkService {
+
+    private final MongoTemplate mongoTemplate;
+    private final TenantRegistry tenantRegistry;
+    private final BulkJobProperties properties;
+    private final ObjectProvider<CustomerBulkJobRunner> runner;
+
+    public BulkCustomerJobDTO submit(CustomerBulkJob.Action action, BulkCustomerRequestDTO request) {
+        validate(request);
+
+        Instant now = Instant.now();
+        CustomerBulkJob job = mongoTemplate.insert(CustomerBulkJob.builder()
+                .action(action)
+                .status(CustomerBulkJob.Status.COLLECTING)
+                .tenant(tenantRegistry.current().getId())
+                .ids(request.getIds() != null && !request.getIds().isEmpty() ? List.copyOf(request.getIds()) : null)
+                .createdBefore(request.getCreatedBefore())
+                .lastLoginBefore(request.getLastLoginBefore())
+                .createdAt(now)
+                .nextRunAt(now)
+                .build());
+
+        log.info("Job em lote {} criado: {}", job.getId(), action);
+        runner.ifAvailable(CustomerBulkJobRunner::wakeUp);
+        return toDTO(job);
+    }
+
+    public void scheduleKeycloakCleanup(String keycloakUserId) {
+        scheduleKeycloakCleanup(tenantRegistry.current().getId(), List.of(keycloakUserId));
+    }
+
+    public void scheduleKeycloakCleanup(String tenant, List<String> keycloakUserIds) {
+        if (keycloakUserIds.isEmpty()) {
+            return;
+        }
+
+        // Os itens são gravados antes do job: um runner de outro nó pode pegar o job assim que ele existir e, sem
+        // itens, o finalizaria deixando os usuários no Keycloak.
+        String jobId = new ObjectId().toHexString();
+        mongoTemplate.insert(keycloakUserIds.stream()
+                .map(keycloakUserId -> CustomerBulkJobItem.pending(jobId, keycloakUserId))
+                .toList(), CustomerBulkJobItem.class);
+
+        Instant now = Instant.now();
+        CustomerBulkJob job = mongoTemplate.insert(CustomerBulkJob.builder()
+                .id(jobId)
+                .action(CustomerBulkJob.Action.DELETE)
+                .status(CustomerBulkJob.Status.CLEANING_KEYCLOAK)
+                .tenant(tenant)
+                .customersMatched(keycloakUserIds.size())
+                .customersRemoved(keycloakUserIds.size())
+                .createdAt(now)
+                .nextRunAt(now)
+                .build());
+
+        log.info("Remoção de {} usuários no Keycloak agendada no job {}", keycloakUserIds.size(), job.getId());
+        runner.ifAvailable(CustomerBulkJobRunner::wakeUp);
+    }
+
+    public Optional<BulkCustomerJobDTO> findJob(String jobId) {
+        return Optional.ofNullable(mongoTemplate.findOne(jobOfCurrentTenant(jobId), CustomerBulkJob.class)).map(this::toDTO);
+    }
+
+    public Optional<BulkCustomerJobDTO> retryFailed(String jobId) {
+        CustomerBulkJob job = mongoTemplate.findOne(jobOfCurrentTenant(jobId), CustomerBulkJob.class);
+        if (job == null) {
+            return Optional.empty();
+        }
+
+        Instant now = Instant.now();
+        long requeued = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("jobId").is(jobId).and("status").is(CustomerBulkJobItem.Status.FAILED)),
+                new Update()
+                        .set("status", CustomerBulkJobItem.Status.PENDING)
+                        .set("attempts", 0)
+                        .unset("nextAttemptAt")
+                        .set("updatedAt", now),
+                CustomerBulkJobItem.class).getModifiedCount();
+
+        if (requeued > 0 && job.getStatus() != CustomerBulkJob.Status.COLLECTING) {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(jobId)), new Update()
+                            .set("status", CustomerBulkJob.Status.CLEANING_KEYCLOAK)
+                            .set("nextRunAt", now)
+                            .unset("finishedAt"),
+                    CustomerBulkJob.class);
+            runner.ifAvailable(CustomerBulkJobRunner::wakeUp);
+        }
+
+        log.info("Job em lote {}: {} itens com falha reenfileirados", jobId, requeued);
+        return findJob(jobId);
+    }
+
+    private Query jobOfCurrentTenant(String jobId) {
+        return Query.query(Criteria.where("id").is(jobId).and("tenant").is(tenantRegistry.current().getId()));
+    }
+
+    private void validate(BulkCustomerRequestDTO request) {
+        boolean hasIds = request.getIds() != null && !request.getIds().isEmpty();
+        if (!hasIds && request.getCreatedBefore() == null && request.getLastLoginBefore() == null) {
+            throw new IllegalArgumentException("Informe ids, createdBefore ou lastLoginBefore");
+        }
+
+        if (hasIds && request.getIds().size() > properties.getMaxIds()) {
+            throw new IllegalArgumentException("Máximo de " + properties.getMaxIds() + " ids por job");
+        }
+    }
+
+    private BulkCustomerJobDTO toDTO(CustomerBulkJob job) {
+        Map<CustomerBulkJobItem.Status, Long> items = countItems(job.getId());
+
+        return BulkCustomerJobDTO.builder()
+                .id(job.getId())
+                .action(job.getAction().name())
+                .status(job.getStatus().name())
+                .customersMatched(job.getCustomersMatched())
+                .customersRemoved(job.getCustomersRemoved())
+                .keycloakPending(items.getOrDefault(CustomerBulkJobItem.Status.PENDING, 0L))
+                .keycloakDone(items.getOrDefault(CustomerBulkJobItem.Status.DONE, 0L))
+                .keycloakFailed(items.getOrDefault(CustomerBulkJobItem.Status.FAILED, 0L))
+                .createdAt(job.getCreatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+
+    private Map<CustomerBulkJobItem.Status, Long> countItems(String jobId) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("jobId").is(jobId)),
+                Aggregation.group("status").count().as("count"));
+
+        Map<CustomerBulkJobItem.Status, Long> counts = new EnumMap<>(CustomerBulkJobItem.Status.class);
+        mongoTemplate.aggregate(aggregation, CustomerBulkJobItem.class, Document.class).forEach(result ->
+                counts.put(CustomerBulkJobItem.Status.valueOf(result.getString("_id")),
+                        result.get("count", Number.class).longValue()));
+        return counts;
+    }
+}
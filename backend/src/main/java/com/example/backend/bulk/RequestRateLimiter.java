@@ -0,0 +1,27 @@
+package com.example.backend.bulk;
+
+import java.util.concurrent.locks.LockSupport;
+
+class RequestRateLimiter {
+
+    private final long intervalNanos;
+    private long nextSlot = System.nanoTime();
+
+    RequestRateLimiter(double permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond > 0 ? (long) (1_000_000_000L / permitsPerSecond) : 0;
+    }
+
+    void acquire() {
+        long wait;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(nextSlot, now);
+            nextSlot = slot + intervalNanos;
+            wait = slot - now;
+        }
+
+        if (wait > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.backend.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "customer.cache.invalidation")
+@Data
+public class CacheInvalidationProperties {
+
+    private boolean enabled = true;
+    private String nodeId;
+    private Duration maxAwaitTime = Duration.ofSeconds(1);
+    private Duration tokenPersistInterval = Duration.ofSeconds(1);
+    private Duration retryBackoff = Duration.ofSeconds(5);
+}
@@ -0,0 +1,170 @@
+package com.example.backend.cache;
+
+import com.example.backend.model.Customer;
+import com.example.backend.tenant.KeycloakTenant;
+import com.example.backend.tenant.TenantRegistry;
+import com.example.backend.util.SearchNormalizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class CustomerCache {
+
+    private final TenantRegistry tenantRegistry;
+    private final Map<String, Partition> partitions = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+
+    public CustomerCache(TenantRegistry tenantRegistry, @Value("${customer.cache.ttl:PT30S}") Duration ttl) {
+        this.tenantRegistry = tenantRegistry;
+        this.ttlMillis = ttl.toMillis();
+        tenantRegistry.all().forEach(tenant -> partitions.put(tenant.getId(), new Partition(tenant.getCustomerCacheMaxEntries())));
+    }
+
+    public Optional<Customer> getById(String id) {
+        return partition().getById(id);
+    }
+
+    public Optional<Customer> getByEmail(String email) {
+        return email != null ? partition().getByEmail(SearchNormalizer.normalizeEmail(email)) : Optional.empty();
+    }
+
+    public Optional<Customer> getByKeycloakUserId(String keycloakUserId) {
+        return partition().getByKeycloakUserId(keycloakUserId);
+    }
+
+    public Optional<Customer> findInAnyPartition(String id) {
+        return partitions.values().stream()
+                .map(partition -> partition.getById(id))
+                .flatMap(Optional::stream)
+                .findFirst();
+    }
+
+    public void put(Customer customer) {
+        if (customer.getId() == null) {
+            return;
+        }
+
+        evict(customer.getId(), null, null);
+        partition(customer.getTenant()).put(customer);
+    }
+
+    public void evict(Customer customer) {
+        evict(customer.getId(), customer.getEmail(), customer.getKeycloakUserId());
+    }
+
+    public void evict(String id, String email, String keycloakUserId) {
+        partitions.values().forEach(partition -> partition.evict(id, email, keycloakUserId));
+    }
+
+    public void clear() {
+        partitions.values().forEach(Partition::clear);
+    }
+
+    private Partition partition() {
+        return partition(tenantRegistry.current());
+    }
+
+    private Partition partition(String tenantId) {
+        return tenantId != null
+                ? tenantRegistry.get(tenantId).map(this::partition).orElseGet(this::partition)
+                : partition();
+    }
+
+    private Partition partition(KeycloakTenant tenant) {
+        return partitions.computeIfAbsent(tenant.getId(), id -> new Partition(tenant.getCustomerCacheMaxEntries()));
+    }
+
+    private final class Partition {
+
+        private final ConcurrentHashMap<String, Entry> byId = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, Entry> byEmail = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, Entry> byKeycloakUserId = new ConcurrentHashMap<>();
+        private final int maxEntries;
+
+        private Partition(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        Optional<Customer> getById(String id) {
+            return fresh(byId, id);
+        }
+
+        Optional<Customer> getByEmail(String normalizedEmail) {
+            return fresh(byEmail, normalizedEmail);
+        }
+
+        Optional<Customer> getByKeycloakUserId(String keycloakUserId) {
+            return fresh(byKeycloakUserId, keycloakUserId);
+        }
+
+        void put(Customer customer) {
+            if (byId.size() >= maxEntries) {
+                clear();
+            }
+
+            Entry entry = new Entry(customer, System.currentTimeMillis());
+            byId.put(customer.getId(), entry);
+            if (customer.getEmail() != null) {
+                byEmail.put(SearchNormalizer.normalizeEmail(customer.getEmail()), entry);
+            }
+            if (customer.getKeycloakUserId() != null) {
+                byKeycloakUserId.put(customer.getKeycloakUserId(), entry);
+            }
+        }
+
+        void evict(String id, String email, String keycloakUserId) {
+            if (id != null) {
+                removeAll(byId.remove(id));
+            }
+            if (email != null) {
+                removeAll(byEmail.remove(SearchNormalizer.normalizeEmail(email)));
+            }
+            if (keycloakUserId != null) {
+                removeAll(byKeycloakUserId.remove(keycloakUserId));
+            }
+        }
+
+        void clear() {
+            byId.clear();
+            byEmail.clear();
+            byKeycloakUserId.clear();
+        }
+
+        private void removeAll(Entry entry) {
+            if (entry == null) {
+                return;
+            }
+
+            Customer customer = entry.customer();
+            byId.remove(customer.getId(), entry);
+            if (customer.getEmail() != null) {
+                byEmail.remove(SearchNormalizer.normalizeEmail(customer.getEmail()), entry);
+            }
+            if (customer.getKeycloakUserId() != null) {
+                byKeycloakUserId.remove(customer.getKeycloakUserId(), entry);
+            }
+        }
+
+        private Optional<Customer> fresh(ConcurrentHashMap<String, Entry> index, String key) {
+            Entry entry = index.get(key);
+
+            if (entry == null) {
+                return Optional.empty();
+            }
+
+            if (System.currentTimeMillis() - entry.cachedAt() >= ttlMillis) {
+                removeAll(entry);
+                return Optional.empty();
+            }
+
+            return Optional.of(entry.customer());
+        }
+    }
+
+    private record Entry(Customer customer, long cachedAt) {}
+}
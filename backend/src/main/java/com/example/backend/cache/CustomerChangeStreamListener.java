@@ -0,0 +1,278 @@
+package com.example.backend.cache;
+
+import com.example.backend.activity.CustomerActivityBuffer;
+import com.example.backend.model.Customer;
+import com.example.backend.service.KeycloakAttributeSync;
+import com.mongodb.MongoException;
+import com.mongodb.MongoServerException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "customer.cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class CustomerChangeStreamListener implements SmartLifecycle {
+
+    private static final int REPLICA_SET_REQUIRED = 40573;
+    private static final Set<Integer> RESUME_TOKEN_LOST = Set.of(136, 260, 280, 286);
+
+    private final MongoTemplate mongoTemplate;
+    private final ResumeTokenStore resumeTokenStore;
+    private final CustomerCache customerCache;
+    private final CustomerVersionCache versionCache;
+    private final CacheInvalidationProperties properties;
+    private final KeycloakAttributeSync keycloakAttributeSync;
+    private final String nodeId;
+
+    private volatile boolean running;
+    private Thread worker;
+    private long lastPersistedAt;
+
+    public CustomerChangeStreamListener(MongoTemplate mongoTemplate,
+                                        ResumeTokenStore resumeTokenStore,
+                                        CustomerCache customerCache,
+                                        CustomerVersionCache versionCache,
+                                        CacheInvalidationProperties properties,
+                                        KeycloakAttributeSync keycloakAttributeSync,
+                                        @Value("${HOSTNAME:localhost}-${server.port:8081}") String defaultNodeId) {
+        this.mongoTemplate = mongoTemplate;
+        this.resumeTokenStore = resumeTokenStore;
+        this.customerCache = customerCache;
+        this.versionCache = versionCache;
+        this.properties = properties;
+        this.keycloakAttributeSync = keycloakAttributeSync;
+        this.nodeId = properties.getNodeId() != null ? properties.getNodeId() : defaultNodeId;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::listen, "customer-change-stream");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(properties.getMaxAwaitTime().toMillis() * 2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        BsonDocument resumeToken = loadResumeToken();
+
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = openCursor(resumeToken)) {
+                log.info("Change stream de customers aberto (nó {}, retomando: {})", nodeId, resumeToken != null);
+
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change != null) {
+                        invalidate(change);
+                    }
+
+                    BsonDocument token = cursor.getResumeToken();
+                    if (token != null) {
+                        resumeToken = token;
+                        persistResumeToken(token, false);
+                    }
+                }
+            } catch (MongoServerException e) {
+                if (e.getCode() == REPLICA_SET_REQUIRED) {
+                    log.warn("MongoDB sem replica set; invalidação entre nós desativada (somente TTL)");
+                    running = false;
+                    return;
+                }
+
+                if (RESUME_TOKEN_LOST.contains(e.getCode())) {
+                    log.warn("Resume token perdido ({}); limpando cache local", e.getCode());
+                    flush();
+                    resumeToken = null;
+                    deleteResumeToken();
+                    continue;
+                }
+
+                handleFailure(e);
+            } catch (MongoException e) {
+                handleFailure(e);
+            }
+        }
+
+        if (resumeToken != null) {
+            persistResumeToken(resumeToken, true);
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> openCursor(BsonDocument resumeToken) {
+        List<Bson> pipeline = List.of(
+                Aggregates.match(Filters.in("operationType", "insert", "update", "replace", "delete", "drop", "invalidate")),
+                Aggregates.match(Filters.nor(activityOnlyUpdate())),
+                Aggregates.project(Projections.include("operationType", "documentKey",
+                        "fullDocument.email", "fullDocument.keycloakUserId", "fullDocument.version"))
+        );
+
+        ChangeStreamIterable<Document> changeStream = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Customer.class))
+                .watch(pipeline)
+                .maxAwaitTime(properties.getMaxAwaitTime().toMillis(), TimeUnit.MILLISECONDS);
+
+        return (resumeToken != null ? changeStream.startAfter(resumeToken) : changeStream).cursor();
+    }
+
+    private static Bson activityOnlyUpdate() {
+        Document updatedFieldNames = new Document("$map", new Document("input",
+                new Document("$objectToArray", "$updateDescription.updatedFields"))
+                .append("in", "$$this.k"));
+
+        return Filters.and(
+                Filters.eq("operationType", "update"),
+                Filters.size("updateDescription.removedFields", 0),
+                Filters.expr(new Document("$setIsSubset",
+                        List.of(updatedFieldNames, List.copyOf(CustomerActivityBuffer.ACTIVITY_FIELDS))))
+        );
+    }
+
+    private void invalidate(ChangeStreamDocument<Document> change) {
+        OperationType operationType = change.getOperationType();
+
+        if (operationType == OperationType.DROP || operationType == OperationType.INVALIDATE) {
+            flush();
+            return;
+        }
+
+        String id = documentId(change.getDocumentKey());
+        Document fullDocument = change.getFullDocument();
+
+        if (id == null) {
+            return;
+        }
+
+        if (fullDocument == null) {
+            customerCache.findInAnyPartition(id)
+                    .map(Customer::getKeycloakUserId)
+                    .ifPresent(keycloakAttributeSync::forget);
+            customerCache.evict(id, null, null);
+            versionCache.evict(id, null);
+            return;
+        }
+
+        Number version = fullDocument.get("version", Number.class);
+        if (version != null) {
+            versionCache.recordWrite(id, version.longValue());
+        }
+        if (version != null && isCachedVersion(id, version.longValue())) {
+            return;
+        }
+
+        String email = fullDocument.getString("email");
+        String keycloakUserId = fullDocument.getString("keycloakUserId");
+        customerCache.evict(id, email, keycloakUserId);
+        versionCache.evict(id, keycloakUserId);
+        if (keycloakUserId != null) {
+            keycloakAttributeSync.forget(keycloakUserId);
+        }
+    }
+
+    private boolean isCachedVersion(String id, long version) {
+        return customerCache.findInAnyPartition(id)
+                .map(Customer::getVersion)
+                .filter(cached -> cached == version)
+                .isPresent();
+    }
+
+    private String documentId(BsonDocument documentKey) {
+        BsonValue id = documentKey != null ? documentKey.get("_id") : null;
+
+        if (id == null) {
+            return null;
+        }
+
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+
+        return id.isString() ? id.asString().getValue() : null;
+    }
+
+    private void flush() {
+        customerCache.clear();
+        versionCache.clear();
+    }
+
+    private BsonDocument loadResumeToken() {
+        try {
+            return resumeTokenStore.load(nodeId).orElse(null);
+        } catch (MongoException e) {
+            log.warn("Não foi possível carregar o resume token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void persistResumeToken(BsonDocument token, boolean force) {
+        long now = System.currentTimeMillis();
+
+        if (!force && now - lastPersistedAt < properties.getTokenPersistInterval().toMillis()) {
+            return;
+        }
+
+        try {
+            resumeTokenStore.save(nodeId, token);
+            lastPersistedAt = now;
+        } catch (MongoException e) {
+            log.warn("Não foi possível salvar o resume token: {}", e.getMessage());
+        }
+    }
+
+    private void deleteResumeToken() {
+        try {
+            resumeTokenStore.delete(nodeId);
+        } catch (MongoException e) {
+            log.warn("Não foi possível remover o resume token: {}", e.getMessage());
+        }
+    }
+
+    private void handleFailure(MongoException e) {
+        if (!running) {
+            return;
+        }
+
+        log.warn("Falha no change stream de customers: {}; tentando novamente em {}", e.getMessage(), properties.getRetryBackoff());
+        try {
+            Thread.sleep(properties.getRetryBackoff().toMillis());
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.backend.cache;
+
+import com.example.backend.model.Customer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class CustomerVersionCache {
+
+    private final ConcurrentHashMap<String, VersionStamp> byId = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, VersionStamp> byKeycloakUserId = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, VersionStamp> writtenById = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final long writeFloorTtlMillis;
+    private final int maxEntries;
+
+    public CustomerVersionCache(@Value("${customer.version-cache.ttl:PT5S}") Duration ttl,
+                                @Value("${customer.version-cache.write-floor-ttl:PT90S}") Duration writeFloorTtl,
+                                @Value("${customer.version-cache.max-entries:10000}") int maxEntries) {
+        this.ttlMillis = ttl.toMillis();
+        this.writeFloorTtlMillis = writeFloorTtl.toMillis();
+        this.maxEntries = maxEntries;
+    }
+
+    public Optional<VersionStamp> getById(String tenant, String id) {
+        return fresh(byId, id).filter(stamp -> tenant.equals(stamp.tenant()));
+    }
+
+    public Optional<VersionStamp> getByKeycloakUserId(String tenant, String keycloakUserId) {
+        return fresh(byKeycloakUserId, keycloakUserId).filter(stamp -> tenant.equals(stamp.tenant()));
+    }
+
+    public void put(Customer customer) {
+        if (customer.getId() == null || customer.getVersion() == null) {
+            return;
+        }
+
+        if (byId.size() >= maxEntries) {
+            clear();
+        }
+
+        VersionStamp stamp = new VersionStamp(
+                customer.getId(),
+                customer.getTenant(),
+                customer.getKeycloakUserId(),
+                customer.getVersion(),
+                System.currentTimeMillis()
+        );
+
+        byId.put(stamp.id(), stamp);
+        if (stamp.keycloakUserId() != null) {
+            byKeycloakUserId.put(stamp.keycloakUserId(), stamp);
+        }
+    }
+
+    public void recordWrite(String id, Long version) {
+        if (id == null || version == null) {
+            return;
+        }
+
+        if (writtenById.size() >= maxEntries) {
+            long now = System.currentTimeMillis();
+            writtenById.values().removeIf(written -> now - written.cachedAt() >= writeFloorTtlMillis);
+            if (writtenById.size() >= maxEntries) {
+                writtenById.clear();
+            }
+        }
+
+        writtenById.merge(id, new VersionStamp(id, null, null, version, System.currentTimeMillis()),
+                (current, candidate) -> candidate.version() >= current.version() ? candidate : current);
+    }
+
+    public boolean isOlderThanWritten(Customer customer) {
+        VersionStamp written = customer.getId() != null ? writtenById.get(customer.getId()) : null;
+
+        if (written == null || customer.getVersion() == null) {
+            return false;
+        }
+
+        if (System.currentTimeMillis() - written.cachedAt() >= writeFloorTtlMillis) {
+            writtenById.remove(customer.getId(), written);
+            return false;
+        }
+
+        return customer.getVersion() < written.version();
+    }
+
+    public void evict(Customer customer) {
+        evict(customer.getId(), customer.getKeycloakUserId());
+    }
+
+    public void evict(String id, String keycloakUserId) {
+        if (id != null) {
+            VersionStamp removed = byId.remove(id);
+            if (removed != null && removed.keycloakUserId() != null) {
+                byKeycloakUserId.remove(removed.keycloakUserId());
+            }
+        }
+
+        if (keycloakUserId != null) {
+            VersionStamp removed = byKeycloakUserId.remove(keycloakUserId);
+            if (removed != null) {
+                byId.remove(removed.id());
+            }
+        }
+    }
+
+    public void clear() {
+        byId.clear();
+        byKeycloakUserId.clear();
+        writtenById.clear();
+    }
+
+    private Optional<VersionStamp> fresh(ConcurrentHashMap<String, VersionStamp> index, String key) {
+        VersionStamp stamp = index.get(key);
+
+        if (stamp == null) {
+            return Optional.empty();
+        }
+
+        if (System.currentTimeMillis() - stamp.cachedAt() >= ttlMillis) {
+            index.remove(key, stamp);
+            return Optional.empty();
+        }
+
+        return Optional.of(stamp);
+    }
+
+    public record VersionStamp(String id, String tenant, String keycloakUserId, Long version, long cachedAt) {}
+}
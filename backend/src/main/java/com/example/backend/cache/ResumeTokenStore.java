@@ -0,0 +1,44 @@
+package com.example.backend.cache;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import lombok.RequiredArgsConstructor;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+public class ResumeTokenStore {
+
+    private static final String COLLECTION = "cache_resume_tokens";
+
+    private final MongoTemplate mongoTemplate;
+
+    public Optional<BsonDocument> load(String nodeId) {
+        BsonDocument stored = collection().find(Filters.eq("_id", nodeId)).first();
+        return Optional.ofNullable(stored)
+                .filter(document -> document.isDocument("token"))
+                .map(document -> document.getDocument("token"));
+    }
+
+    public void save(String nodeId, BsonDocument token) {
+        BsonDocument document = new BsonDocument("_id", new BsonString(nodeId))
+                .append("token", token)
+                .append("updatedAt", new BsonDateTime(System.currentTimeMillis()));
+        collection().replaceOne(Filters.eq("_id", nodeId), document, new ReplaceOptions().upsert(true));
+    }
+
+    public void delete(String nodeId) {
+        collection().deleteOne(Filters.eq("_id", nodeId));
+    }
+
+    private MongoCollection<BsonDocument> collection() {
+        return mongoTemplate.getCollection(COLLECTION).withDocumentClass(BsonDocument.class);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.backend.config;
+
+import com.example.backend.controller.AuthorizationController;
+import com.example.backend.repository.CustomerRepository;
+import com.example.backend.security.SessionRevocationRegistry;
+import com.example.backend.service.AuthorizationService;
+import com.example.backend.service.KeycloakHttpClient;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.web.SecurityFilterChain;
+
+@Configuration
+public class FastStartConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter criticalPathBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                SecurityFilterChain.class,
+                SessionRevocationRegistry.class,
+                AuthorizationController.class,
+                AuthorizationService.class,
+                KeycloakHttpClient.class,
+                CustomerRepository.class
+        );
+    }
+}
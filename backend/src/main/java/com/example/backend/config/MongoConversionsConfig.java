@@ -0,0 +1,38 @@
+package com.example.backend.config;
+
+import com.example.backend.record.Cpf;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.util.List;
+
+@Configuration
+public class MongoConversionsConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(new CpfToLongConverter(), new LongToCpfConverter()));
+    }
+
+    @WritingConverter
+    static class CpfToLongConverter implements Converter<Cpf, Long> {
+
+        @Override
+        public Long convert(Cpf source) {
+            return source.value();
+        }
+    }
+
+    @ReadingConverter
+    static class LongToCpfConverter implements Converter<Long, Cpf> {
+
+        @Override
+        public Cpf convert(Long source) {
+            return new Cpf(source);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.backend.config;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.TagSet;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@ConfigurationProperties(prefix = "mongo.read-routing")
+@Data
+public class MongoReadRoutingProperties {
+
+    private String lookupReadPreference = "secondaryPreferred";
+    private Duration maxStaleness = Duration.ofSeconds(90);
+
+    public ReadPreference toLookupReadPreference() {
+        ReadPreference mode = ReadPreference.valueOf(lookupReadPreference);
+
+        if (mode.equals(ReadPreference.primary()) || maxStaleness == null) {
+            return mode;
+        }
+
+        return ReadPreference.valueOf(lookupReadPreference, List.<TagSet>of(),
+                maxStaleness.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
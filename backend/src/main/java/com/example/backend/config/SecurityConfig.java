@@ -1,8 +1,21 @@
 package com.example.backend.config;
 
+import com.example.backend.resilience.HedgedRequests;
+import com.example.backend.security.AdminAuthoritiesConverter;
+import com.example.backend.security.AuthorizationProperties;
+import com.example.backend.security.PublicPathBearerTokenResolver;
+import com.example.backend.security.RevokedSessionFilter;
+import com.example.backend.security.SessionRevocationRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import com.example.backend.tenant.TenantJwtDecoder;
+import com.example.backend.tenant.TenantProperties;
+import com.example.backend.tenant.TenantRegistry;
+import com.example.backend.tenant.TenantResolutionFilter;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -13,24 +26,56 @@ import java.util.List;
 
 @Configuration
 public class SecurityConfig {
+
+    private static final String[] AUTH_PATHS = {"/auth/**", "/api/auth/**"};
+
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, SessionRevocationRegistry revocationRegistry,
+                                           TenantRegistry tenantRegistry, TenantProperties tenantProperties,
+                                           AuthorizationProperties authorizationProperties) throws Exception {
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
-            .authorizeHttpRequests(authz -> authz
-                .requestMatchers("/auth/**", "/api/auth/**", "/api/customers/**", "/error").permitAll()
-                .anyRequest().authenticated()
-            );
+            .authorizeHttpRequests(authz -> {
+                authz
+                    .requestMatchers(AUTH_PATHS).permitAll()
+                    .requestMatchers("/error").permitAll()
+                    .requestMatchers("/actuator/health/**").permitAll()
+                    .requestMatchers("/actuator/**", "/api/customers/bulk-delete", "/api/customers/bulk-deactivate",
+                            "/api/customers/bulk-jobs/**").hasRole(AdminAuthoritiesConverter.ADMIN_ROLE);
+                if (!authorizationProperties.isEnabled()) {
+                    authz.requestMatchers("/api/customers/**").permitAll();
+                }
+                authz.anyRequest().authenticated();
+            })
+            .oauth2ResourceServer(oauth2 -> oauth2
+                    .bearerTokenResolver(new PublicPathBearerTokenResolver(AUTH_PATHS))
+                    .jwt(jwt -> jwt.jwtAuthenticationConverter(
+                            jwtAuthenticationConverter(tenantRegistry, authorizationProperties))))
+            .addFilterBefore(new TenantResolutionFilter(tenantRegistry, tenantProperties), BearerTokenAuthenticationFilter.class)
+            .addFilterAfter(new RevokedSessionFilter(revocationRegistry), BearerTokenAuthenticationFilter.class);
         return http.build();
     }
 
+    private static JwtAuthenticationConverter jwtAuthenticationConverter(TenantRegistry tenantRegistry,
+                                                                         AuthorizationProperties authorizationProperties) {
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(new AdminAuthoritiesConverter(tenantRegistry, authorizationProperties));
+        return converter;
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(TenantRegistry tenantRegistry, HedgedRequests hedgedRequests) {
+        return new TenantJwtDecoder(tenantRegistry, hedgedRequests);
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(List.of("http://localhost:4200"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of("ETag", "X-Trace-Id"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
@@ -1,10 +1,12 @@
 package com.example.backend.controller;
 
+import com.example.backend.idempotency.IdempotencyConflictException;
 import com.example.backend.model.LoginResponse;
 import com.example.backend.model.dto.LoginRequestDTO;
 import com.example.backend.model.dto.RegisterRequestDTO;
 import com.example.backend.service.AuthorizationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,8 +26,14 @@ public class AuthorizationController {
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody RegisterRequestDTO registerRequest) {
-        return ResponseEntity.ok(authorizationService.register(registerRequest));
+    public ResponseEntity<?> register(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody RegisterRequestDTO registerRequest) {
+        try {
+            return ResponseEntity.ok(authorizationService.register(registerRequest, idempotencyKey));
+        } catch (IdempotencyConflictException e) {
+            return ResponseEntity.status(e.getStatus()).body(Map.of("error", e.getMessage()));
+        }
     }
 
     @PostMapping("/login")
@@ -39,10 +47,30 @@ public class AuthorizationController {
         return ResponseEntity.ok(authorizationService.exchangeCodeForToken(code));
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@RequestBody Map<String, String> body) {
+        String refreshToken = body.get("refresh_token");
+        String isFirstLogin = body.get("is_first_login");
+        return ResponseEntity.ok(authorizationService.refreshToken(
+                refreshToken,
+                isFirstLogin != null ? Boolean.valueOf(isFirstLogin) : null
+        ));
+    }
+
     @PostMapping("/logout")
     public ResponseEntity<?> logout(@RequestBody Map<String, String> body) {
         String idToken = body.get("id_token");
         return ResponseEntity.ok(authorizationService.logout(idToken));
     }
 
+    @PostMapping(value = "/backchannel-logout", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public ResponseEntity<Void> backchannelLogout(@RequestParam("logout_token") String logoutToken) {
+        try {
+            authorizationService.handleBackchannelLogout(logoutToken);
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().cacheControl(CacheControl.noStore()).build();
+        }
+    }
+
 }
@@ -1,24 +1,40 @@
 package com.example.backend.controller;
 
+import com.example.backend.bulk.CustomerBulkJob;
+import com.example.backend.bulk.CustomerBulkService;
+import com.example.backend.idempotency.IdempotencyConflictException;
+import com.example.backend.model.dto.BatchLookupRequestDTO;
+import com.example.backend.model.dto.BatchLookupResponseDTO;
+import com.example.backend.model.dto.BulkCustomerJobDTO;
+import com.example.backend.model.dto.BulkCustomerRequestDTO;
 import com.example.backend.model.dto.CustomerDTO;
+import com.example.backend.model.dto.CustomerSearchPageDTO;
 import com.example.backend.model.dto.UpdateCustomerInfoDTO;
+import com.example.backend.security.ClaimPolicy;
 import com.example.backend.service.CustomerService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import com.example.backend.util.ETagUtils;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/customers")
+@ClaimPolicy(ClaimPolicy.Rule.ADMIN)
 @RequiredArgsConstructor
 @Slf4j
 public class CustomerController {
     
     private final CustomerService customerService;
+    private final CustomerBulkService customerBulkService;
     
     @GetMapping
     public ResponseEntity<List<CustomerDTO>> findAll() {
@@ -26,11 +42,35 @@ public class CustomerController {
         return ResponseEntity.ok(customerService.findAll());
     }
     
+    @GetMapping("/search")
+    public ResponseEntity<CustomerSearchPageDTO> search(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String document,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("GET /api/customers/search - Buscando clientes");
+        try {
+            return ResponseEntity.ok(customerService.search(name, email, document, cursor, size));
+        } catch (RuntimeException e) {
+            log.error("Erro na busca de clientes: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/{id}")
-    public ResponseEntity<CustomerDTO> findById(@PathVariable String id) {
+    public ResponseEntity<CustomerDTO> findById(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("GET /api/customers/{} - Buscando cliente por ID", id);
         try {
-            return ResponseEntity.ok(customerService.findById(id));
+            if (ifNoneMatch != null) {
+                Optional<ResponseEntity<CustomerDTO>> notModified = notModified(customerService.findETagById(id), ifNoneMatch);
+                if (notModified.isPresent()) {
+                    return notModified.get();
+                }
+            }
+            return withETag(ResponseEntity.ok(), customerService.findById(id));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -47,15 +87,36 @@ public class CustomerController {
     }
     
     @GetMapping("/by-keycloak/{keycloakUserId}")
-    public ResponseEntity<CustomerDTO> findByKeycloakUserId(@PathVariable String keycloakUserId) {
+    @ClaimPolicy(value = ClaimPolicy.Rule.OWNER_OR_ADMIN, owner = "keycloakUserId")
+    public ResponseEntity<CustomerDTO> findByKeycloakUserId(
+            @PathVariable String keycloakUserId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("GET /api/customers/by-keycloak/{} - Buscando cliente por Keycloak ID", keycloakUserId);
         try {
-            return ResponseEntity.ok(customerService.findByKeycloakUserId(keycloakUserId));
+            if (ifNoneMatch != null) {
+                Optional<ResponseEntity<CustomerDTO>> notModified =
+                        notModified(customerService.findETagByKeycloakUserId(keycloakUserId), ifNoneMatch);
+                if (notModified.isPresent()) {
+                    return notModified.get();
+                }
+            }
+            return withETag(ResponseEntity.ok(), customerService.findByKeycloakUserId(keycloakUserId));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
     
+    @PostMapping("/batch-lookup")
+    public ResponseEntity<BatchLookupResponseDTO> batchLookup(@RequestBody BatchLookupRequestDTO request) {
+        log.info("POST /api/customers/batch-lookup - Buscando clientes em lote");
+        try {
+            return ResponseEntity.ok(customerService.batchLookup(request));
+        } catch (RuntimeException e) {
+            log.error("Erro na busca em lote: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @PostMapping
     public ResponseEntity<CustomerDTO> create(@Valid @RequestBody CustomerDTO dto) {
         log.info("POST /api/customers - Criando novo cliente: {}", dto.getEmail());
@@ -69,11 +130,17 @@ public class CustomerController {
     }
     
     @PutMapping("/{id}")
-    public ResponseEntity<CustomerDTO> update(@PathVariable String id, @Valid @RequestBody CustomerDTO dto) {
+    public ResponseEntity<CustomerDTO> update(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody CustomerDTO dto) {
         log.info("PUT /api/customers/{} - Atualizando cliente", id);
         try {
-            CustomerDTO updated = customerService.update(id, dto);
-            return ResponseEntity.ok(updated);
+            CustomerDTO updated = customerService.update(id, dto, ifMatch);
+            return withETag(ResponseEntity.ok(), updated);
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Conflito de versão ao atualizar cliente {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         } catch (RuntimeException e) {
             log.error("Erro ao atualizar cliente: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
@@ -81,15 +148,24 @@ public class CustomerController {
     }
     
     @PatchMapping("/update-info/{keycloakUserId}")
+    @ClaimPolicy(value = ClaimPolicy.Rule.OWNER_OR_ADMIN, owner = "keycloakUserId")
     public ResponseEntity<CustomerDTO> updateInfo(
             @PathVariable String keycloakUserId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody UpdateCustomerInfoDTO dto) {
         
         log.info("PATCH /api/customers/update-info/{}", keycloakUserId);
         
         try {
-            CustomerDTO updated = customerService.updateInfo(keycloakUserId, dto);
-            return ResponseEntity.ok(updated);
+            CustomerDTO updated = customerService.updateInfo(keycloakUserId, dto, ifMatch, idempotencyKey);
+            return withETag(ResponseEntity.ok(), updated);
+        } catch (IdempotencyConflictException e) {
+            log.warn("Conflito de idempotência em {}: {}", keycloakUserId, e.getMessage());
+            return ResponseEntity.status(e.getStatus()).build();
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Conflito de versão ao atualizar informações de {}: {}", keycloakUserId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         } catch (RuntimeException e) {
             log.error("Erro ao atualizar informações: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
@@ -107,4 +183,57 @@ public class CustomerController {
             return ResponseEntity.notFound().build();
         }
     }
+    
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<BulkCustomerJobDTO> bulkDelete(@RequestBody BulkCustomerRequestDTO request) {
+        log.info("POST /api/customers/bulk-delete - Criando job de exclusão em lote");
+        return submitBulkJob(CustomerBulkJob.Action.DELETE, request);
+    }
+    
+    @PostMapping("/bulk-deactivate")
+    public ResponseEntity<BulkCustomerJobDTO> bulkDeactivate(@RequestBody BulkCustomerRequestDTO request) {
+        log.info("POST /api/customers/bulk-deactivate - Criando job de desativação em lote");
+        return submitBulkJob(CustomerBulkJob.Action.DEACTIVATE, request);
+    }
+    
+    @GetMapping("/bulk-jobs/{jobId}")
+    public ResponseEntity<BulkCustomerJobDTO> findBulkJob(@PathVariable String jobId) {
+        return customerBulkService.findJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
+    @PostMapping("/bulk-jobs/{jobId}/retry")
+    public ResponseEntity<BulkCustomerJobDTO> retryBulkJob(@PathVariable String jobId) {
+        log.info("POST /api/customers/bulk-jobs/{}/retry - Reenfileirando falhas", jobId);
+        return customerBulkService.retryFailed(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
+    private ResponseEntity<BulkCustomerJobDTO> submitBulkJob(CustomerBulkJob.Action action, BulkCustomerRequestDTO request) {
+        try {
+            BulkCustomerJobDTO job = customerBulkService.submit(action, request);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/customers/bulk-jobs/" + job.getId()))
+                    .body(job);
+        } catch (IllegalArgumentException e) {
+            log.warn("Job em lote inválido: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    private Optional<ResponseEntity<CustomerDTO>> notModified(Optional<String> currentETag, String ifNoneMatch) {
+        return currentETag
+                .filter(etag -> ETagUtils.matchesIfNoneMatch(ifNoneMatch, etag))
+                .map(etag -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build());
+    }
+    
+    private ResponseEntity<CustomerDTO> withETag(ResponseEntity.BodyBuilder builder, CustomerDTO customer) {
+        String etag = ETagUtils.fromVersion(customer.getVersion());
+        if (etag != null) {
+            builder.eTag(etag);
+        }
+        return builder.body(customer);
+    }
 }
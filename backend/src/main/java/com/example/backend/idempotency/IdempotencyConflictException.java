@@ -0,0 +1,17 @@
+package com.example.backend.idempotency;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+@Getter
+public class IdempotencyConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final HttpStatus status;
+
+    public IdempotencyConflictException(String message, HttpStatus status) {
+        super(message);
+        this.status = status;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.backend.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "app.idempotency")
+@Data
+public class IdempotencyProperties {
+
+    private Duration ttl = Duration.ofHours(24);
+    private Duration lockTimeout = Duration.ofSeconds(60);
+    private Duration waitTimeout = Duration.ofSeconds(10);
+    private Duration pollInterval = Duration.ofMillis(100);
+    private Duration frontCacheTtl = Duration.ofMinutes(10);
+    private int frontCacheMaxEntries = 10000;
+}
@@ -0,0 +1,38 @@
+package com.example.backend.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = IdempotencyRecord.COLLECTION)
+public class IdempotencyRecord {
+
+    public static final String COLLECTION = "idempotency_keys";
+
+    @Id
+    private String id;
+
+    private String fingerprint;
+
+    private Status status;
+
+    private String result;
+
+    private Instant createdAt;
+
+    private Instant expiresAt;
+
+    public enum Status {
+        IN_PROGRESS,
+        COMPLETED
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.backend.idempotency;
+
+import com.example.backend.util.SingleFlight;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties properties;
+    private final SingleFlight<String, Object> inFlight = new SingleFlight<>();
+    private final ConcurrentHashMap<String, StoredResult> frontCache = new ConcurrentHashMap<>();
+
+    public <T> T execute(String scope, String key, Object fingerprintSource, Class<T> resultType, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+
+        String id = scope + ":" + key;
+        String fingerprint = fingerprint(fingerprintSource);
+
+        Object result = inFlight.execute(id + "#" + fingerprint, () -> resolve(id, fingerprint, resultType, action));
+        return resultType.cast(result);
+    }
+
+    private <T> T resolve(String id, String fingerprint, Class<T> resultType, Supplier<T> action) {
+        StoredResult cached = frontCache.get(id);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            validateFingerprint(cached.fingerprint(), fingerprint);
+            return read(cached.result(), resultType);
+        }
+
+        Instant deadline = Instant.now().plus(properties.getWaitTimeout());
+
+        while (true) {
+            IdempotencyRecord record = mongoTemplate.findById(id, IdempotencyRecord.class);
+
+            if (record == null) {
+                if (tryAcquire(id, fingerprint)) {
+                    return runAndStore(id, fingerprint, action);
+                }
+                continue;
+            }
+
+            validateFingerprint(record.getFingerprint(), fingerprint);
+
+            if (record.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+                remember(record);
+                return read(record.getResult(), resultType);
+            }
+
+            if (record.getExpiresAt().isBefore(Instant.now())) {
+                releaseAbandoned(record);
+                continue;
+            }
+
+            if (Instant.now().isAfter(deadline)) {
+                throw new IdempotencyConflictException("Requisição original ainda em processamento", HttpStatus.CONFLICT);
+            }
+
+            pause();
+        }
+    }
+
+    private boolean tryAcquire(String id, String fingerprint) {
+        Instant now = Instant.now();
+        IdempotencyRecord record = IdempotencyRecord.builder()
+                .id(id)
+                .fingerprint(fingerprint)
+                .status(IdempotencyRecord.Status.IN_PROGRESS)
+                .createdAt(now)
+                .expiresAt(now.plus(properties.getLockTimeout()))
+                .build();
+
+        try {
+            mongoTemplate.insert(record);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private <T> T runAndStore(String id, String fingerprint, Supplier<T> action) {
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            mongoTemplate.remove(inProgress(id), IdempotencyRecord.class);
+            throw e;
+        }
+
+        Instant expiresAt = Instant.now().plus(properties.getTtl());
+        String serialized = write(result);
+        mongoTemplate.updateFirst(inProgress(id), Update
+                .update("status", IdempotencyRecord.Status.COMPLETED)
+                .set("result", serialized)
+                .set("expiresAt", expiresAt), IdempotencyRecord.class);
+        remember(id, fingerprint, serialized, expiresAt);
+
+        return result;
+    }
+
+    private void releaseAbandoned(IdempotencyRecord record) {
+        log.warn("Liberando chave de idempotência abandonada: {}", record.getId());
+        Query abandoned = Query.query(Criteria.where("_id").is(record.getId())
+                .and("status").is(IdempotencyRecord.Status.IN_PROGRESS)
+                .and("expiresAt").is(record.getExpiresAt()));
+        mongoTemplate.remove(abandoned, IdempotencyRecord.class);
+    }
+
+    private Query inProgress(String id) {
+        return Query.query(Criteria.where("_id").is(id).and("status").is(IdempotencyRecord.Status.IN_PROGRESS));
+    }
+
+    private void validateFingerprint(String stored, String fingerprint) {
+        if (!stored.equals(fingerprint)) {
+            throw new IdempotencyConflictException(
+                    "Idempotency-Key já utilizada com outra requisição", HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+    }
+
+    private void remember(IdempotencyRecord record) {
+        remember(record.getId(), record.getFingerprint(), record.getResult(), record.getExpiresAt());
+    }
+
+    private void remember(String id, String fingerprint, String result, Instant expiresAt) {
+        if (frontCache.size() >= properties.getFrontCacheMaxEntries()) {
+            frontCache.clear();
+        }
+
+        Instant frontExpiresAt = Instant.now().plus(properties.getFrontCacheTtl());
+        StoredResult stored = new StoredResult(fingerprint, result,
+                frontExpiresAt.isBefore(expiresAt) ? frontExpiresAt : expiresAt);
+        frontCache.put(id, stored);
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(properties.getPollInterval().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Requisição original ainda em processamento", HttpStatus.CONFLICT);
+        }
+    }
+
+    private String fingerprint(Object source) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(source)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new RuntimeException("Falha ao calcular fingerprint da requisição", e);
+        }
+    }
+
+    private String write(Object result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Falha ao serializar resultado idempotente", e);
+        }
+    }
+
+    private <T> T read(String result, Class<T> resultType) {
+        try {
+            return objectMapper.readValue(result, resultType);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Falha ao ler resultado idempotente", e);
+        }
+    }
+
+    private record StoredResult(String fingerprint, String result, Instant expiresAt) {}
+}
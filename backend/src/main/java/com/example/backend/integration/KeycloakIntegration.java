@@ -1,5 +1,6 @@
 package com.example.backend.integration;
 
+import com.example.backend.service.KeycloakBackchannelLogoutService;
 import com.example.backend.service.KeycloakHttpClient;
 import com.example.backend.service.KeycloakLogoutService;
 import com.example.backend.service.KeycloakUrlService;
@@ -16,6 +17,7 @@ public class KeycloakIntegration {
     private final KeycloakUrlService urlService;
     private final KeycloakHttpClient httpClient;
     private final KeycloakLogoutService logoutService;
+    private final KeycloakBackchannelLogoutService backchannelLogoutService;
     
     public String buildSocialAuthUrl() {
         return urlService.buildSocialAuthUrl();
@@ -25,10 +27,18 @@ public class KeycloakIntegration {
         return httpClient.exchangeCodeForToken(code);
     }
     
+    public Map<String, Object> refreshToken(String refreshToken) {
+        return httpClient.refreshToken(refreshToken);
+    }
+    
     public Map<String, Object> logout(String idToken) {
         return logoutService.logout(idToken);
     }
     
+    public void handleBackchannelLogout(String logoutToken) {
+        backchannelLogoutService.handleLogoutToken(logoutToken);
+    }
+    
     public Map<String, Object> getUserInfo(String bearerToken) {
         return httpClient.getUserInfo(bearerToken);
     }
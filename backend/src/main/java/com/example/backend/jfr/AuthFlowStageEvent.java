@@ -0,0 +1,13 @@
+package com.example.backend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.backend.AuthFlowStage")
+@Label("Auth Flow Stage")
+@Category({"Backend", "Auth"})
+@Description("Etapa dos fluxos de login e cadastro")
+public class AuthFlowStageEvent extends StageEvent {
+}
@@ -0,0 +1,13 @@
+package com.example.backend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.backend.CustomerQuery")
+@Label("Customer Query")
+@Category({"Backend", "MongoDB"})
+@Description("Consulta dos repositórios de clientes")
+public class CustomerQueryEvent extends StageEvent {
+}
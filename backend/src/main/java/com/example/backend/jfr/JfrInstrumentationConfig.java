@@ -0,0 +1,55 @@
+package com.example.backend.jfr;
+
+import com.example.backend.repository.CustomerReadRepository;
+import com.example.backend.repository.CustomerRepository;
+import com.example.backend.service.KeycloakAdminService;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactoryBean;
+
+@Configuration
+public class JfrInstrumentationConfig {
+
+    @Bean
+    public static BeanPostProcessor stageEventInstrumentation() {
+        return new BeanPostProcessor() {
+
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof MongoRepositoryFactoryBean<?, ?, ?> factoryBean
+                        && CustomerRepository.class.equals(factoryBean.getObjectType())) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) ->
+                                    proxyFactory.addAdvice(new StageEventInterceptor(CustomerQueryEvent::new))));
+                }
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof KeycloakAdminService) {
+                    return instrument(bean, new StageEventInterceptor(KeycloakAdminCallEvent::new, "withUserLookupMemo"));
+                }
+                if (bean instanceof CustomerReadRepository) {
+                    return instrument(bean, new StageEventInterceptor(CustomerQueryEvent::new));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static Object instrument(Object bean, StageEventInterceptor interceptor) {
+        if (bean instanceof Advised advised) {
+            advised.addAdvice(interceptor);
+            return bean;
+        }
+
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy();
+    }
+}
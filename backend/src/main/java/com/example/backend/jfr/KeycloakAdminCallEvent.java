@@ -0,0 +1,13 @@
+package com.example.backend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.backend.KeycloakAdminCall")
+@Label("Keycloak Admin Call")
+@Category({"Backend", "Keycloak"})
+@Description("Chamada ao KeycloakAdminService")
+public class KeycloakAdminCallEvent extends StageEvent {
+}
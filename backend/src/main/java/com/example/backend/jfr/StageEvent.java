@@ -0,0 +1,24 @@
+package com.example.backend.jfr;
+
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+@StackTrace(false)
+public abstract class StageEvent extends Event {
+
+    @Label("Flow")
+    String flow;
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Error Type")
+    String errorType;
+
+    @Label("Tenant")
+    String tenant;
+}
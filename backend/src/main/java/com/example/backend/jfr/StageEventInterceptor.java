@@ -0,0 +1,40 @@
+package com.example.backend.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.function.Supplier;
+
+class StageEventInterceptor implements MethodInterceptor {
+
+    private final Supplier<StageEvent> eventFactory;
+    private final Set<String> excludedMethods;
+
+    StageEventInterceptor(Supplier<StageEvent> eventFactory, String... excludedMethods) {
+        this.eventFactory = eventFactory;
+        this.excludedMethods = Set.of(excludedMethods);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() == Object.class || excludedMethods.contains(method.getName())) {
+            return invocation.proceed();
+        }
+
+        return StageEvents.record(eventFactory.get(), method.getName(), () -> proceed(invocation),
+                method.getReturnType() != void.class);
+    }
+
+    private static Object proceed(MethodInvocation invocation) throws Exception {
+        try {
+            return invocation.proceed();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+}
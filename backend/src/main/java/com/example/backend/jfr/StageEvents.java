@@ -0,0 +1,80 @@
+package com.example.backend.jfr;
+
+import com.example.backend.tenant.TenantContext;
+import lombok.experimental.UtilityClass;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+@UtilityClass
+public class StageEvents {
+
+    private static final ThreadLocal<String> CURRENT_FLOW = new ThreadLocal<>();
+
+    public static <T> T flow(String flow, Supplier<T> action) {
+        if (CURRENT_FLOW.get() != null) {
+            return action.get();
+        }
+
+        CURRENT_FLOW.set(flow);
+        try {
+            return action.get();
+        } finally {
+            CURRENT_FLOW.remove();
+        }
+    }
+
+    public static <T, E extends Exception> T authStage(String stage, StageAction<T, E> action) throws E {
+        return record(new AuthFlowStageEvent(), stage, action, true);
+    }
+
+    public static void authStep(String stage, Runnable action) {
+        record(new AuthFlowStageEvent(), stage, () -> {
+            action.run();
+            return null;
+        }, false);
+    }
+
+    public static <T, E extends Exception> T record(StageEvent event, String stage, StageAction<T, E> action,
+                                                    boolean reportEmptyResult) throws E {
+        if (!event.isEnabled()) {
+            return action.run();
+        }
+
+        event.begin();
+        try {
+            T result = action.run();
+            commit(event, stage, reportEmptyResult && isEmpty(result) ? "not-found" : "success", null);
+            return result;
+        } catch (Exception | Error e) {
+            commit(event, stage, "error", e.getClass().getSimpleName());
+            throw e;
+        }
+    }
+
+    private static void commit(StageEvent event, String stage, String outcome, String errorType) {
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+
+        event.flow = CURRENT_FLOW.get();
+        event.stage = stage;
+        event.outcome = outcome;
+        event.errorType = errorType;
+        event.tenant = TenantContext.currentId();
+        event.commit();
+    }
+
+    private static boolean isEmpty(Object result) {
+        return result == null
+                || result instanceof Optional<?> optional && optional.isEmpty()
+                || result instanceof Collection<?> collection && collection.isEmpty();
+    }
+
+    @FunctionalInterface
+    public interface StageAction<T, E extends Exception> {
+        T run() throws E;
+    }
+}
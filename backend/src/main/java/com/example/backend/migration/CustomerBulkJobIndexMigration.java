@@ -0,0 +1,43 @@
+package com.example.backend.migration;
+
+import com.example.backend.bulk.CustomerBulkJob;
+import com.example.backend.bulk.CustomerBulkJobItem;
+import com.example.backend.model.Customer;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(8)
+public class CustomerBulkJobIndexMigration implements MongoMigration {
+
+    @Override
+    public String id() {
+        return "008-customer-bulk-job-indexes";
+    }
+
+    @Override
+    public void apply(MongoTemplate mongoTemplate) {
+        mongoTemplate.indexOps(CustomerBulkJob.class).ensureIndex(new Index()
+                .on("status", Sort.Direction.ASC)
+                .on("nextRunAt", Sort.Direction.ASC)
+                .named("bulk_job_status_next_run"));
+        mongoTemplate.indexOps(CustomerBulkJobItem.class).ensureIndex(new Index()
+                .on("jobId", Sort.Direction.ASC)
+                .on("status", Sort.Direction.ASC)
+                .on("nextAttemptAt", Sort.Direction.ASC)
+                .named("bulk_item_job_status_next_attempt"));
+        IndexOperations customerIndexes = mongoTemplate.indexOps(Customer.class);
+        customerIndexes.ensureIndex(new Index()
+                .on("tenant", Sort.Direction.ASC)
+                .on("createdAt", Sort.Direction.ASC)
+                .named("customer_created_at"));
+        customerIndexes.ensureIndex(new Index()
+                .on("tenant", Sort.Direction.ASC)
+                .on("lastLoginAt", Sort.Direction.ASC)
+                .named("customer_last_login_at"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.backend.migration;
+
+import com.example.backend.model.Customer;
+import com.example.backend.model.CustomerSearchField;
+import com.example.backend.record.Cpf;
+import com.example.backend.repository.CustomerSearchRepository;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@Order(4)
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerCpfMigration implements MongoMigration {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String LEGACY_SEARCH_INDEX = "customer_document_search";
+
+    private final CustomerSearchRepository customerSearchRepository;
+
+    @Override
+    public String id() {
+        return "004-customer-cpf-numeric";
+    }
+
+    @Override
+    public void apply(MongoTemplate mongoTemplate) {
+        MongoCollection<Document> customers = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Customer.class));
+
+        convertLegacyDocuments(customers);
+        rejectDuplicates(customers);
+        createCpfIndex(mongoTemplate.indexOps(Customer.class));
+        customerSearchRepository.verifyQueryPlan(CustomerSearchField.DOCUMENT, "52998224725");
+    }
+
+    private void convertLegacyDocuments(MongoCollection<Document> customers) {
+        List<WriteModel<Document>> batch = new ArrayList<>();
+        long converted = 0;
+        long invalid = 0;
+
+        try (MongoCursor<Document> cursor = customers
+                .find(Filters.and(Filters.type("document", "string"), Filters.exists("cpf", false)))
+                .projection(Projections.include("document"))
+                .iterator()) {
+            while (cursor.hasNext()) {
+                Document customer = cursor.next();
+                long cpf = Cpf.normalize(customer.getString("document"));
+
+                if (cpf == Cpf.INVALID) {
+                    invalid++;
+                    log.warn("Customer {} com CPF inválido mantido em 'document': {}",
+                            customer.get("_id"), customer.getString("document"));
+                    continue;
+                }
+
+                batch.add(new UpdateOneModel<>(Filters.eq("_id", customer.get("_id")),
+                        Updates.combine(Updates.set("cpf", cpf), Updates.unset("document"))));
+
+                if (batch.size() == BATCH_SIZE) {
+                    converted += customers.bulkWrite(batch).getModifiedCount();
+                    batch.clear();
+                }
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            converted += customers.bulkWrite(batch).getModifiedCount();
+        }
+
+        log.info("Customers com CPF convertido para numérico: {} (inválidos: {})", converted, invalid);
+    }
+
+    private void rejectDuplicates(MongoCollection<Document> customers) {
+        List<Document> duplicates = customers.aggregate(List.of(
+                Aggregates.match(Filters.exists("cpf")),
+                Aggregates.group("$cpf", Accumulators.sum("count", 1), Accumulators.push("ids", "$_id")),
+                Aggregates.match(Filters.gt("count", 1))
+        )).into(new ArrayList<>());
+
+        if (!duplicates.isEmpty()) {
+            duplicates.forEach(duplicate -> log.error("CPF {} duplicado nos customers {}",
+                    duplicate.get("_id"), duplicate.get("ids")));
+            throw new RuntimeException("CPFs duplicados impedem a criação do índice único; corrija e reinicie");
+        }
+    }
+
+    private void createCpfIndex(IndexOperations indexOperations) {
+        boolean hasLegacyIndex = indexOperations.getIndexInfo().stream()
+                .anyMatch(index -> LEGACY_SEARCH_INDEX.equals(index.getName()));
+        if (hasLegacyIndex) {
+            indexOperations.dropIndex(LEGACY_SEARCH_INDEX);
+        }
+
+        indexOperations.ensureIndex(new Index()
+                .on(CustomerSearchField.DOCUMENT.getPath(), Sort.Direction.ASC)
+                .unique()
+                .sparse()
+                .named(CustomerSearchField.DOCUMENT.getIndexName()));
+    }
+}
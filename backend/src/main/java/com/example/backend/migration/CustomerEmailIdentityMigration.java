@@ -0,0 +1,89 @@
+package com.example.backend.migration;
+
+import com.example.backend.model.Customer;
+import com.example.backend.util.SearchNormalizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+@Component
+@Order(5)
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerEmailIdentityMigration implements MongoMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final EmailDedupTool emailDedupTool;
+
+    @Value("${app.migrations.email-dedup.dry-run:true}")
+    private boolean dryRun;
+
+    @Override
+    public String id() {
+        return "005-customer-email-identity";
+    }
+
+    @Override
+    public void apply(MongoTemplate mongoTemplate) {
+        normalizeEmails(mongoTemplate);
+
+        EmailDedupTool.DedupReport report = emailDedupTool.deduplicate(mongoTemplate, !dryRun);
+        log.info("Deduplicação de emails: {} grupos, {} customers removidos (aplicado: {})",
+                report.groups(), report.removed(), report.applied());
+
+        if (dryRun && report.groups() > 0) {
+            throw new RuntimeException("Dry-run da deduplicação de emails encontrou duplicatas; revise o relatório e "
+                    + "aplique uma única vez reiniciando com app.migrations.email-dedup.dry-run=false");
+        }
+
+        mongoTemplate.indexOps(Customer.class).ensureIndex(new Index()
+                .on("emailNormalized", Sort.Direction.ASC)
+                .unique()
+                .sparse()
+                .named("customer_email_normalized"));
+    }
+
+    private void normalizeEmails(MongoTemplate mongoTemplate) {
+        Query query = Query.query(Criteria.where("email").exists(true));
+        query.fields().include("email", "emailNormalized");
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Customer.class);
+        int pending = 0;
+        long updated = 0;
+
+        try (Stream<Customer> customers = mongoTemplate.stream(query, Customer.class)) {
+            for (Customer customer : (Iterable<Customer>) customers::iterator) {
+                String normalized = SearchNormalizer.normalizeEmail(customer.getEmail());
+                if (!normalized.equals(customer.getEmailNormalized())) {
+                    bulk.updateOne(Query.query(Criteria.where("_id").is(customer.getId())),
+                            Update.update("emailNormalized", normalized));
+                    pending++;
+
+                    if (pending == BATCH_SIZE) {
+                        updated += bulk.execute().getModifiedCount();
+                        bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Customer.class);
+                        pending = 0;
+                    }
+                }
+            }
+        }
+
+        if (pending > 0) {
+            updated += bulk.execute().getModifiedCount();
+        }
+
+        log.info("Customers com email normalizado: {}", updated);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.backend.migration;
+
+import com.example.backend.model.Customer;
+import com.example.backend.model.CustomerSearchField;
+import com.example.backend.repository.CustomerSearchRepository;
+import com.example.backend.util.SearchNormalizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Component
+@Order(2)
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerSearchIndexMigration implements MongoMigration {
+
+    private static final int BATCH_SIZE = 500;
+    private static final List<CustomerSearchField> PREFIX_FIELDS = Arrays.stream(CustomerSearchField.values())
+            .filter(CustomerSearchField::isPrefixSearch)
+            .toList();
+
+    private final CustomerSearchRepository customerSearchRepository;
+
+    @Override
+    public String id() {
+        return "002-customer-search-indexes";
+    }
+
+    @Override
+    public void apply(MongoTemplate mongoTemplate) {
+        backfillNormalizedFields(mongoTemplate);
+        createSearchIndexes(mongoTemplate.indexOps(Customer.class));
+        verifyQueryPlans();
+    }
+
+    private void backfillNormalizedFields(MongoTemplate mongoTemplate) {
+        Query pending = Query.query(new Criteria().orOperator(
+                Criteria.where("nameNormalized").exists(false),
+                Criteria.where("emailNormalized").exists(false)
+        ));
+        pending.fields().include("name", "email");
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Customer.class);
+        int pendingOperations = 0;
+        long updated = 0;
+
+        try (Stream<Customer> customers = mongoTemplate.stream(pending, Customer.class)) {
+            for (Customer customer : (Iterable<Customer>) customers::iterator) {
+                bulk.updateOne(Query.query(Criteria.where("_id").is(customer.getId())), Update
+                        .update("nameNormalized", SearchNormalizer.normalizeName(customer.getName()))
+                        .set("emailNormalized", SearchNormalizer.normalizeEmail(customer.getEmail())));
+                pendingOperations++;
+
+                if (pendingOperations == BATCH_SIZE) {
+                    updated += bulk.execute().getModifiedCount();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Customer.class);
+                    pendingOperations = 0;
+                }
+            }
+        }
+
+        if (pendingOperations > 0) {
+            updated += bulk.execute().getModifiedCount();
+        }
+
+        log.info("Customers com campos de busca preenchidos: {}", updated);
+    }
+
+    private void createSearchIndexes(IndexOperations indexOperations) {
+        for (CustomerSearchField field : PREFIX_FIELDS) {
+            indexOperations.ensureIndex(new Index()
+                    .on(field.getPath(), Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.ASC)
+                    .named(field.getIndexName()));
+        }
+    }
+
+    private void verifyQueryPlans() {
+        for (CustomerSearchField field : PREFIX_FIELDS) {
+            customerSearchRepository.verifyQueryPlan(field, "a");
+        }
+    }
+}
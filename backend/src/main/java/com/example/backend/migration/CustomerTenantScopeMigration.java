@@ -0,0 +1,92 @@
+package com.example.backend.migration;
+
+import com.example.backend.model.Customer;
+import com.example.backend.model.CustomerSearchField;
+import com.example.backend.tenant.TenantProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+@Order(6)
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerTenantScopeMigration implements MongoMigration {
+
+    private static final String LEGACY_KEYCLOAK_USER_ID_INDEX = "keycloakUserId";
+    private static final List<String> REPLACED_INDEXES = List.of(
+            "customer_email_normalized",
+            CustomerSearchField.DOCUMENT.getIndexName(),
+            CustomerSearchField.NAME.getIndexName(),
+            CustomerSearchField.EMAIL.getIndexName(),
+            LEGACY_KEYCLOAK_USER_ID_INDEX
+    );
+
+    private final TenantProperties tenantProperties;
+
+    @Override
+    public String id() {
+        return "006-customer-tenant-scope";
+    }
+
+    @Override
+    public void apply(MongoTemplate mongoTemplate) {
+        long backfilled = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("tenant").exists(false)),
+                Update.update("tenant", tenantProperties.getDefaultTenant()),
+                Customer.class).getModifiedCount();
+        log.info("Customers atribuídos ao tenant {}: {}", tenantProperties.getDefaultTenant(), backfilled);
+
+        IndexOperations indexOperations = mongoTemplate.indexOps(Customer.class);
+        dropGlobalIndexes(indexOperations);
+        createTenantIndexes(indexOperations);
+    }
+
+    private void dropGlobalIndexes(IndexOperations indexOperations) {
+        Set<String> existing = indexOperations.getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .collect(Collectors.toSet());
+
+        REPLACED_INDEXES.stream()
+                .filter(existing::contains)
+                .forEach(indexOperations::dropIndex);
+    }
+
+    private void createTenantIndexes(IndexOperations indexOperations) {
+        indexOperations.ensureIndex(uniquePerTenant("emailNormalized", "customer_email_normalized"));
+        indexOperations.ensureIndex(uniquePerTenant(CustomerSearchField.DOCUMENT.getPath(),
+                CustomerSearchField.DOCUMENT.getIndexName()));
+        indexOperations.ensureIndex(uniquePerTenant("keycloakUserId", "customer_keycloak_user_id"));
+
+        for (CustomerSearchField field : List.of(CustomerSearchField.NAME, CustomerSearchField.EMAIL)) {
+            indexOperations.ensureIndex(new Index()
+                    .on("tenant", Sort.Direction.ASC)
+                    .on(field.getPath(), Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.ASC)
+                    .named(field.getIndexName()));
+        }
+    }
+
+    private static Index uniquePerTenant(String field, String name) {
+        return new Index()
+                .on("tenant", Sort.Direction.ASC)
+                .on(field, Sort.Direction.ASC)
+                .unique()
+                .partial(PartialIndexFilter.of(Criteria.where(field).exists(true)))
+                .named(name);
+    }
+}
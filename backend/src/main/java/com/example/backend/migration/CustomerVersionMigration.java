@@ -0,0 +1,29 @@
+package com.example.backend.migration;
+
+import com.example.backend.model.Customer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(1)
+@Slf4j
+public class CustomerVersionMigration implements MongoMigration {
+
+    @Override
+    public String id() {
+        return "001-customer-version";
+    }
+
+    @Override
+    public void apply(MongoTemplate mongoTemplate) {
+        Query withoutVersion = Query.query(Criteria.where("version").exists(false));
+        long updated = mongoTemplate.updateMulti(withoutVersion, Update.update("version", 0L), Customer.class)
+                .getModifiedCount();
+        log.info("Customers com versão inicializada: {}", updated);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.backend.migration;
+
+import com.example.backend.bulk.CustomerBulkService;
+import com.example.backend.model.Customer;
+import com.example.backend.tenant.TenantProperties;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailDedupTool {
+
+    public static final String ARCHIVE_COLLECTION = "customer_email_duplicates";
+
+    private static final List<String> MERGEABLE_FIELDS = List.of("keycloakUserId", "cpf", "birthDate", "name");
+
+    private static final Comparator<Document> SURVIVOR_ORDER = Comparator
+            .comparing((Document customer) -> !customer.containsKey("keycloakUserId"))
+            .thenComparing(customer -> !customer.containsKey("cpf"))
+            .thenComparing(customer -> customer.getDate("createdAt"), Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(customer -> customer.getObjectId("_id"));
+
+    private final CustomerBulkService customerBulkService;
+    private final TenantProperties tenantProperties;
+
+    public DedupReport deduplicate(MongoTemplate mongoTemplate, boolean apply) {
+        MongoCollection<Document> customers = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Customer.class));
+        MongoCollection<Document> archive = mongoTemplate.getCollection(ARCHIVE_COLLECTION);
+        int groups = 0;
+        int removed = 0;
+
+        for (Document group : findDuplicateGroups(customers)) {
+            List<Document> duplicates = customers.find(Filters.in("_id", group.getList("ids", Object.class)))
+                    .sort(Sorts.ascending("_id"))
+                    .into(new ArrayList<>());
+            duplicates.sort(SURVIVOR_ORDER);
+
+            Document survivor = duplicates.get(0);
+            List<Document> losers = duplicates.subList(1, duplicates.size());
+            groups++;
+            removed += losers.size();
+
+            Document fills = mergedFields(survivor, losers);
+            Document key = group.get("_id", Document.class);
+            List<String> orphans = orphanKeycloakUsers(survivor.getString("keycloakUserId") != null
+                    ? survivor.getString("keycloakUserId")
+                    : fills.getString("keycloakUserId"), losers);
+            log.info("Email {} (tenant {}): mantendo customer {} (completando {}), removendo {} e os usuários Keycloak {}",
+                    key.get("email"), key.get("tenant"), survivor.get("_id"), fills.keySet(),
+                    losers.stream().map(loser -> loser.get("_id")).toList(), orphans);
+
+            if (apply) {
+                merge(customers, archive, survivor, losers, fills);
+                String tenant = key.getString("tenant");
+                customerBulkService.scheduleKeycloakCleanup(
+                        tenant != null ? tenant : tenantProperties.getDefaultTenant(), orphans);
+            }
+        }
+
+        return new DedupReport(groups, removed, apply);
+    }
+
+    private List<Document> findDuplicateGroups(MongoCollection<Document> customers) {
+        return customers.aggregate(List.of(
+                Aggregates.match(Filters.exists("emailNormalized")),
+                Aggregates.group(new Document("tenant", "$tenant").append("email", "$emailNormalized"),
+                        Accumulators.sum("count", 1), Accumulators.push("ids", "$_id")),
+                Aggregates.match(Filters.gt("count", 1))
+        )).into(new ArrayList<>());
+    }
+
+    private Document mergedFields(Document survivor, List<Document> losers) {
+        Document fills = new Document();
+
+        for (String field : MERGEABLE_FIELDS) {
+            if (survivor.get(field) == null) {
+                losers.stream()
+                        .map(loser -> loser.get(field))
+                        .filter(Objects::nonNull)
+                        .findFirst()
+                        .ifPresent(value -> fills.append(field, value));
+            }
+        }
+
+        return fills;
+    }
+
+    private void merge(MongoCollection<Document> customers, MongoCollection<Document> archive,
+                       Document survivor, List<Document> losers, Document fills) {
+        Date archivedAt = new Date();
+        // Upsert pelo _id do perdedor: se uma execução anterior arquivou mas não chegou a remover, a nova execução
+        // regrava o arquivo em vez de falhar com chave duplicada.
+        archive.bulkWrite(losers.stream()
+                .map(loser -> new ReplaceOneModel<>(Filters.eq("_id", loser.get("_id")),
+                        new Document("_id", loser.get("_id"))
+                                .append("mergedInto", survivor.get("_id"))
+                                .append("archivedAt", archivedAt)
+                                .append("customer", loser),
+                        new ReplaceOptions().upsert(true)))
+                .toList());
+        customers.deleteMany(Filters.in("_id", losers.stream().map(loser -> loser.get("_id")).toList()));
+
+        if (!fills.isEmpty()) {
+            customers.updateOne(Filters.eq("_id", survivor.get("_id")),
+                    new Document("$set", fills).append("$inc", new Document("version", 1L)));
+        }
+    }
+
+    private List<String> orphanKeycloakUsers(String keptKeycloakUserId, List<Document> losers) {
+        return losers.stream()
+                .map(loser -> loser.getString("keycloakUserId"))
+                .filter(Objects::nonNull)
+                .filter(keycloakUserId -> !keycloakUserId.equals(keptKeycloakUserId))
+                .distinct()
+                .toList();
+    }
+
+    public record DedupReport(int groups, int removed, boolean applied) {}
+}
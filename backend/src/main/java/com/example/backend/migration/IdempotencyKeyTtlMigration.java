@@ -0,0 +1,28 @@
+package com.example.backend.migration;
+
+import com.example.backend.idempotency.IdempotencyRecord;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Order(3)
+public class IdempotencyKeyTtlMigration implements MongoMigration {
+
+    @Override
+    public String id() {
+        return "003-idempotency-keys-ttl";
+    }
+
+    @Override
+    public void apply(MongoTemplate mongoTemplate) {
+        mongoTemplate.indexOps(IdempotencyRecord.class).ensureIndex(new Index()
+                .on("expiresAt", Sort.Direction.ASC)
+                .expire(Duration.ZERO)
+                .named("idempotency_expires_at"));
+    }
+}
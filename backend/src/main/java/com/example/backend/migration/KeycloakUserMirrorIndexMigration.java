@@ -0,0 +1,36 @@
+package com.example.backend.migration;
+
+import com.example.backend.mirror.MirroredUser;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(7)
+public class KeycloakUserMirrorIndexMigration implements MongoMigration {
+
+    @Override
+    public String id() {
+        return "007-keycloak-user-mirror-indexes";
+    }
+
+    @Override
+    public void apply(MongoTemplate mongoTemplate) {
+        IndexOperations indexOps = mongoTemplate.indexOps(MirroredUser.class);
+        indexOps.ensureIndex(new Index()
+                .on("tenant", Sort.Direction.ASC)
+                .on("username", Sort.Direction.ASC)
+                .named("mirror_tenant_username"));
+        indexOps.ensureIndex(new Index()
+                .on("tenant", Sort.Direction.ASC)
+                .on("email", Sort.Direction.ASC)
+                .named("mirror_tenant_email"));
+        indexOps.ensureIndex(new Index()
+                .on("tenant", Sort.Direction.ASC)
+                .on("syncedAt", Sort.Direction.ASC)
+                .named("mirror_tenant_synced_at"));
+    }
+}
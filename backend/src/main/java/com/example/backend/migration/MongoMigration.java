@@ -0,0 +1,10 @@
+package com.example.backend.migration;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+public interface MongoMigration {
+
+    String id();
+
+    void apply(MongoTemplate mongoTemplate);
+}
@@ -0,0 +1,138 @@
+package com.example.backend.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cada migração é reivindicada com um lease no próprio documento de {@code schema_migrations} (findAndModify com
+ * upsert): só o nó dono aplica; os demais aguardam até ela ser marcada como aplicada ou o lease expirar.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.migrations.enabled", havingValue = "true", matchIfMissing = true)
+public class MongoMigrationRunner implements ApplicationRunner {
+
+    private static final String MIGRATIONS_COLLECTION = "schema_migrations";
+
+    private final MongoTemplate mongoTemplate;
+    private final List<MongoMigration> migrations;
+    private final String nodeId;
+    private final Duration leaseDuration;
+    private final Duration pollInterval;
+
+    public MongoMigrationRunner(MongoTemplate mongoTemplate,
+                                List<MongoMigration> migrations,
+                                @Value("${HOSTNAME:localhost}-${server.port:8081}") String nodeId,
+                                @Value("${app.migrations.lock.lease-duration:PT2M}") Duration leaseDuration,
+                                @Value("${app.migrations.lock.poll-interval:PT2S}") Duration pollInterval) {
+        this.mongoTemplate = mongoTemplate;
+        this.migrations = migrations;
+        this.nodeId = nodeId;
+        this.leaseDuration = leaseDuration;
+        this.pollInterval = pollInterval;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        for (MongoMigration migration : migrations) {
+            while (!isApplied(migration)) {
+                if (claim(migration)) {
+                    apply(migration);
+                } else {
+                    log.info("Migração {} em andamento em outro nó; aguardando", migration.id());
+                    Thread.sleep(pollInterval.toMillis());
+                }
+            }
+        }
+    }
+
+    private void apply(MongoMigration migration) {
+        ScheduledExecutorService renewal = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "migration-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long renewEvery = Math.max(1, leaseDuration.toMillis() / 3);
+        renewal.scheduleWithFixedDelay(() -> renewLease(migration), renewEvery, renewEvery, TimeUnit.MILLISECONDS);
+
+        try {
+            log.info("Aplicando migração: {}", migration.id());
+            migration.apply(mongoTemplate);
+            markApplied(migration);
+        } catch (RuntimeException e) {
+            release(migration);
+            throw e;
+        } finally {
+            renewal.shutdownNow();
+        }
+    }
+
+    private boolean isApplied(MongoMigration migration) {
+        Query query = Query.query(Criteria.where("_id").is(migration.id()).and("appliedAt").exists(true));
+        return mongoTemplate.exists(query, MIGRATIONS_COLLECTION);
+    }
+
+    private boolean claim(MongoMigration migration) {
+        Instant now = Instant.now();
+        Query query = Query.query(Criteria.where("_id").is(migration.id())
+                .and("appliedAt").exists(false)
+                .orOperator(
+                        Criteria.where("leaseOwner").is(nodeId),
+                        Criteria.where("leaseUntil").lt(now),
+                        Criteria.where("leaseUntil").exists(false)));
+
+        try {
+            return mongoTemplate.findAndModify(query,
+                    new Update().set("leaseOwner", nodeId).set("leaseUntil", now.plus(leaseDuration)),
+                    FindAndModifyOptions.options().upsert(true).returnNew(true),
+                    Document.class, MIGRATIONS_COLLECTION) != null;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private void renewLease(MongoMigration migration) {
+        try {
+            mongoTemplate.updateFirst(ownedBy(migration),
+                    new Update().set("leaseUntil", Instant.now().plus(leaseDuration)), MIGRATIONS_COLLECTION);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao renovar o lease da migração {}: {}", migration.id(), e.getMessage());
+        }
+    }
+
+    private void markApplied(MongoMigration migration) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(migration.id())), new Update()
+                        .set("appliedAt", LocalDateTime.now())
+                        .unset("leaseOwner")
+                        .unset("leaseUntil"),
+                MIGRATIONS_COLLECTION);
+    }
+
+    private void release(MongoMigration migration) {
+        mongoTemplate.updateFirst(ownedBy(migration), new Update().unset("leaseOwner").unset("leaseUntil"),
+                MIGRATIONS_COLLECTION);
+    }
+
+    private Query ownedBy(MongoMigration migration) {
+        return Query.query(Criteria.where("_id").is(migration.id()).and("leaseOwner").is(nodeId));
+    }
+}
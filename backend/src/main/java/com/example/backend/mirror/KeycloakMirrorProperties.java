@@ -0,0 +1,20 @@
+package com.example.backend.mirror;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "keycloak.mirror")
+@Data
+public class KeycloakMirrorProperties {
+
+    private boolean enabled = true;
+    private Duration pollInterval = Duration.ofSeconds(15);
+    private Duration fullResyncInterval = Duration.ofHours(6);
+    private Duration maxStaleness = Duration.ofMinutes(2);
+    private int pageSize = 100;
+    private String nodeId;
+}
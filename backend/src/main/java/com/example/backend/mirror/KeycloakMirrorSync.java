@@ -0,0 +1,265 @@
+package com.example.backend.mirror;
+
+import com.example.backend.service.KeycloakAdminService;
+import com.example.backend.tenant.KeycloakTenant;
+import com.example.backend.tenant.TenantContext;
+import com.example.backend.tenant.TenantRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "keycloak.mirror.enabled", havingValue = "true", matchIfMissing = true)
+public class KeycloakMirrorSync implements SmartLifecycle {
+
+    private static final Set<String> USER_DELETION_EVENTS = Set.of("DELETE_ACCOUNT");
+
+    private final MongoTemplate mongoTemplate;
+    private final TenantRegistry tenantRegistry;
+    private final KeycloakAdminService keycloakAdminService;
+    private final KeycloakUserMirror userMirror;
+    private final KeycloakMirrorProperties properties;
+    private final String nodeId;
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public KeycloakMirrorSync(MongoTemplate mongoTemplate,
+                              TenantRegistry tenantRegistry,
+                              KeycloakAdminService keycloakAdminService,
+                              KeycloakUserMirror userMirror,
+                              KeycloakMirrorProperties properties,
+                              @Value("${HOSTNAME:localhost}-${server.port:8081}") String defaultNodeId) {
+        this.mongoTemplate = mongoTemplate;
+        this.tenantRegistry = tenantRegistry;
+        this.keycloakAdminService = keycloakAdminService;
+        this.userMirror = userMirror;
+        this.properties = properties;
+        this.nodeId = properties.getNodeId() != null ? properties.getNodeId() : defaultNodeId;
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "keycloak-mirror-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, 0, properties.getPollInterval().toMillis(), TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void tick() {
+        for (KeycloakTenant tenant : tenantRegistry.all()) {
+            try {
+                TenantContext.runAs(tenant, () -> sync(tenant.getId()));
+            } catch (RuntimeException e) {
+                log.warn("Falha ao sincronizar o espelho de usuários do tenant {}: {}", tenant.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private void sync(String tenant) {
+        MirrorCursor cursor = acquireLease(tenant);
+        if (cursor == null) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        if (cursor.getLastFullResyncAt() == null
+                || cursor.getLastFullResyncAt().isBefore(now.minus(properties.getFullResyncInterval()))) {
+            fullResync(tenant, now);
+            cursor.setLastFullResyncAt(now);
+            long resyncCursor = now.minus(properties.getPollInterval()).toEpochMilli();
+            cursor.setAdminEventsTime(Math.max(cursor.getAdminEventsTime(), resyncCursor));
+            cursor.setUserEventsTime(Math.max(cursor.getUserEventsTime(), resyncCursor));
+        } else {
+            pollEvents(cursor);
+        }
+
+        Instant polledAt = Instant.now();
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(tenant).and("leaseOwner").is(nodeId)),
+                new Update()
+                        .set("adminEventsTime", cursor.getAdminEventsTime())
+                        .set("userEventsTime", cursor.getUserEventsTime())
+                        .set("lastFullResyncAt", cursor.getLastFullResyncAt())
+                        .set("lastPollAt", polledAt),
+                MirrorCursor.class);
+        userMirror.markPolled(tenant, polledAt);
+    }
+
+    private void pollEvents(MirrorCursor cursor) {
+        Set<String> changed = new HashSet<>();
+        Set<String> deleted = new HashSet<>();
+
+        long adminEventsTime = readSince(cursor.getAdminEventsTime(), keycloakAdminService::getAdminEvents, event -> {
+            String userId = userIdFromResourcePath((String) event.get("resourcePath"));
+            if (userId == null) {
+                return;
+            }
+            if ("DELETE".equals(event.get("operationType")) && isUserResource((String) event.get("resourcePath"))) {
+                deleted.add(userId);
+            } else {
+                changed.add(userId);
+            }
+        });
+
+        long userEventsTime = readSince(cursor.getUserEventsTime(), keycloakAdminService::getUserEvents, event -> {
+            String userId = (String) event.get("userId");
+            if (userId == null) {
+                return;
+            }
+            if (USER_DELETION_EVENTS.contains(event.get("type"))) {
+                deleted.add(userId);
+            } else {
+                changed.add(userId);
+            }
+        });
+
+        deleted.forEach(userMirror::evict);
+        changed.removeAll(deleted);
+        changed.forEach(this::refreshUser);
+
+        cursor.setAdminEventsTime(adminEventsTime);
+        cursor.setUserEventsTime(userEventsTime);
+
+        if (!changed.isEmpty() || !deleted.isEmpty()) {
+            log.debug("Espelho de usuários: {} atualizados, {} removidos", changed.size(), deleted.size());
+        }
+    }
+
+    private long readSince(long since, EventPage page, EventHandler handler) {
+        int pageSize = properties.getPageSize();
+        long newest = since;
+
+        for (int first = 0; ; first += pageSize) {
+            List<Map<String, Object>> events = page.fetch(since, first, pageSize);
+            boolean reachedCursor = false;
+
+            for (Map<String, Object> event : events) {
+                long time = event.get("time") instanceof Number number ? number.longValue() : 0;
+                if (time < since) {
+                    reachedCursor = true;
+                    continue;
+                }
+                handler.handle(event);
+                newest = Math.max(newest, time);
+            }
+
+            if (reachedCursor || events.size() < pageSize) {
+                return newest;
+            }
+        }
+    }
+
+    private void refreshUser(String userId) {
+        Map<String, Object> user = keycloakAdminService.findUserInKeycloak(userId);
+        if (user == null) {
+            userMirror.evict(userId);
+        } else {
+            userMirror.store(user, true);
+        }
+    }
+
+    private void fullResync(String tenant, Instant startedAt) {
+        int pageSize = properties.getPageSize();
+        int total = 0;
+
+        for (int first = 0; ; first += pageSize) {
+            List<Map<String, Object>> users = keycloakAdminService.listUsers(first, pageSize);
+            users.forEach(user -> userMirror.store(user, false));
+            total += users.size();
+            renewLease(tenant);
+
+            if (users.size() < pageSize) {
+                break;
+            }
+        }
+
+        userMirror.removeNotSyncedSince(tenant, startedAt);
+        log.info("Espelho de usuários do tenant {} ressincronizado: {} usuários", tenant, total);
+    }
+
+    private MirrorCursor acquireLease(String tenant) {
+        Instant now = Instant.now();
+        Query query = Query.query(Criteria.where("_id").is(tenant).orOperator(
+                Criteria.where("leaseOwner").is(nodeId),
+                Criteria.where("leaseUntil").lt(now),
+                Criteria.where("leaseUntil").exists(false)));
+
+        try {
+            return mongoTemplate.findAndModify(query,
+                    new Update().set("leaseOwner", nodeId).set("leaseUntil", now.plus(leaseDuration())),
+                    FindAndModifyOptions.options().upsert(true).returnNew(true),
+                    MirrorCursor.class);
+        } catch (DuplicateKeyException e) {
+            return null;
+        }
+    }
+
+    private void renewLease(String tenant) {
+        try {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(tenant).and("leaseOwner").is(nodeId)),
+                    new Update().set("leaseUntil", Instant.now().plus(leaseDuration())), MirrorCursor.class);
+        } catch (DataAccessException e) {
+            log.warn("Não foi possível renovar o lease do espelho de usuários: {}", e.getMessage());
+        }
+    }
+
+    private Duration leaseDuration() {
+        return properties.getPollInterval().multipliedBy(4);
+    }
+
+    private static String userIdFromResourcePath(String resourcePath) {
+        if (resourcePath == null || !resourcePath.startsWith("users/")) {
+            return null;
+        }
+        int end = resourcePath.indexOf('/', "users/".length());
+        return end < 0 ? resourcePath.substring("users/".length()) : resourcePath.substring("users/".length(), end);
+    }
+
+    private static boolean isUserResource(String resourcePath) {
+        return resourcePath.indexOf('/', "users/".length()) < 0;
+    }
+
+    @FunctionalInterface
+    private interface EventPage {
+        List<Map<String, Object>> fetch(long sinceMillis, int first, int max);
+    }
+
+    @FunctionalInterface
+    private interface EventHandler {
+        void handle(Map<String, Object> event);
+    }
+}
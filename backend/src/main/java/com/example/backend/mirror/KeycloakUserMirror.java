@@ -0,0 +1,158 @@
+package com.example.backend.mirror;
+
+import com.example.backend.tenant.TenantRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@Slf4j
+public class KeycloakUserMirror {
+
+    private static final long FRESHNESS_RECHECK_MILLIS = 1_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final TenantRegistry tenantRegistry;
+    private final KeycloakMirrorProperties properties;
+    private final Map<String, Freshness> freshness = new ConcurrentHashMap<>();
+
+    public KeycloakUserMirror(MongoTemplate mongoTemplate, TenantRegistry tenantRegistry,
+                              KeycloakMirrorProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.tenantRegistry = tenantRegistry;
+        this.properties = properties;
+    }
+
+    public Optional<Map<String, Object>> findById(String userId) {
+        return find(Criteria.where("_id").is(MirroredUser.idOf(tenant(), userId)))
+                .map(MirroredUser::toRepresentation);
+    }
+
+    public Optional<Map<String, Object>> findByUsername(String username) {
+        return find(Criteria.where("tenant").is(tenant()).and("username").is(username.toLowerCase(Locale.ROOT)))
+                .map(MirroredUser::toRepresentation);
+    }
+
+    public Optional<Map<String, Object>> findByEmail(String email) {
+        return find(Criteria.where("tenant").is(tenant()).and("email").is(email.toLowerCase(Locale.ROOT)))
+                .map(MirroredUser::toRepresentation);
+    }
+
+    public Optional<List<Map<String, Object>>> findFederatedIdentities(String userId) {
+        return find(Criteria.where("_id").is(MirroredUser.idOf(tenant(), userId)))
+                .map(MirroredUser::getFederatedIdentities);
+    }
+
+    public void store(Map<String, Object> user, boolean resetFederatedIdentities) {
+        String userId = (String) user.get("id");
+        if (userId == null) {
+            return;
+        }
+
+        Update update = new Update()
+                .set("tenant", tenant())
+                .set("userId", userId)
+                .set("username", user.get("username"))
+                .set("email", user.get("email"))
+                .set("firstName", user.get("firstName"))
+                .set("lastName", user.get("lastName"))
+                .set("enabled", user.get("enabled"))
+                .set("emailVerified", user.get("emailVerified"))
+                .set("attributes", user.get("attributes"))
+                .set("syncedAt", Instant.now());
+        if (resetFederatedIdentities) {
+            update.unset("federatedIdentities");
+        }
+
+        write(() -> mongoTemplate.upsert(byId(userId), update, MirroredUser.class));
+    }
+
+    public void storeFederatedIdentities(String userId, List<Map<String, Object>> federatedIdentities) {
+        write(() -> mongoTemplate.updateFirst(byId(userId),
+                new Update().set("federatedIdentities", federatedIdentities), MirroredUser.class));
+    }
+
+    public void resetFederatedIdentities(String userId) {
+        write(() -> mongoTemplate.updateFirst(byId(userId), new Update().unset("federatedIdentities"), MirroredUser.class));
+    }
+
+    public void evict(String userId) {
+        write(() -> mongoTemplate.remove(byId(userId), MirroredUser.class));
+    }
+
+    void removeNotSyncedSince(String tenant, Instant resyncStartedAt) {
+        mongoTemplate.remove(Query.query(Criteria.where("tenant").is(tenant).and("syncedAt").lt(resyncStartedAt)),
+                MirroredUser.class);
+    }
+
+    void markPolled(String tenant, Instant polledAt) {
+        freshness.put(tenant, new Freshness(polledAt, System.currentTimeMillis()));
+    }
+
+    private Optional<MirroredUser> find(Criteria criteria) {
+        if (!isFresh()) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.ofNullable(mongoTemplate.findOne(Query.query(criteria), MirroredUser.class));
+        } catch (DataAccessException e) {
+            log.warn("Espelho de usuários indisponível, consultando o Keycloak: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private boolean isFresh() {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+
+        String tenant = tenant();
+        Freshness current = freshness.get(tenant);
+        if (current == null || System.currentTimeMillis() - current.checkedAtMillis() > FRESHNESS_RECHECK_MILLIS) {
+            current = new Freshness(loadLastPollAt(tenant), System.currentTimeMillis());
+            freshness.put(tenant, current);
+        }
+
+        return current.lastPollAt() != null
+                && current.lastPollAt().isAfter(Instant.now().minus(properties.getMaxStaleness()));
+    }
+
+    private Instant loadLastPollAt(String tenant) {
+        try {
+            MirrorCursor cursor = mongoTemplate.findById(tenant, MirrorCursor.class);
+            return cursor != null ? cursor.getLastPollAt() : null;
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
+
+    private void write(Runnable operation) {
+        try {
+            operation.run();
+        } catch (DataAccessException e) {
+            log.warn("Não foi possível atualizar o espelho de usuários: {}", e.getMessage());
+        }
+    }
+
+    private Query byId(String userId) {
+        return Query.query(Criteria.where("_id").is(MirroredUser.idOf(tenant(), userId)));
+    }
+
+    private String tenant() {
+        return tenantRegistry.current().getId();
+    }
+
+    private record Freshness(Instant lastPollAt, long checkedAtMillis) {}
+}
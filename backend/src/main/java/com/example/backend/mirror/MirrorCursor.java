@@ -0,0 +1,33 @@
+package com.example.backend.mirror;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "keycloak_mirror_cursors")
+public class MirrorCursor {
+
+    @Id
+    private String tenant;
+
+    private long adminEventsTime;
+
+    private long userEventsTime;
+
+    private Instant lastPollAt;
+
+    private Instant lastFullResyncAt;
+
+    private String leaseOwner;
+
+    private Instant leaseUntil;
+}
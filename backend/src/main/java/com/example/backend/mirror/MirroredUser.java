@@ -0,0 +1,63 @@
+package com.example.backend.mirror;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "keycloak_user_mirror")
+public class MirroredUser {
+
+    @Id
+    private String id;
+
+    private String tenant;
+
+    private String userId;
+
+    private String username;
+
+    private String email;
+
+    private String firstName;
+
+    private String lastName;
+
+    private Boolean enabled;
+
+    private Boolean emailVerified;
+
+    private Map<String, List<String>> attributes;
+
+    private List<Map<String, Object>> federatedIdentities;
+
+    private Instant syncedAt;
+
+    public static String idOf(String tenant, String userId) {
+        return tenant + ":" + userId;
+    }
+
+    public Map<String, Object> toRepresentation() {
+        Map<String, Object> user = new HashMap<>();
+        user.put("id", userId);
+        user.put("username", username);
+        user.put("email", email);
+        user.put("firstName", firstName);
+        user.put("lastName", lastName);
+        user.put("enabled", enabled);
+        user.put("emailVerified", emailVerified);
+        user.put("attributes", attributes != null ? new HashMap<>(attributes) : new HashMap<>());
+        return user;
+    }
+}
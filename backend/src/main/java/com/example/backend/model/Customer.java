@@ -1,12 +1,16 @@
 package com.example.backend.model;
 
+import com.example.backend.record.Cpf;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -16,24 +20,46 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "customer")
+@CompoundIndexes({
+    @CompoundIndex(name = "customer_email_normalized", def = "{'tenant': 1, 'emailNormalized': 1}", unique = true,
+            partialFilter = "{'emailNormalized': {$exists: true}}"),
+    @CompoundIndex(name = "customer_cpf", def = "{'tenant': 1, 'cpf': 1}", unique = true,
+            partialFilter = "{'cpf': {$exists: true}}"),
+    @CompoundIndex(name = "customer_keycloak_user_id", def = "{'tenant': 1, 'keycloakUserId': 1}", unique = true,
+            partialFilter = "{'keycloakUserId': {$exists: true}}")
+})
 public class Customer {
     
     @Id
     private String id;
     
-    @Indexed(unique = true)
+    private String tenant;
+    
     private String email;
     
     private String name;
     
     private LocalDate birthDate;
     
-    private String document;
+    @Field("cpf")
+    private Cpf document;
     
-    @Indexed(unique = true)
     private String keycloakUserId;
     
     private LocalDateTime createdAt;
     
     private LocalDateTime updatedAt;
+    
+    @Version
+    private Long version;
+    
+    private String nameNormalized;
+    
+    private String emailNormalized;
+    
+    private LocalDateTime lastLoginAt;
+    
+    private Long loginCount;
+    
+    private String lastIdentityProvider;
 }
@@ -0,0 +1,20 @@
+package com.example.backend.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum CustomerSearchField {
+
+    NAME("nameNormalized", "customer_name_search"),
+    EMAIL("emailNormalized", "customer_email_search"),
+    DOCUMENT("cpf", "customer_cpf");
+
+    private final String path;
+    private final String indexName;
+
+    public boolean isPrefixSearch() {
+        return this != DOCUMENT;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.backend.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchLookupRequestDTO {
+    
+    private List<String> ids;
+    
+    private List<String> emails;
+    
+    private List<String> keycloakUserIds;
+}
@@ -0,0 +1,34 @@
+package com.example.backend.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchLookupResponseDTO {
+    
+    private List<Result> ids;
+    
+    private List<Result> emails;
+    
+    private List<Result> keycloakUserIds;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        
+        private String key;
+        
+        private boolean found;
+        
+        private CustomerDTO customer;
+    }
+}
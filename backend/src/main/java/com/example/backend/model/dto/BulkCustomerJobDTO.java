@@ -0,0 +1,35 @@
+package com.example.backend.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCustomerJobDTO {
+
+    private String id;
+
+    private String action;
+
+    private String status;
+
+    private long customersMatched;
+
+    private long customersRemoved;
+
+    private long keycloakPending;
+
+    private long keycloakDone;
+
+    private long keycloakFailed;
+
+    private Instant createdAt;
+
+    private Instant finishedAt;
+}
@@ -0,0 +1,22 @@
+package com.example.backend.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCustomerRequestDTO {
+
+    private List<String> ids;
+
+    private LocalDateTime createdBefore;
+
+    private LocalDateTime lastLoginBefore;
+}
@@ -1,6 +1,8 @@
 package com.example.backend.model.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Past;
@@ -10,6 +12,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 @Builder
@@ -33,4 +36,16 @@ public class CustomerDTO {
     private String document;
     
     private String keycloakUserId;
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime lastLoginAt;
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long loginCount;
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String lastIdentityProvider;
+    
+    @JsonIgnore
+    private Long version;
 }
@@ -0,0 +1,19 @@
+package com.example.backend.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSearchPageDTO {
+    
+    private List<CustomerDTO> items;
+    
+    private String nextCursor;
+}
@@ -0,0 +1,89 @@
+package com.example.backend.record;
+
+import java.util.Optional;
+
+public record Cpf(long value) {
+
+    public static final long INVALID = -1L;
+
+    private static final int LENGTH = 11;
+    private static final long MAX_VALUE = 99_999_999_999L;
+    private static final long REPEATED_DIGITS = 11_111_111_111L;
+
+    public Cpf {
+        if (!hasValidCheckDigits(value)) {
+            throw new RuntimeException("CPF inválido");
+        }
+    }
+
+    public static Cpf of(CharSequence raw) {
+        return parse(raw).orElseThrow(() -> new RuntimeException("CPF inválido"));
+    }
+
+    public static Optional<Cpf> parse(CharSequence raw) {
+        long value = normalize(raw);
+        return value != INVALID ? Optional.of(new Cpf(value)) : Optional.empty();
+    }
+
+    public static long normalize(CharSequence raw) {
+        if (raw == null) {
+            return INVALID;
+        }
+
+        long value = 0;
+        int digits = 0;
+
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+
+            if (c >= '0' && c <= '9') {
+                if (++digits > LENGTH) {
+                    return INVALID;
+                }
+                value = value * 10 + (c - '0');
+            } else if (c != '.' && c != '-' && !Character.isWhitespace(c)) {
+                return INVALID;
+            }
+        }
+
+        return digits == LENGTH && hasValidCheckDigits(value) ? value : INVALID;
+    }
+
+    public static boolean hasValidCheckDigits(long value) {
+        if (value <= 0 || value > MAX_VALUE || value % REPEATED_DIGITS == 0) {
+            return false;
+        }
+
+        int lastDigit = (int) (value % 10);
+        int firstCheckDigit = (int) (value / 10 % 10);
+        long base = value / 100;
+        int firstSum = 0;
+        int secondSum = firstCheckDigit * 2;
+
+        for (int position = 0; position < LENGTH - 2; position++) {
+            int digit = (int) (base % 10);
+            base /= 10;
+            firstSum += digit * (position + 2);
+            secondSum += digit * (position + 3);
+        }
+
+        return firstCheckDigit == checkDigit(firstSum) && lastDigit == checkDigit(secondSum);
+    }
+
+    private static int checkDigit(int sum) {
+        return sum * 10 % 11 % 10;
+    }
+
+    @Override
+    public String toString() {
+        char[] digits = new char[LENGTH];
+        long remaining = value;
+
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+
+        return new String(digits);
+    }
+}
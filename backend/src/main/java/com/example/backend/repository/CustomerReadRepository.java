@@ -0,0 +1,94 @@
+package com.example.backend.repository;
+
+import com.example.backend.config.MongoReadRoutingProperties;
+import com.example.backend.model.Customer;
+import com.example.backend.tenant.TenantRegistry;
+import com.example.backend.util.SearchNormalizer;
+import com.mongodb.ReadPreference;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class CustomerReadRepository {
+
+    private final MongoTemplate mongoTemplate;
+    private final ReadPreference lookupReadPreference;
+    private final TenantRegistry tenantRegistry;
+
+    public CustomerReadRepository(MongoTemplate mongoTemplate, MongoReadRoutingProperties routingProperties,
+                                  TenantRegistry tenantRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.lookupReadPreference = routingProperties.toLookupReadPreference();
+        this.tenantRegistry = tenantRegistry;
+    }
+
+    public List<Customer> findAll() {
+        return mongoTemplate.find(lookup(null), Customer.class);
+    }
+
+    public Optional<Customer> findById(String id) {
+        return findOne(Criteria.where("_id").is(id));
+    }
+
+    public Optional<Customer> findByEmail(String email) {
+        return findOne(Criteria.where("emailNormalized").is(SearchNormalizer.normalizeEmail(email)));
+    }
+
+    public Optional<Customer> findByKeycloakUserId(String keycloakUserId) {
+        return findOne(Criteria.where("keycloakUserId").is(keycloakUserId));
+    }
+
+    public List<Customer> findAllByIds(Collection<String> ids) {
+        return findIn("_id", ids);
+    }
+
+    public List<Customer> findAllByEmails(Collection<String> emails) {
+        return findIn("emailNormalized", emails.stream().map(SearchNormalizer::normalizeEmail).toList());
+    }
+
+    public List<Customer> findAllByKeycloakUserIds(Collection<String> keycloakUserIds) {
+        return findIn("keycloakUserId", keycloakUserIds);
+    }
+
+    public Optional<Customer> findVersionById(String id) {
+        return findVersion(Criteria.where("_id").is(id));
+    }
+
+    public Optional<Customer> findVersionByKeycloakUserId(String keycloakUserId) {
+        return findVersion(Criteria.where("keycloakUserId").is(keycloakUserId));
+    }
+
+    private Optional<Customer> findOne(Criteria criteria) {
+        Query query = lookup(criteria);
+        return Optional.ofNullable(mongoTemplate.findOne(query, Customer.class));
+    }
+
+    private List<Customer> findIn(String field, Collection<String> values) {
+        if (values.isEmpty()) {
+            return List.of();
+        }
+
+        Query query = lookup(Criteria.where(field).in(values));
+        return mongoTemplate.find(query, Customer.class);
+    }
+
+    private Optional<Customer> findVersion(Criteria criteria) {
+        Query query = lookup(criteria).withReadPreference(ReadPreference.primary());
+        query.fields().include("version", "keycloakUserId", "tenant");
+        return Optional.ofNullable(mongoTemplate.findOne(query, Customer.class));
+    }
+
+    private Query lookup(Criteria criteria) {
+        Query query = Query.query(Criteria.where("tenant").is(tenantRegistry.current().getId()));
+        if (criteria != null) {
+            query.addCriteria(criteria);
+        }
+        return query.withReadPreference(lookupReadPreference);
+    }
+}
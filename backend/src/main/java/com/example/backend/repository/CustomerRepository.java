@@ -1,6 +1,8 @@
 package com.example.backend.repository;
 
 import com.example.backend.model.Customer;
+import com.example.backend.record.Cpf;
+import com.example.backend.util.SearchNormalizer;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -9,15 +11,25 @@ import java.util.Optional;
 @Repository
 public interface CustomerRepository extends MongoRepository<Customer, String> {
     
-    Optional<Customer> findByEmail(String email);
+    Optional<Customer> findByIdAndTenant(String id, String tenant);
     
-    Optional<Customer> findByKeycloakUserId(String keycloakUserId);
+    Optional<Customer> findByTenantAndEmailNormalized(String tenant, String emailNormalized);
     
-    Optional<Customer> findByDocument(String document);
+    Optional<Customer> findByTenantAndKeycloakUserId(String tenant, String keycloakUserId);
     
-    boolean existsByEmail(String email);
+    Optional<Customer> findByTenantAndDocument(String tenant, Cpf document);
     
-    boolean existsByDocument(String document);
+    boolean existsByTenantAndEmailNormalized(String tenant, String emailNormalized);
     
-    boolean existsByKeycloakUserId(String keycloakUserId);
+    boolean existsByTenantAndDocument(String tenant, Cpf document);
+    
+    boolean existsByTenantAndKeycloakUserId(String tenant, String keycloakUserId);
+    
+    default Optional<Customer> findByEmail(String tenant, String email) {
+        return findByTenantAndEmailNormalized(tenant, SearchNormalizer.normalizeEmail(email));
+    }
+    
+    default boolean existsByEmail(String tenant, String email) {
+        return existsByTenantAndEmailNormalized(tenant, SearchNormalizer.normalizeEmail(email));
+    }
 }
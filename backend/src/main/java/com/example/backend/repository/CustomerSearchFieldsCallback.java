@@ -0,0 +1,17 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.Customer;
+import com.example.backend.util.SearchNormalizer;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CustomerSearchFieldsCallback implements BeforeConvertCallback<Customer> {
+
+    @Override
+    public Customer onBeforeConvert(Customer customer, String collection) {
+        customer.setNameNormalized(SearchNormalizer.normalizeName(customer.getName()));
+        customer.setEmailNormalized(SearchNormalizer.normalizeEmail(customer.getEmail()));
+        return customer;
+    }
+}
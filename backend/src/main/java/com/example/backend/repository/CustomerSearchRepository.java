@@ -0,0 +1,99 @@
+package com.example.backend.repository;
+
+import com.example.backend.config.MongoReadRoutingProperties;
+import com.example.backend.model.Customer;
+import com.example.backend.model.CustomerSearchField;
+import com.example.backend.tenant.TenantRegistry;
+import com.example.backend.util.KeysetCursor;
+import com.example.backend.util.SearchNormalizer;
+import com.mongodb.ReadPreference;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+@Slf4j
+public class CustomerSearchRepository {
+
+    private final MongoTemplate mongoTemplate;
+    private final ReadPreference lookupReadPreference;
+    private final TenantRegistry tenantRegistry;
+
+    public CustomerSearchRepository(MongoTemplate mongoTemplate, MongoReadRoutingProperties routingProperties,
+                                    TenantRegistry tenantRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.lookupReadPreference = routingProperties.toLookupReadPreference();
+        this.tenantRegistry = tenantRegistry;
+    }
+
+    public List<Customer> search(CustomerSearchField field, String term, KeysetCursor after, int limit) {
+        return mongoTemplate.find(buildQuery(field, term, after, limit), Customer.class);
+    }
+
+    public Document explain(CustomerSearchField field, String term) {
+        Query query = buildQuery(field, term, null, 1);
+
+        return mongoTemplate.execute(Customer.class, collection -> collection.find(query.getQueryObject())
+                .sort(query.getSortObject())
+                .limit(query.getLimit())
+                .explain());
+    }
+
+    public boolean verifyQueryPlan(CustomerSearchField field, String term) {
+        String plan = explain(field, term)
+                .get("queryPlanner", Document.class)
+                .get("winningPlan", Document.class)
+                .toJson();
+
+        if (plan.contains("COLLSCAN") || !plan.contains(field.getIndexName())) {
+            log.warn("Busca por {} não utiliza o índice {}: {}", field, field.getIndexName(), plan);
+            return false;
+        }
+
+        log.info("Busca por {} utiliza o índice {}", field, field.getIndexName());
+        return true;
+    }
+
+    private Query buildQuery(CustomerSearchField field, String term, KeysetCursor after, int limit) {
+        Criteria match = matchCriteria(field, term);
+        Criteria criteria = after != null
+                ? new Criteria().andOperator(match, afterCriteria(field, after))
+                : match;
+
+        return Query.query(Criteria.where("tenant").is(tenantRegistry.current().getId()))
+                .addCriteria(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "tenant", field.getPath(), "_id"))
+                .limit(limit)
+                .withReadPreference(lookupReadPreference);
+    }
+
+    private Criteria matchCriteria(CustomerSearchField field, String term) {
+        if (field == CustomerSearchField.DOCUMENT) {
+            return Criteria.where(field.getPath()).is(Long.parseLong(term));
+        }
+
+        String upperBound = SearchNormalizer.prefixUpperBound(term);
+        Criteria criteria = Criteria.where(field.getPath()).gte(term);
+        return upperBound != null ? criteria.lt(upperBound) : criteria;
+    }
+
+    private Criteria afterCriteria(CustomerSearchField field, KeysetCursor after) {
+        if (field == CustomerSearchField.DOCUMENT) {
+            return Criteria.where("_id").gt(after.id());
+        }
+
+        return new Criteria().orOperator(
+                Criteria.where(field.getPath()).gt(after.value()),
+                new Criteria().andOperator(
+                        Criteria.where(field.getPath()).is(after.value()),
+                        Criteria.where("_id").gt(after.id())
+                )
+        );
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.backend.repository;
+
+import com.example.backend.activity.CustomerActivityBuffer;
+import com.example.backend.model.Customer;
+import org.bson.Document;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Alterações de perfil de um customer já existente são gravadas campo a campo ({@code $set}/{@code $unset}) com a
+ * checagem de {@code version}, em vez de substituir o documento: os campos de atividade de login são atualizados pelo
+ * {@link CustomerActivityBuffer} sem incrementar a versão, e um save completo sobrescreveria esses valores com os lidos
+ * antes do flush.
+ */
+@Repository
+public class CustomerWriteRepository {
+
+    private final MongoTemplate mongoTemplate;
+    private final List<String> profileFields;
+
+    public CustomerWriteRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.profileFields = profileFields(mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(Customer.class));
+    }
+
+    public Customer updateProfile(Customer customer) {
+        Document written = new Document();
+        mongoTemplate.getConverter().write(customer, written);
+
+        Update update = new Update().inc("version", 1);
+        for (String field : profileFields) {
+            if (written.containsKey(field)) {
+                update.set(field, written.get(field));
+            } else {
+                update.unset(field);
+            }
+        }
+
+        Query query = Query.query(Criteria.where("_id").is(customer.getId())
+                .and("tenant").is(customer.getTenant())
+                .and("version").is(customer.getVersion()));
+        Customer updated = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Customer.class);
+
+        if (updated == null) {
+            throw new OptimisticLockingFailureException("Cliente foi alterado por outra requisição");
+        }
+        return updated;
+    }
+
+    private static List<String> profileFields(MongoPersistentEntity<?> entity) {
+        List<String> fields = new ArrayList<>();
+        entity.doWithProperties((PropertyHandler<MongoPersistentProperty>) property -> {
+            if (!property.isIdProperty() && !property.isVersionProperty()
+                    && !CustomerActivityBuffer.ACTIVITY_FIELDS.contains(property.getFieldName())) {
+                fields.add(property.getFieldName());
+            }
+        });
+        return List.copyOf(fields);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.backend.resilience;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AdaptiveConcurrencyLimiter {
+
+    private final String name;
+    private final ConcurrencyLimitProperties.Limit settings;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private volatile int limit;
+    private double estimatedLimit;
+    private long minRttNanos = Long.MAX_VALUE;
+    private int samplesSinceReset;
+
+    public AdaptiveConcurrencyLimiter(String name, ConcurrencyLimitProperties.Limit settings) {
+        this.name = name;
+        this.settings = settings;
+        this.estimatedLimit = settings.getInitialLimit();
+        this.limit = settings.getInitialLimit();
+    }
+
+    public Optional<Permit> tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.incrementAndGet();
+                return Optional.empty();
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return Optional.of(new Permit(current + 1));
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtStart, boolean dropped) {
+        if (++samplesSinceReset >= settings.getMinRttResetSamples()) {
+            minRttNanos = rttNanos;
+            samplesSinceReset = 0;
+        } else {
+            minRttNanos = Math.min(minRttNanos, rttNanos);
+        }
+
+        double log = Math.max(1, Math.log10(estimatedLimit));
+        double next;
+
+        if (dropped) {
+            next = estimatedLimit - log;
+        } else if (inFlightAtStart * 2 < estimatedLimit) {
+            return;
+        } else {
+            int queued = (int) Math.ceil(estimatedLimit * (1 - (double) minRttNanos / rttNanos));
+            if (queued <= log) {
+                next = estimatedLimit + 6 * log;
+            } else if (queued < 3 * log) {
+                next = estimatedLimit + log;
+            } else if (queued > 6 * log) {
+                next = estimatedLimit - log;
+            } else {
+                return;
+            }
+        }
+
+        next = Math.max(settings.getMinLimit(), Math.min(settings.getMaxLimit(), next));
+        estimatedLimit = (1 - settings.getSmoothing()) * estimatedLimit + settings.getSmoothing() * next;
+        limit = (int) Math.round(estimatedLimit);
+    }
+
+    public final class Permit {
+
+        private final long startedAt = System.nanoTime();
+        private final int inFlightAtStart;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        public void onSuccess() {
+            release(false, true);
+        }
+
+        public void onDropped() {
+            release(true, true);
+        }
+
+        public void onIgnore() {
+            release(false, false);
+        }
+
+        private void release(boolean dropped, boolean sample) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            inFlight.decrementAndGet();
+            if (sample) {
+                onSample(System.nanoTime() - startedAt, inFlightAtStart, dropped);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.backend.resilience;
+
+import com.example.backend.tenant.KeycloakTenant;
+import com.example.backend.tenant.TenantRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.concurrency-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter authConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        return new AdaptiveConcurrencyLimiter("auth-inbound", properties.getInbound());
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdaptiveConcurrencyFilter> adaptiveConcurrencyFilter(
+            AdaptiveConcurrencyLimiter authConcurrencyLimiter, ConcurrencyLimitProperties properties) {
+        FilterRegistrationBean<AdaptiveConcurrencyFilter> registration =
+                new FilterRegistrationBean<>(new AdaptiveConcurrencyFilter(authConcurrencyLimiter, properties));
+        registration.addUrlPatterns("/auth/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    @Bean
+    public MeterBinder concurrencyLimitMetrics(AdaptiveConcurrencyLimiter authConcurrencyLimiter,
+                                               TenantRegistry tenantRegistry) {
+        return registry -> {
+            bind(registry, authConcurrencyLimiter, Tags.of("limiter", authConcurrencyLimiter.getName()));
+            for (KeycloakTenant tenant : tenantRegistry.all()) {
+                if (tenant.getOutboundLimiter() != null) {
+                    bind(registry, tenant.getOutboundLimiter(),
+                            Tags.of("limiter", tenant.getOutboundLimiter().getName(), "tenant", tenant.getId()));
+                }
+            }
+        };
+    }
+
+    private static void bind(MeterRegistry registry, AdaptiveConcurrencyLimiter limiter, Tags tags) {
+        Gauge.builder("concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tags(tags)
+                .description("Limite adaptativo de requisições simultâneas")
+                .register(registry);
+        Gauge.builder("concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tags(tags)
+                .description("Requisições em andamento")
+                .register(registry);
+        FunctionCounter.builder("concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                .tags(tags)
+                .description("Requisições rejeitadas pelo limite")
+                .register(registry);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.backend.resilience;
+
+import org.springframework.web.client.ResourceAccessException;
+
+public class ConcurrencyLimitExceededException extends ResourceAccessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ConcurrencyLimitExceededException(String limiter) {
+        super("Limite adaptativo de concorrência atingido: " + limiter);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.backend.resilience;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+class HedgeDelay {
+
+    private final HedgingProperties properties;
+    private final Recorder recorder = new Recorder(3);
+
+    private Histogram interval;
+    private volatile long delayMicros;
+    private volatile long windowStartedAt = System.currentTimeMillis();
+
+    HedgeDelay(HedgingProperties properties) {
+        this.properties = properties;
+        this.delayMicros = properties.getMaxHedgeDelay().toNanos() / 1_000;
+    }
+
+    void record(long elapsedNanos) {
+        recorder.recordValue(Math.max(1, elapsedNanos / 1_000));
+    }
+
+    long delayMicros() {
+        if (System.currentTimeMillis() - windowStartedAt >= properties.getLatencyWindow().toMillis()) {
+            roll();
+        }
+        return delayMicros;
+    }
+
+    private synchronized void roll() {
+        if (System.currentTimeMillis() - windowStartedAt < properties.getLatencyWindow().toMillis()) {
+            return;
+        }
+
+        interval = recorder.getIntervalHistogram(interval);
+        windowStartedAt = System.currentTimeMillis();
+
+        if (interval.getTotalCount() >= properties.getMinSamples()) {
+            long percentile = interval.getValueAtPercentile(properties.getHedgePercentile());
+            long min = properties.getMinHedgeDelay().toNanos() / 1_000;
+            long max = properties.getMaxHedgeDelay().toNanos() / 1_000;
+            delayMicros = Math.max(min, Math.min(max, percentile));
+        }
+    }
+}
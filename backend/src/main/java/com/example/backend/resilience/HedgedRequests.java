@@ -0,0 +1,151 @@
+package com.example.backend.resilience;
+
+import com.example.backend.tenant.KeycloakTenant;
+import com.example.backend.tenant.TenantContext;
+import com.example.backend.tenant.TenantRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Component
+@Slf4j
+public class HedgedRequests implements DisposableBean {
+
+    private final HedgingProperties properties;
+    private final TenantRegistry tenantRegistry;
+    private final RetryBudget retryBudget;
+    private final Map<String, HedgeDelay> delays = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("keycloak-hedged-", 0).factory());
+
+    public HedgedRequests(HedgingProperties properties, TenantRegistry tenantRegistry) {
+        this.properties = properties;
+        this.tenantRegistry = tenantRegistry;
+        this.retryBudget = new RetryBudget(properties.getRetryBudgetRatio(),
+                properties.getRetryBudgetMinPerSecond(), properties.getRetryBudgetMaxTokens());
+    }
+
+    public <T> T call(String operation, Supplier<T> request) {
+        if (!properties.isEnabled()) {
+            return request.get();
+        }
+
+        retryBudget.recordRequest();
+        HedgeDelay delay = delays.computeIfAbsent(operation, name -> new HedgeDelay(properties));
+        RuntimeException failure = null;
+
+        for (int attempt = 0; attempt <= properties.getMaxRetries(); attempt++) {
+            if (attempt > 0) {
+                if (!retryBudget.tryAcquire()) {
+                    log.warn("Orçamento de retentativas esgotado; {} não será repetida", operation);
+                    break;
+                }
+                backoff(attempt);
+            }
+
+            try {
+                return race(operation, delay, request);
+            } catch (RuntimeException e) {
+                if (!isRetryable(e)) {
+                    throw e;
+                }
+                failure = e;
+                log.debug("Falha transitória em {} (tentativa {}): {}", operation, attempt + 1, e.getMessage());
+            }
+        }
+
+        throw failure;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private <T> T race(String operation, HedgeDelay delay, Supplier<T> request) {
+        CompletionService<T> completion = new ExecutorCompletionService<>(executor);
+        List<Future<T>> attempts = new ArrayList<>(2);
+        KeycloakTenant tenant = tenantRegistry.current();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+
+        try {
+            attempts.add(completion.submit(() -> attempt(tenant, mdc, delay, request)));
+            Future<T> finished = completion.poll(delay.delayMicros(), TimeUnit.MICROSECONDS);
+
+            if (finished == null && retryBudget.tryAcquire()) {
+                log.debug("Enviando requisição de hedge para {}", operation);
+                attempts.add(completion.submit(() -> attempt(tenant, mdc, delay, request)));
+            }
+
+            RuntimeException failure = null;
+            for (int outstanding = attempts.size(); outstanding > 0; outstanding--) {
+                Future<T> next = finished != null ? finished : completion.take();
+                finished = null;
+                try {
+                    return next.get();
+                } catch (ExecutionException e) {
+                    failure = e.getCause() instanceof RuntimeException cause
+                            ? cause
+                            : new RuntimeException(e.getCause());
+                }
+            }
+            throw failure;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrompido aguardando resposta do Keycloak (" + operation + ")");
+        } finally {
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    private <T> T attempt(KeycloakTenant tenant, Map<String, String> mdc, HedgeDelay delay, Supplier<T> request) {
+        if (mdc != null) {
+            MDC.setContextMap(mdc);
+        }
+        try {
+            long started = System.nanoTime();
+            T result = TenantContext.callAs(tenant, request);
+            delay.record(System.nanoTime() - started);
+            return result;
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(properties.getMaxBackoff().toMillis(),
+                properties.getInitialBackoff().toMillis() << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrompido aguardando nova tentativa no Keycloak");
+        }
+    }
+
+    private boolean isRetryable(RuntimeException e) {
+        if (e instanceof ResourceAccessException) {
+            return e.getCause() instanceof IOException;
+        }
+        return e instanceof HttpServerErrorException || e instanceof HttpClientErrorException.TooManyRequests;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.backend.resilience;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+public final class HedgedRestTemplate extends RestTemplate {
+
+    private final HedgedRequests hedgedRequests;
+    private final String operation;
+
+    public HedgedRestTemplate(RestTemplate delegate, HedgedRequests hedgedRequests, String operation) {
+        super(delegate.getRequestFactory());
+        setMessageConverters(delegate.getMessageConverters());
+        setErrorHandler(delegate.getErrorHandler());
+        this.hedgedRequests = hedgedRequests;
+        this.operation = operation;
+    }
+
+    @Override
+    public <T> ResponseEntity<T> exchange(RequestEntity<?> entity, Class<T> responseType) throws RestClientException {
+        if (entity.getMethod() != HttpMethod.GET) {
+            return super.exchange(entity, responseType);
+        }
+        return hedgedRequests.call(operation, () -> super.exchange(entity, responseType));
+    }
+}
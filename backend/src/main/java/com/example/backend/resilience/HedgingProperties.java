@@ -0,0 +1,26 @@
+package com.example.backend.resilience;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "keycloak.hedging")
+@Data
+public class HedgingProperties {
+
+    private boolean enabled = true;
+    private double hedgePercentile = 95.0;
+    private Duration minHedgeDelay = Duration.ofMillis(20);
+    private Duration maxHedgeDelay = Duration.ofSeconds(1);
+    private Duration latencyWindow = Duration.ofSeconds(30);
+    private int minSamples = 50;
+    private int maxRetries = 2;
+    private Duration initialBackoff = Duration.ofMillis(50);
+    private Duration maxBackoff = Duration.ofSeconds(1);
+    private double retryBudgetRatio = 0.1;
+    private int retryBudgetMinPerSecond = 5;
+    private int retryBudgetMaxTokens = 100;
+}
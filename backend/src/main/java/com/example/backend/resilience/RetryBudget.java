@@ -0,0 +1,55 @@
+package com.example.backend.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+class RetryBudget {
+
+    private static final long SCALE = 1_000;
+
+    private final long depositPerRequest;
+    private final long refillPerSecond;
+    private final long capacity;
+    private final AtomicLong balance;
+    private final AtomicLong lastRefillNanos = new AtomicLong(System.nanoTime());
+
+    RetryBudget(double ratio, int minPerSecond, int maxTokens) {
+        this.depositPerRequest = Math.round(ratio * SCALE);
+        this.refillPerSecond = minPerSecond * SCALE;
+        this.capacity = maxTokens * SCALE;
+        this.balance = new AtomicLong(capacity);
+    }
+
+    void recordRequest() {
+        deposit(depositPerRequest);
+    }
+
+    boolean tryAcquire() {
+        refill();
+        while (true) {
+            long current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    double available() {
+        return (double) balance.get() / SCALE;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        long last = lastRefillNanos.get();
+        long tokens = (now - last) * refillPerSecond / 1_000_000_000L;
+        if (tokens > 0 && lastRefillNanos.compareAndSet(last, now)) {
+            deposit(tokens);
+        }
+    }
+
+    private void deposit(long tokens) {
+        balance.accumulateAndGet(tokens, (current, added) -> Math.min(capacity, current + added));
+    }
+}
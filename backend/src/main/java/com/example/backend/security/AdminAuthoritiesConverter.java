@@ -0,0 +1,39 @@
+package com.example.backend.security;
+
+import com.example.backend.tenant.TenantRegistry;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Concede {@code ROLE_CUSTOMER_ADMIN} ao token que é administrador no tenant da requisição, para as regras de URL
+ * (actuator) usarem a mesma decisão das políticas {@code @ClaimPolicy}.
+ */
+public class AdminAuthoritiesConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+
+    public static final String ADMIN_ROLE = "CUSTOMER_ADMIN";
+
+    private final JwtGrantedAuthoritiesConverter scopes = new JwtGrantedAuthoritiesConverter();
+    private final TenantRegistry tenantRegistry;
+    private final AuthorizationProperties properties;
+
+    public AdminAuthoritiesConverter(TenantRegistry tenantRegistry, AuthorizationProperties properties) {
+        this.tenantRegistry = tenantRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    public Collection<GrantedAuthority> convert(Jwt jwt) {
+        List<GrantedAuthority> authorities = new ArrayList<>(scopes.convert(jwt));
+        if (ClaimPrincipal.from(jwt, tenantRegistry.current(), properties.getAdminRoles()).admin()) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + ADMIN_ROLE));
+        }
+        return authorities;
+    }
+}
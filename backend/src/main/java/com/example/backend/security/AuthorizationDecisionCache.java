@@ -0,0 +1,63 @@
+package com.example.backend.security;
+
+import com.example.backend.tenant.KeycloakTenant;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decisões por token: as claims relevantes são extraídas uma vez por token (chave tenant + jti) e cada combinação
+ * política/dono é avaliada uma única vez enquanto o token for válido.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthorizationDecisionCache {
+
+    private final AuthorizationProperties properties;
+    private final ConcurrentHashMap<String, TokenDecisions> tokens = new ConcurrentHashMap<>();
+
+    public boolean decide(KeycloakTenant tenant, Jwt jwt, CompiledPolicy policy, Map<String, String> pathVariables) {
+        TokenDecisions decisions = decisionsFor(tenant, jwt);
+        String decisionKey = policy.decisionKey(pathVariables);
+
+        Boolean cached = decisions.results().get(decisionKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        boolean permitted = policy.permits(decisions.principal(), tenant.getId(), pathVariables);
+        if (decisions.results().size() < properties.getMaxDecisionsPerToken()) {
+            decisions.results().put(decisionKey, permitted);
+        }
+        return permitted;
+    }
+
+    private TokenDecisions decisionsFor(KeycloakTenant tenant, Jwt jwt) {
+        Instant now = Instant.now();
+        String key = tenant.getId() + "|" + (jwt.getId() != null ? jwt.getId() : jwt.getTokenValue());
+
+        TokenDecisions decisions = tokens.get(key);
+        if (decisions != null && !decisions.principal().isExpired(now)) {
+            return decisions;
+        }
+
+        if (tokens.size() >= properties.getMaxCachedTokens()) {
+            tokens.values().removeIf(cached -> cached.principal().isExpired(now));
+            if (tokens.size() >= properties.getMaxCachedTokens()) {
+                tokens.clear();
+            }
+        }
+
+        decisions = new TokenDecisions(ClaimPrincipal.from(jwt, tenant, properties.getAdminRoles()),
+                new ConcurrentHashMap<>());
+        tokens.put(key, decisions);
+        return decisions;
+    }
+
+    private record TokenDecisions(ClaimPrincipal principal, ConcurrentHashMap<String, Boolean> results) {
+    }
+}
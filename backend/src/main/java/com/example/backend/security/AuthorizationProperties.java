@@ -0,0 +1,18 @@
+package com.example.backend.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+@Component
+@ConfigurationProperties(prefix = "app.authorization")
+@Data
+public class AuthorizationProperties {
+
+    private boolean enabled = true;
+    private Set<String> adminRoles = Set.of("customer-admin");
+    private int maxCachedTokens = 10000;
+    private int maxDecisionsPerToken = 32;
+}
@@ -0,0 +1,28 @@
+package com.example.backend.security;
+
+import com.example.backend.tenant.TenantRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.authorization", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ClaimAuthorizationConfig implements WebMvcConfigurer {
+
+    private final ClaimPolicyRegistry policyRegistry;
+    private final AuthorizationDecisionCache decisionCache;
+    private final TenantRegistry tenantRegistry;
+
+    public ClaimAuthorizationConfig(ClaimPolicyRegistry policyRegistry, AuthorizationDecisionCache decisionCache,
+                                    TenantRegistry tenantRegistry) {
+        this.policyRegistry = policyRegistry;
+        this.decisionCache = decisionCache;
+        this.tenantRegistry = tenantRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ClaimAuthorizationInterceptor(policyRegistry, decisionCache, tenantRegistry));
+    }
+}
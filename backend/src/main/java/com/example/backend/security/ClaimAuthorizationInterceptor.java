@@ -0,0 +1,64 @@
+package com.example.backend.security;
+
+import com.example.backend.tenant.TenantRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+
+@Slf4j
+public class ClaimAuthorizationInterceptor implements HandlerInterceptor {
+
+    private final ClaimPolicyRegistry policyRegistry;
+    private final AuthorizationDecisionCache decisionCache;
+    private final TenantRegistry tenantRegistry;
+
+    public ClaimAuthorizationInterceptor(ClaimPolicyRegistry policyRegistry, AuthorizationDecisionCache decisionCache,
+                                         TenantRegistry tenantRegistry) {
+        this.policyRegistry = policyRegistry;
+        this.decisionCache = decisionCache;
+        this.tenantRegistry = tenantRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        Optional<CompiledPolicy> policy = policyRegistry.find(handlerMethod);
+        if (policy.isEmpty()) {
+            return true;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!(authentication instanceof JwtAuthenticationToken jwtAuthentication)) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Autenticação obrigatória");
+            return false;
+        }
+
+        if (!decisionCache.decide(tenantRegistry.current(), jwtAuthentication.getToken(), policy.get(),
+                pathVariables(request))) {
+            log.warn("Acesso negado a {} para o usuário {}", policy.get().handler(), jwtAuthentication.getName());
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Acesso negado");
+            return false;
+        }
+
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> pathVariables(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return variables != null ? (Map<String, String>) variables : Map.of();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.backend.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Política avaliada só com as claims do JWT já verificado. Na classe vale para todos os handlers; no método substitui
+ * a da classe. {@code owner} nomeia a variável de path que carrega o keycloakUserId do recurso.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ClaimPolicy {
+
+    Rule value();
+
+    String owner() default "";
+
+    enum Rule {
+        AUTHENTICATED,
+        ADMIN,
+        OWNER_OR_ADMIN
+    }
+}
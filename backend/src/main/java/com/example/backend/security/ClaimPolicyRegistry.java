@@ -0,0 +1,67 @@
+package com.example.backend.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+@Slf4j
+public class ClaimPolicyRegistry {
+
+    private static final String HANDLER_MAPPING = "requestMappingHandlerMapping";
+
+    private volatile Map<Method, CompiledPolicy> policies = Map.of();
+
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        ApplicationContext context = event.getApplicationContext();
+        if (!context.containsBean(HANDLER_MAPPING)) {
+            return;
+        }
+
+        Map<Method, CompiledPolicy> compiled = new HashMap<>();
+        context.getBean(HANDLER_MAPPING, RequestMappingHandlerMapping.class).getHandlerMethods()
+                .forEach((info, handlerMethod) -> compile(info, handlerMethod)
+                        .ifPresent(policy -> compiled.put(handlerMethod.getMethod(), policy)));
+
+        policies = Map.copyOf(compiled);
+        log.info("{} políticas de autorização compiladas", compiled.size());
+    }
+
+    public Optional<CompiledPolicy> find(HandlerMethod handlerMethod) {
+        return Optional.ofNullable(policies.get(handlerMethod.getMethod()));
+    }
+
+    private static Optional<CompiledPolicy> compile(RequestMappingInfo info, HandlerMethod handlerMethod) {
+        ClaimPolicy policy = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), ClaimPolicy.class);
+        if (policy == null) {
+            policy = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), ClaimPolicy.class);
+        }
+        if (policy == null) {
+            return Optional.empty();
+        }
+
+        String handler = handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName();
+        String owner = policy.owner().isBlank() ? null : policy.owner();
+
+        if (policy.value() == ClaimPolicy.Rule.OWNER_OR_ADMIN && owner == null) {
+            throw new IllegalStateException("Política OWNER_OR_ADMIN sem variável owner em " + handler);
+        }
+        if (owner != null && !info.getPatternValues().stream().allMatch(pattern -> pattern.contains("{" + owner + "}"))) {
+            throw new IllegalStateException("Variável de path {" + owner + "} não existe no mapeamento de " + handler);
+        }
+
+        return Optional.of(new CompiledPolicy(handler, policy.value(), owner));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.backend.security;
+
+import com.example.backend.tenant.KeycloakTenant;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+public record ClaimPrincipal(String subject, String tenant, Set<String> roles, boolean admin, Instant expiresAt) {
+
+    public static ClaimPrincipal from(Jwt jwt, KeycloakTenant tenant, Set<String> adminRoles) {
+        Set<String> roles = new HashSet<>(rolesOf(jwt.getClaimAsMap("realm_access")));
+
+        Map<String, Object> resourceAccess = jwt.getClaimAsMap("resource_access");
+        if (resourceAccess != null && resourceAccess.get(tenant.getClientId()) instanceof Map<?, ?> clientAccess) {
+            roles.addAll(rolesOf(clientAccess));
+        }
+
+        boolean issuedByTenant = jwt.getIssuer() != null && tenant.getIssuerUri().equals(jwt.getIssuer().toString());
+        boolean admin = issuedByTenant && roles.stream().anyMatch(adminRoles::contains);
+        return new ClaimPrincipal(jwt.getSubject(), tenant.getId(), Set.copyOf(roles), admin, jwt.getExpiresAt());
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+
+    private static Set<String> rolesOf(Map<?, ?> access) {
+        if (access == null || !(access.get("roles") instanceof Collection<?> values)) {
+            return Set.of();
+        }
+
+        Set<String> roles = new HashSet<>();
+        for (Object value : values) {
+            if (value instanceof String role) {
+                roles.add(role);
+            }
+        }
+        return roles;
+    }
+}
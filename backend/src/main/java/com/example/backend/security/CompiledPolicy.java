@@ -0,0 +1,24 @@
+package com.example.backend.security;
+
+import java.util.Map;
+
+public record CompiledPolicy(String handler, ClaimPolicy.Rule rule, String ownerVariable) {
+
+    public boolean permits(ClaimPrincipal principal, String tenant, Map<String, String> pathVariables) {
+        boolean admin = principal.admin() && tenant.equals(principal.tenant());
+        return switch (rule) {
+            case AUTHENTICATED -> principal.subject() != null;
+            case ADMIN -> admin;
+            case OWNER_OR_ADMIN -> admin || isOwner(principal, pathVariables);
+        };
+    }
+
+    public String decisionKey(Map<String, String> pathVariables) {
+        return ownerVariable != null ? handler + "|" + pathVariables.get(ownerVariable) : handler;
+    }
+
+    private boolean isOwner(ClaimPrincipal principal, Map<String, String> pathVariables) {
+        String owner = pathVariables.get(ownerVariable);
+        return owner != null && owner.equals(principal.subject());
+    }
+}
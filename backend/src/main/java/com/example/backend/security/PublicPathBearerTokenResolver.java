@@ -0,0 +1,32 @@
+package com.example.backend.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.Arrays;
+
+/**
+ * Ignora o header {@code Authorization} nas rotas públicas: um access token expirado enviado junto com o refresh ou o
+ * login não pode transformar a chamada em 401.
+ */
+public class PublicPathBearerTokenResolver implements BearerTokenResolver {
+
+    private final DefaultBearerTokenResolver delegate = new DefaultBearerTokenResolver();
+    private final RequestMatcher publicPaths;
+
+    public PublicPathBearerTokenResolver(String... publicPaths) {
+        this.publicPaths = new OrRequestMatcher(Arrays.stream(publicPaths)
+                .map(AntPathRequestMatcher::antMatcher)
+                .map(RequestMatcher.class::cast)
+                .toList());
+    }
+
+    @Override
+    public String resolve(HttpServletRequest request) {
+        return publicPaths.matches(request) ? null : delegate.resolve(request);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.backend.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+
+public class RevokedSessionFilter extends OncePerRequestFilter {
+
+    private final SessionRevocationRegistry revocationRegistry;
+
+    public RevokedSessionFilter(SessionRevocationRegistry revocationRegistry) {
+        this.revocationRegistry = revocationRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication instanceof JwtAuthenticationToken jwtAuthentication
+                && isRevoked(jwtAuthentication.getToken())) {
+            SecurityContextHolder.clearContext();
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Sessão encerrada");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean isRevoked(Jwt jwt) {
+        Object sessionId = jwt.getClaims().get("sid");
+        Instant issuedAt = jwt.getIssuedAt();
+
+        return revocationRegistry.isRevoked(
+                sessionId instanceof String sid ? sid : null,
+                jwt.getSubject(),
+                issuedAt != null ? issuedAt.toEpochMilli() : 0L
+        );
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.backend.security;
+
+import com.example.backend.config.KeycloakProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@Slf4j
+public class SessionRevocationRegistry {
+
+    private final ConcurrentHashMap<String, Long> revokedSessions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> revokedSubjects = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+
+    public SessionRevocationRegistry(KeycloakProperties keycloakProperties) {
+        this.ttlMillis = keycloakProperties.getMaxTokenLifetime().toMillis();
+    }
+
+    public void revokeSession(String sessionId) {
+        revokedSessions.put(sessionId, System.currentTimeMillis());
+    }
+
+    public void revokeSubject(String subject) {
+        revokedSubjects.put(subject, System.currentTimeMillis());
+    }
+
+    public boolean isRevoked(String sessionId, String subject, long issuedAtMillis) {
+        long now = System.currentTimeMillis();
+
+        if (sessionId != null) {
+            Long revokedAt = revokedSessions.get(sessionId);
+            if (revokedAt != null && now - revokedAt < ttlMillis) {
+                return true;
+            }
+        }
+
+        if (subject != null) {
+            Long revokedAt = revokedSubjects.get(subject);
+            return revokedAt != null && now - revokedAt < ttlMillis && issuedAtMillis <= revokedAt;
+        }
+
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${keycloak.revocation-purge-interval:PT5M}")
+    public void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+        revokedSessions.values().removeIf(revokedAt -> revokedAt <= cutoff);
+        revokedSubjects.values().removeIf(revokedAt -> revokedAt <= cutoff);
+        log.debug("Denylist de sessões: {} sessões e {} usuários revogados",
+                revokedSessions.size(), revokedSubjects.size());
+    }
+}
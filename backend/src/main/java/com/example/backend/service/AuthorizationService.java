@@ -1,31 +1,43 @@
 package com.example.backend.service;
 
-import com.example.backend.config.KeycloakProperties;
+import com.example.backend.activity.CustomerActivityBuffer;
+import com.example.backend.bulk.CustomerBulkService;
+import com.example.backend.idempotency.IdempotencyService;
 import com.example.backend.integration.KeycloakIntegration;
+import com.example.backend.jfr.StageEvents;
 import com.example.backend.model.Customer;
 import com.example.backend.model.LoginResponse;
 import com.example.backend.model.dto.CustomerDTO;
 import com.example.backend.model.dto.LoginRequestDTO;
 import com.example.backend.model.dto.RegisterRequestDTO;
+import com.example.backend.record.Cpf;
 import com.example.backend.record.UserIdentity;
+import com.example.backend.repository.CustomerReadRepository;
 import com.example.backend.repository.CustomerRepository;
+import com.example.backend.tenant.KeycloakTenant;
+import com.example.backend.tenant.TenantRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestTemplate;
 
-import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 @Slf4j
 public class AuthorizationService {
 
+    private static final ObjectMapper JWT_CLAIMS_MAPPER = new ObjectMapper();
+    private static final String PASSWORD_IDENTITY_PROVIDER = "keycloak";
+    private static final String IDENTITY_PROVIDER_CLAIM = "identity_provider";
+
     @Autowired
     private KeycloakIntegration keycloakIntegration;
     
@@ -35,14 +47,23 @@ public class AuthorizationService {
     @Autowired
     private CustomerRepository customerRepository;
     
+    @Autowired
+    private CustomerReadRepository customerReadRepository;
+    
     @Autowired
     private KeycloakAdminService keycloakAdminService;
     
     @Autowired
-    private KeycloakProperties keycloakProperties;
+    private TenantRegistry tenantRegistry;
     
     @Autowired
-    private RestTemplate restTemplate;
+    private IdempotencyService idempotencyService;
+    
+    @Autowired
+    private CustomerActivityBuffer customerActivityBuffer;
+    
+    @Autowired
+    private CustomerBulkService customerBulkService;
 
     public LoginResponse getUrl() {
         return LoginResponse.builder()
@@ -51,33 +72,70 @@ public class AuthorizationService {
     }
 
     public Map<String, Object> exchangeCodeForToken(String code) {
-        Map<String, Object> tokens = keycloakIntegration.exchangeCodeForToken(code);
-        Map<String, Object> userInfo = fetchUserInfo(tokens);
+        return StageEvents.flow("code-exchange", () -> exchangeCodeAndSyncCustomer(code));
+    }
+
+    private Map<String, Object> exchangeCodeAndSyncCustomer(String code) {
+        Map<String, Object> tokens = StageEvents.authStage("authorizationCodeGrant",
+                () -> keycloakIntegration.exchangeCodeForToken(code));
+        Map<String, Object> userInfo = StageEvents.authStage("fetchUserInfo", () -> fetchUserInfo(tokens));
         
         UserIdentity userIdentity = extractUserIdentity(userInfo);
-        boolean isFirstLogin = handleCustomerCreationOrLinking(userIdentity);
+        boolean isFirstLogin = StageEvents.authStage("handleCustomerCreationOrLinking",
+                () -> handleCustomerCreationOrLinking(userIdentity));
+        customerActivityBuffer.recordLogin(tenant(), userIdentity.keycloakUserId(), identityProvider(tokens, userInfo));
         
         return buildAuthResponse(tokens, userInfo, isFirstLogin);
     }
 
+    public Map<String, Object> refreshToken(String refreshToken, Boolean isFirstLogin) {
+        try {
+            String previousSubject = extractSubject(refreshToken);
+            Map<String, Object> tokenResponse = keycloakIntegration.refreshToken(refreshToken);
+            Map<String, Object> claims = decodeJwtClaims((String) tokenResponse.get("access_token"));
+
+            String keycloakUserId = (String) claims.get("sub");
+
+            Map<String, Object> result = new HashMap<>(tokenResponse);
+            result.put("user_info", buildUserInfoFromClaims(claims));
+
+            if (!keycloakUserId.equals(previousSubject)) {
+                result.put("is_first_login", shouldShowCompleteProfile(keycloakUserId, false));
+            } else if (isFirstLogin != null) {
+                result.put("is_first_login", isFirstLogin);
+            }
+
+            return result;
+        } catch (Exception e) {
+            log.error("Erro ao renovar token: {}", e.getMessage());
+            throw new RuntimeException("Refresh token inválido", e);
+        }
+    }
+
     public Map<String, Object> logout(String idToken) {
         return keycloakIntegration.logout(idToken);
     }
 
+    public void handleBackchannelLogout(String logoutToken) {
+        keycloakIntegration.handleBackchannelLogout(logoutToken);
+    }
+
     public Map<String, Object> login(LoginRequestDTO loginRequest) {
-        String username = getUsernameForLogin(loginRequest.getEmail());
-        String tokenUrl = keycloakProperties.getTokenEndpoint();
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-        MultiValueMap<String, String> body = buildLoginRequestBody(username, loginRequest.getPassword());
-        HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(body, headers);
+        return StageEvents.flow("login", () -> authenticate(loginRequest, false));
+    }
 
-        return decodeJwtOnLogin(tokenUrl, request, loginRequest);
+    public Map<String, Object> register(RegisterRequestDTO registerRequest, String idempotencyKey) {
+        return StageEvents.flow("register", () -> {
+            idempotencyService.execute("register", idempotencyKey, withoutPassword(registerRequest), String.class,
+                    () -> createAccount(registerRequest));
+
+            return logNewUserIn(registerRequest);
+        });
     }
 
-    public Map<String, Object> register(RegisterRequestDTO registerRequest) {
-        String cleanDocument = getCleanDocument(registerRequest);
-        validateDataToRegister(registerRequest, cleanDocument);
+    private String createAccount(RegisterRequestDTO registerRequest) {
+        Cpf cpf = StageEvents.authStage("validateDataToRegister", () -> validateDataToRegister(registerRequest));
+        String cleanDocument = cpf.toString();
 
         String[] nameParts = registerRequest.getName().split(" ", 2);
         String firstName = nameParts[0];
@@ -91,33 +149,61 @@ public class AuthorizationService {
         }
         
         try {
-            String keycloakUserId = createKeycloakUser(registerRequest, cleanDocument, firstName, lastName, attributes);
-            createCustomer(registerRequest, cleanDocument, keycloakUserId);
+            String keycloakUserId = StageEvents.authStage("createKeycloakUser",
+                    () -> createKeycloakUser(registerRequest, cleanDocument, firstName, lastName, attributes));
+            try {
+                StageEvents.authStep("createCustomer", () -> createCustomer(registerRequest, cleanDocument, keycloakUserId));
+            } catch (RuntimeException e) {
+                discardKeycloakUser(keycloakUserId);
+                throw e;
+            }
 
-            return logNewUserIn(registerRequest);
+            return keycloakUserId;
         } catch (Exception e) {
             log.error("Erro ao registrar usuário: {}", e.getMessage(), e);
             throw new RuntimeException("Falha ao criar usuário: " + e.getMessage(), e);
         }
     }
 
-    private void validateDataToRegister(RegisterRequestDTO registerRequest, String cleanDocument) {
-        if (customerRepository.existsByEmail(registerRequest.getEmail())) {
+    private void discardKeycloakUser(String keycloakUserId) {
+        if (customerRepository.existsByTenantAndKeycloakUserId(tenant(), keycloakUserId)) {
+            return;
+        }
+
+        try {
+            keycloakAdminService.deleteUser(keycloakUserId);
+            log.warn("Usuário {} removido do Keycloak após falha ao criar o customer", keycloakUserId);
+        } catch (Exception e) {
+            log.error("Erro ao remover usuário {} do Keycloak: {}", keycloakUserId, e.getMessage());
+            customerBulkService.scheduleKeycloakCleanup(keycloakUserId);
+        }
+    }
+
+    private static RegisterRequestDTO withoutPassword(RegisterRequestDTO registerRequest) {
+        return RegisterRequestDTO.builder()
+                .name(registerRequest.getName())
+                .email(registerRequest.getEmail())
+                .document(registerRequest.getDocument())
+                .birthDate(registerRequest.getBirthDate())
+                .build();
+    }
+
+    private Cpf validateDataToRegister(RegisterRequestDTO registerRequest) {
+        if (customerRepository.existsByEmail(tenant(), registerRequest.getEmail())) {
             throw new RuntimeException("Email já cadastrado");
         }
 
-        if (cleanDocument == null || cleanDocument.isEmpty()) {
+        if (registerRequest.getDocument() == null || registerRequest.getDocument().isBlank()) {
             throw new RuntimeException("CPF é obrigatório");
         }
 
-        if (customerRepository.existsByDocument(cleanDocument)) {
+        Cpf cpf = Cpf.of(registerRequest.getDocument());
+
+        if (customerRepository.existsByTenantAndDocument(tenant(), cpf)) {
             throw new RuntimeException("CPF já cadastrado");
         }
-    }
 
-    private static String getCleanDocument(RegisterRequestDTO registerRequest) {
-        return registerRequest.getDocument() != null ?
-                registerRequest.getDocument().replaceAll("[^0-9]", "") : "";
+        return cpf;
     }
 
     private String createKeycloakUser(
@@ -150,7 +236,7 @@ public class AuthorizationService {
 
     private Map<String, Object> logNewUserIn(RegisterRequestDTO registerRequest) {
         LoginRequestDTO loginRequest = getLoginRequest(registerRequest);
-        return login(loginRequest);
+        return authenticate(loginRequest, true);
     }
 
     private static LoginRequestDTO getLoginRequest(RegisterRequestDTO registerRequest) {
@@ -160,24 +246,44 @@ public class AuthorizationService {
                 .build();
     }
 
-    private String getUsernameForLogin(String email) {
+    private Map<String, Object> authenticate(LoginRequestDTO loginRequest, boolean afterWrite) {
+        String username = StageEvents.authStage("getUsernameForLogin",
+                () -> getUsernameForLogin(loginRequest.getEmail(), afterWrite));
+        KeycloakTenant tenant = tenantRegistry.current();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        MultiValueMap<String, String> body = buildLoginRequestBody(tenant, username, loginRequest.getPassword());
+        HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(body, headers);
+
+        return decodeJwtOnLogin(tenant, request, loginRequest, afterWrite);
+    }
+
+    private String getUsernameForLogin(String email, boolean afterWrite) {
+        long cpf = Cpf.normalize(email);
+        if (cpf != Cpf.INVALID) {
+            return new Cpf(cpf).toString();
+        }
+
         if (!email.matches("^\\d+$")) {
-            return customerRepository.findByEmail(email)
+            Optional<Customer> customer = afterWrite
+                    ? customerRepository.findByEmail(tenant(), email)
+                    : customerReadRepository.findByEmail(email);
+            return customer
                     .map(Customer::getDocument)
-                    .filter(doc -> doc != null && !doc.isBlank())
+                    .map(Cpf::toString)
                     .orElse(email);
         }
         return email;
     }
 
-    private MultiValueMap<String, String> buildLoginRequestBody(String username, String password) {
+    private MultiValueMap<String, String> buildLoginRequestBody(KeycloakTenant tenant, String username, String password) {
         MultiValueMap<String, String> body = new LinkedMultiValueMap<>();
         body.add("grant_type", "password");
-        body.add("client_id", keycloakProperties.getClientId());
+        body.add("client_id", tenant.getClientId());
         body.add("scope", "openid email profile");
 
-        if (keycloakProperties.hasClientSecret()) {
-            body.add("client_secret", keycloakProperties.getClientSecret());
+        if (tenant.hasClientSecret()) {
+            body.add("client_secret", tenant.getClientSecret());
         }
 
         body.add("username", username);
@@ -187,48 +293,64 @@ public class AuthorizationService {
     }
 
     private Map<String, Object> decodeJwtOnLogin(
-            String tokenUrl, HttpEntity<MultiValueMap<String, String>> request, LoginRequestDTO loginRequest
+            KeycloakTenant tenant,
+            HttpEntity<MultiValueMap<String, String>> request,
+            LoginRequestDTO loginRequest,
+            boolean afterWrite
     ) {
         try {
-            ResponseEntity<Map> response = restTemplate.postForEntity(tokenUrl, request, Map.class);
+            ResponseEntity<Map> response = StageEvents.authStage("passwordGrant",
+                    () -> tenant.getRestTemplate().postForEntity(tenant.getTokenEndpoint(), request, Map.class));
             Map<String, Object> tokenResponse = response.getBody();
 
             String accessToken = (String) tokenResponse.get("access_token");
+            Map<String, Object> claims = StageEvents.authStage("decodeJwt", () -> decodeJwtClaims(accessToken));
 
-            String[] jwtParts = accessToken.split("\\.");
-            if (jwtParts.length == 3) {
-                String payload = new String(java.util.Base64.getUrlDecoder().decode(jwtParts[1]));
-                Map<String, Object> claims = new com.fasterxml.jackson.databind.ObjectMapper().readValue(payload, Map.class);
+            String keycloakUserId = (String) claims.get("sub");
+            boolean isFirstLogin = StageEvents.authStage("shouldShowCompleteProfile",
+                    () -> shouldShowCompleteProfile(keycloakUserId, afterWrite));
+            customerActivityBuffer.recordLogin(tenant(), keycloakUserId, PASSWORD_IDENTITY_PROVIDER);
 
-                String keycloakUserId = (String) claims.get("sub");
-                String email = (String) claims.get("email");
-                String preferredUsername = (String) claims.get("preferred_username");
-                String name = (String) claims.get("name");
+            Map<String, Object> result = new HashMap<>(tokenResponse);
+            result.put("user_info", buildUserInfoFromClaims(claims));
+            result.put("is_first_login", isFirstLogin);
 
-                boolean isFirstLogin = shouldShowCompleteProfile(keycloakUserId);
+            log.info("📤 Chaves na resposta final: {}", result.keySet());
+            log.info("📤 id_token na resposta final? {}", result.containsKey("id_token"));
 
-                Map<String, Object> userInfo = new HashMap<>();
-                userInfo.put("sub", keycloakUserId);
-                userInfo.put("email", email);
-                userInfo.put("preferred_username", preferredUsername);
-                userInfo.put("name", name);
+            log.info("Login com senha realizado com sucesso para: {}", loginRequest.getEmail());
+            return result;
 
-                Map<String, Object> result = new HashMap<>(tokenResponse);
-                result.put("user_info", userInfo);
-                result.put("is_first_login", isFirstLogin);
+        } catch (Exception e) {
+            log.error("Erro ao fazer login com senha: {}", e.getMessage());
+            throw new RuntimeException("Credenciais inválidas", e);
+        }
+    }
 
-                log.info("📤 Chaves na resposta final: {}", result.keySet());
-                log.info("📤 id_token na resposta final? {}", result.containsKey("id_token"));
+    private Map<String, Object> decodeJwtClaims(String token) throws Exception {
+        String[] jwtParts = token.split("\\.");
+        if (jwtParts.length != 3) {
+            throw new RuntimeException("Token JWT inválido");
+        }
 
-                log.info("Login com senha realizado com sucesso para: {}", loginRequest.getEmail());
-                return result;
-            } else {
-                throw new RuntimeException("Token JWT inválido");
-            }
+        String payload = new String(Base64.getUrlDecoder().decode(jwtParts[1]));
+        return JWT_CLAIMS_MAPPER.readValue(payload, Map.class);
+    }
 
+    private Map<String, Object> buildUserInfoFromClaims(Map<String, Object> claims) {
+        Map<String, Object> userInfo = new HashMap<>();
+        userInfo.put("sub", claims.get("sub"));
+        userInfo.put("email", claims.get("email"));
+        userInfo.put("preferred_username", claims.get("preferred_username"));
+        userInfo.put("name", claims.get("name"));
+        return userInfo;
+    }
+
+    private String extractSubject(String token) {
+        try {
+            return (String) decodeJwtClaims(token).get("sub");
         } catch (Exception e) {
-            log.error("Erro ao fazer login com senha: {}", e.getMessage());
-            throw new RuntimeException("Credenciais inválidas", e);
+            return null;
         }
     }
 
@@ -237,6 +359,22 @@ public class AuthorizationService {
         return keycloakIntegration.getUserInfo("Bearer " + accessToken);
     }
 
+    /**
+     * O Keycloak só informa o provedor usado no login se o client tiver um mapper da nota de sessão
+     * {@code identity_provider}; sem ela o provedor fica desconhecido.
+     */
+    private String identityProvider(Map<String, Object> tokens, Map<String, Object> userInfo) {
+        Object provider = userInfo.get(IDENTITY_PROVIDER_CLAIM);
+        if (provider == null) {
+            try {
+                provider = decodeJwtClaims((String) tokens.get("access_token")).get(IDENTITY_PROVIDER_CLAIM);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+        return provider instanceof String name ? name : null;
+    }
+
     private UserIdentity extractUserIdentity(Map<String, Object> userInfo) {
         return new UserIdentity(
                 (String) userInfo.get("sub"),
@@ -246,8 +384,8 @@ public class AuthorizationService {
     }
 
     private boolean handleCustomerCreationOrLinking(UserIdentity userIdentity) {
-        boolean existsByKeycloakId = customerRepository.existsByKeycloakUserId(userIdentity.keycloakUserId());
-        boolean existsByEmail = customerRepository.existsByEmail(userIdentity.email());
+        boolean existsByKeycloakId = customerRepository.existsByTenantAndKeycloakUserId(tenant(), userIdentity.keycloakUserId());
+        boolean existsByEmail = customerRepository.existsByEmail(tenant(), userIdentity.email());
 
         if (shouldLinkExistingAccount(existsByKeycloakId, existsByEmail)) {
             return linkGoogleAccountToExistingCustomer(userIdentity);
@@ -273,12 +411,13 @@ public class AuthorizationService {
                 userIdentity.email());
 
         try {
-            customerRepository.findByEmail(userIdentity.email()).ifPresent(customer -> {
-                linkKeycloakIdToCustomer(customer, userIdentity.keycloakUserId());
-                log.info("Conta Google vinculada ao customer existente: {}", customer.getId());
-            });
-
-            return shouldShowCompleteProfile(userIdentity.email());
+            return customerRepository.findByEmail(tenant(), userIdentity.email())
+                    .map(customer -> {
+                        linkKeycloakIdToCustomer(customer, userIdentity.keycloakUserId());
+                        log.info("Conta Google vinculada ao customer existente: {}", customer.getId());
+                        return needsCompleteProfile(customer);
+                    })
+                    .orElse(false);
 
         } catch (Exception e) {
             log.error("Erro ao vincular conta Google ao customer existente: {}", e.getMessage());
@@ -287,9 +426,7 @@ public class AuthorizationService {
     }
 
     private void linkKeycloakIdToCustomer(Customer customer, String keycloakUserId) {
-        customer.setKeycloakUserId(keycloakUserId);
-        customer.setUpdatedAt(LocalDateTime.now());
-        customerRepository.save(customer);
+        customerService.linkKeycloakUserId(customer, keycloakUserId);
     }
 
     private boolean createNewCustomerForFirstLogin(UserIdentity userIdentity) {
@@ -304,11 +441,21 @@ public class AuthorizationService {
             return true;
 
         } catch (Exception e) {
+            if (createdConcurrently(userIdentity)) {
+                log.warn("Customer de {} criado por outra requisição; refazendo vínculo", userIdentity.email());
+                return handleCustomerCreationOrLinking(userIdentity);
+            }
+
             log.error("Erro ao criar customer no primeiro login: {}", e.getMessage());
             return false;
         }
     }
 
+    private boolean createdConcurrently(UserIdentity userIdentity) {
+        return customerRepository.existsByTenantAndKeycloakUserId(tenant(), userIdentity.keycloakUserId())
+                || customerRepository.existsByEmail(tenant(), userIdentity.email());
+    }
+
     private CustomerDTO buildNewCustomerDTO(UserIdentity userIdentity) {
         return CustomerDTO.builder()
                 .name(userIdentity.name())
@@ -319,7 +466,7 @@ public class AuthorizationService {
 
     private boolean handleExistingCustomerLogin(UserIdentity userIdentity) {
         log.info("Login de usuário existente: {} ({})", userIdentity.name(), userIdentity.email());
-        return shouldShowCompleteProfile(userIdentity.keycloakUserId());
+        return shouldShowCompleteProfile(userIdentity.keycloakUserId(), false);
     }
 
     private Map<String, Object> buildAuthResponse(
@@ -332,16 +479,24 @@ public class AuthorizationService {
         return response;
     }
 
-    private boolean shouldShowCompleteProfile(String identifier) {
+    private boolean shouldShowCompleteProfile(String keycloakUserId, boolean afterWrite) {
         try {
-            return customerRepository.findByKeycloakUserId(identifier)
-                    .or(() -> customerRepository.findByEmail(identifier))
-                    .map(customer -> customer.getDocument() == null || customer.getBirthDate() == null)
-                    .orElse(false);
+            Optional<Customer> customer = afterWrite
+                    ? customerRepository.findByTenantAndKeycloakUserId(tenant(), keycloakUserId)
+                    : customerReadRepository.findByKeycloakUserId(keycloakUserId);
+            return customer.map(this::needsCompleteProfile).orElse(false);
         } catch (Exception e) {
             log.error("Erro ao verificar necessidade de complete-profile: {}", e.getMessage());
             return false;
         }
     }
 
+    private String tenant() {
+        return tenantRegistry.current().getId();
+    }
+
+    private boolean needsCompleteProfile(Customer customer) {
+        return customer.getDocument() == null || customer.getBirthDate() == null;
+    }
+
 }
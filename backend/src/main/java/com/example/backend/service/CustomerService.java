@@ -1,16 +1,43 @@
 package com.example.backend.service;
 
+import com.example.backend.bulk.CustomerBulkService;
+import com.example.backend.cache.CustomerCache;
+import com.example.backend.cache.CustomerVersionCache;
+import com.example.backend.idempotency.IdempotencyService;
 import com.example.backend.model.Customer;
+import com.example.backend.model.CustomerSearchField;
+import com.example.backend.model.dto.BatchLookupRequestDTO;
+import com.example.backend.model.dto.BatchLookupResponseDTO;
 import com.example.backend.model.dto.CustomerDTO;
+import com.example.backend.model.dto.CustomerSearchPageDTO;
 import com.example.backend.model.dto.UpdateCustomerInfoDTO;
+import com.example.backend.record.Cpf;
+import com.example.backend.repository.CustomerReadRepository;
 import com.example.backend.repository.CustomerRepository;
+import com.example.backend.repository.CustomerSearchRepository;
+import com.example.backend.repository.CustomerWriteRepository;
+import com.example.backend.tenant.TenantRegistry;
+import com.example.backend.util.ETagUtils;
+import com.example.backend.util.KeysetCursor;
+import com.example.backend.util.SearchNormalizer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -18,50 +45,110 @@ import java.util.stream.Collectors;
 public class CustomerService {
     
     private final CustomerRepository customerRepository;
+    private final CustomerReadRepository customerReadRepository;
+    private final CustomerWriteRepository customerWriteRepository;
+    private final CustomerSearchRepository customerSearchRepository;
     private final KeycloakAdminService keycloakAdminService;
+    private final KeycloakAttributeSync keycloakAttributeSync;
+    private final CustomerVersionCache versionCache;
+    private final CustomerCache customerCache;
+    private final IdempotencyService idempotencyService;
+    private final CustomerBulkService customerBulkService;
+    private final TenantRegistry tenantRegistry;
+    
+    @Value("${customer.batch-lookup.max-keys:100}")
+    private int batchLookupMaxKeys;
+    
+    @Value("${customer.search.default-page-size:20}")
+    private int searchDefaultPageSize;
+    
+    @Value("${customer.search.max-page-size:100}")
+    private int searchMaxPageSize;
     
     public List<CustomerDTO> findAll() {
-        return customerRepository.findAll().stream()
+        return customerReadRepository.findAll().stream()
                 .map(this::toDTO)
                 .toList();
     }
     
     public CustomerDTO findById(String id) {
-        Customer customer = customerRepository.findById(id)
+        Customer customer = customerCache.getById(id)
+                .or(() -> customerReadRepository.findById(id).map(this::cacheCustomer))
                 .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
         return toDTO(customer);
     }
     
+    public Optional<String> findETagById(String id) {
+        Long version = customerCache.getById(id)
+                .map(Customer::getVersion)
+                .or(() -> versionCache.getById(tenant(), id).map(CustomerVersionCache.VersionStamp::version))
+                .orElseGet(() -> customerReadRepository.findVersionById(id)
+                        .map(this::cacheVersion)
+                        .orElse(null));
+        return Optional.ofNullable(ETagUtils.fromVersion(version));
+    }
+    
+    public Optional<String> findETagByKeycloakUserId(String keycloakUserId) {
+        Long version = customerCache.getByKeycloakUserId(keycloakUserId)
+                .map(Customer::getVersion)
+                .or(() -> versionCache.getByKeycloakUserId(tenant(), keycloakUserId).map(CustomerVersionCache.VersionStamp::version))
+                .orElseGet(() -> customerReadRepository.findVersionByKeycloakUserId(keycloakUserId)
+                        .map(this::cacheVersion)
+                        .orElse(null));
+        return Optional.ofNullable(ETagUtils.fromVersion(version));
+    }
+    
     public CustomerDTO findByEmail(String email) {
-        Customer customer = customerRepository.findByEmail(email)
+        Customer customer = customerCache.getByEmail(email)
+                .or(() -> customerReadRepository.findByEmail(email).map(this::cacheCustomer))
                 .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
         return toDTO(customer);
     }
     
     public CustomerDTO findByKeycloakUserId(String keycloakUserId) {
-        Customer customer = customerRepository.findByKeycloakUserId(keycloakUserId)
+        Customer customer = customerCache.getByKeycloakUserId(keycloakUserId)
+                .or(() -> customerReadRepository.findByKeycloakUserId(keycloakUserId).map(this::cacheCustomer))
                 .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
         return toDTO(customer);
     }
     
+    public BatchLookupResponseDTO batchLookup(BatchLookupRequestDTO request) {
+        List<String> ids = orEmpty(request.getIds());
+        List<String> emails = orEmpty(request.getEmails());
+        List<String> keycloakUserIds = orEmpty(request.getKeycloakUserIds());
+        validateBatchSize(ids.size() + emails.size() + keycloakUserIds.size());
+        
+        return BatchLookupResponseDTO.builder()
+                .ids(resolveBatch(ids, Function.identity(), customerCache::getById,
+                        customerReadRepository::findAllByIds, Customer::getId))
+                .emails(resolveBatch(emails, SearchNormalizer::normalizeEmail, customerCache::getByEmail,
+                        customerReadRepository::findAllByEmails,
+                        customer -> SearchNormalizer.normalizeEmail(customer.getEmail())))
+                .keycloakUserIds(resolveBatch(keycloakUserIds, Function.identity(), customerCache::getByKeycloakUserId,
+                        customerReadRepository::findAllByKeycloakUserIds, Customer::getKeycloakUserId))
+                .build();
+    }
+    
     public CustomerDTO create(CustomerDTO dto) {
         validateDataToCreation(dto);
         Customer customer = buildCustomer(dto);
         
-        return toDTO(customerRepository.save(customer));
+        return toDTO(saveAndCache(customer));
     }
 
-    public CustomerDTO update(String id, CustomerDTO dto) {
-        Customer customer = customerRepository.findById(id)
+    public CustomerDTO update(String id, CustomerDTO dto, String ifMatch) {
+        Customer customer = customerRepository.findByIdAndTenant(id, tenant())
                 .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
+        validatePrecondition(customer, ifMatch);
         validateDataToUpdate(dto, customer);
         customer.setUpdatedAt(LocalDateTime.now());
 
-        return toDTO(customerRepository.save(customer));
+        return toDTO(saveAndCache(customer));
     }
 
-    public CustomerDTO updateInfo(String keycloakUserId, UpdateCustomerInfoDTO dto) {
+    public CustomerDTO updateInfo(String keycloakUserId, UpdateCustomerInfoDTO dto, String ifMatch) {
         Customer customer = findCustomerByKeycloakUserId(keycloakUserId);
+        validatePrecondition(customer, ifMatch);
         
         String cleanDocument = updateCustomerBasicInfo(customer, dto, keycloakUserId);
         customer = saveCustomerToDatabase(customer);
@@ -71,8 +158,163 @@ public class CustomerService {
         return toDTO(customer);
     }
     
+    public CustomerDTO updateInfo(String keycloakUserId, UpdateCustomerInfoDTO dto, String ifMatch, String idempotencyKey) {
+        UpdateInfoResult result = idempotencyService.execute("update-info:" + keycloakUserId, idempotencyKey,
+                Arrays.asList(dto, ifMatch), UpdateInfoResult.class,
+                () -> UpdateInfoResult.of(updateInfo(keycloakUserId, dto, ifMatch)));
+        return result.toDTO();
+    }
+    
+    public void linkKeycloakUserId(Customer customer, String keycloakUserId) {
+        evictCaches(customer);
+        customer.setKeycloakUserId(keycloakUserId);
+        customer.setUpdatedAt(LocalDateTime.now());
+        saveAndCache(customer);
+    }
+    
+    public CustomerSearchPageDTO search(String name, String email, String document, String cursor, Integer size) {
+        CustomerSearchField field = resolveSearchField(name, email, document);
+        String term = normalizeSearchTerm(field, name, email, document);
+        int pageSize = resolvePageSize(size);
+        KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : null;
+        
+        List<Customer> found = customerSearchRepository.search(field, term, after, pageSize + 1);
+        List<Customer> page = found.size() > pageSize ? found.subList(0, pageSize) : found;
+        String nextCursor = found.size() > pageSize ? nextSearchCursor(field, page.get(pageSize - 1)) : null;
+        
+        return CustomerSearchPageDTO.builder()
+                .items(page.stream().map(this::toDTO).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+    
+    private CustomerSearchField resolveSearchField(String name, String email, String document) {
+        long criteria = Stream.of(name, email, document).filter(value -> value != null && !value.isBlank()).count();
+        
+        if (criteria != 1) {
+            throw new RuntimeException("Informe exatamente um critério de busca: name, email ou document");
+        }
+        
+        if (name != null && !name.isBlank()) {
+            return CustomerSearchField.NAME;
+        }
+        
+        return email != null && !email.isBlank() ? CustomerSearchField.EMAIL : CustomerSearchField.DOCUMENT;
+    }
+    
+    private String normalizeSearchTerm(CustomerSearchField field, String name, String email, String document) {
+        String term = switch (field) {
+            case NAME -> SearchNormalizer.normalizeName(name);
+            case EMAIL -> SearchNormalizer.normalizeEmail(email);
+            case DOCUMENT -> Cpf.parse(document).map(Cpf::toString).orElse("");
+        };
+        
+        if (term.isEmpty()) {
+            throw new RuntimeException("Critério de busca inválido");
+        }
+        
+        return term;
+    }
+    
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return searchDefaultPageSize;
+        }
+        
+        return Math.max(1, Math.min(size, searchMaxPageSize));
+    }
+    
+    private String nextSearchCursor(CustomerSearchField field, Customer last) {
+        String value = switch (field) {
+            case NAME -> last.getNameNormalized();
+            case EMAIL -> last.getEmailNormalized();
+            case DOCUMENT -> last.getDocument().toString();
+        };
+        return new KeysetCursor(value, last.getId()).encode();
+    }
+    
+    private static List<String> orEmpty(List<String> keys) {
+        return keys != null ? keys : List.of();
+    }
+    
+    private void validateBatchSize(int totalKeys) {
+        if (totalKeys > batchLookupMaxKeys) {
+            throw new RuntimeException("Máximo de " + batchLookupMaxKeys + " chaves por consulta");
+        }
+    }
+    
+    private List<BatchLookupResponseDTO.Result> resolveBatch(List<String> keys,
+                                                             Function<String, String> normalizer,
+                                                             Function<String, Optional<Customer>> cached,
+                                                             Function<Collection<String>, List<Customer>> loader,
+                                                             Function<Customer, String> keyOf) {
+        Map<String, Customer> resolved = new HashMap<>();
+        Set<String> misses = new LinkedHashSet<>();
+        
+        for (String key : keys) {
+            String normalized = key != null ? normalizer.apply(key) : null;
+            if (normalized != null && !resolved.containsKey(normalized)) {
+                cached.apply(normalized)
+                        .ifPresentOrElse(customer -> resolved.put(normalized, customer), () -> misses.add(normalized));
+            }
+        }
+        
+        for (Customer customer : loader.apply(misses)) {
+            resolved.put(keyOf.apply(customer), cacheCustomer(customer));
+        }
+        
+        return keys.stream()
+                .map(key -> toBatchResult(key, key != null ? resolved.get(normalizer.apply(key)) : null))
+                .toList();
+    }
+    
+    private BatchLookupResponseDTO.Result toBatchResult(String key, Customer customer) {
+        return BatchLookupResponseDTO.Result.builder()
+                .key(key)
+                .found(customer != null)
+                .customer(customer != null ? toDTO(customer) : null)
+                .build();
+    }
+    
+    private void validatePrecondition(Customer customer, String ifMatch) {
+        if (ifMatch == null) {
+            return;
+        }
+        
+        if (!ETagUtils.matchesIfMatch(ifMatch, ETagUtils.fromVersion(customer.getVersion()))) {
+            throw new OptimisticLockingFailureException("Cliente foi alterado por outra requisição");
+        }
+    }
+    
+    private Customer saveAndCache(Customer customer) {
+        Customer saved = customer.getVersion() == null
+                ? customerRepository.save(customer)
+                : customerWriteRepository.updateProfile(customer);
+        versionCache.recordWrite(saved.getId(), saved.getVersion());
+        return cacheCustomer(saved);
+    }
+    
+    private Customer cacheCustomer(Customer customer) {
+        Customer current = versionCache.isOlderThanWritten(customer)
+                ? customerRepository.findByIdAndTenant(customer.getId(), tenant()).orElse(customer)
+                : customer;
+        customerCache.put(current);
+        versionCache.put(current);
+        return current;
+    }
+    
+    private void evictCaches(Customer customer) {
+        customerCache.evict(customer);
+        versionCache.evict(customer);
+    }
+    
+    private Long cacheVersion(Customer versionProjection) {
+        versionCache.put(versionProjection);
+        return versionProjection.getVersion();
+    }
+    
     private Customer findCustomerByKeycloakUserId(String keycloakUserId) {
-        return customerRepository.findByKeycloakUserId(keycloakUserId)
+        return customerRepository.findByTenantAndKeycloakUserId(tenant(), keycloakUserId)
                 .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
     }
     
@@ -87,23 +329,19 @@ public class CustomerService {
             return null;
         }
         
-        String cleanDocument = cleanDocumentNumber(dto.getDocument());
-        validateDocumentNotInUse(cleanDocument, customer, keycloakUserId);
-        customer.setDocument(cleanDocument);
+        Cpf cpf = Cpf.of(dto.getDocument());
+        validateDocumentNotInUse(cpf, customer, keycloakUserId);
+        customer.setDocument(cpf);
         
-        return cleanDocument;
+        return cpf.toString();
     }
     
-    private String cleanDocumentNumber(String document) {
-        return document.replaceAll("[^0-9]", "");
-    }
-    
-    private void validateDocumentNotInUse(String cleanDocument, Customer customer, String keycloakUserId) {
-        if (cleanDocument.equals(customer.getDocument())) {
+    private void validateDocumentNotInUse(Cpf cpf, Customer customer, String keycloakUserId) {
+        if (cpf.equals(customer.getDocument())) {
             return;
         }
         
-        customerRepository.findByDocument(cleanDocument).ifPresent(existing -> {
+        customerRepository.findByTenantAndDocument(tenant(), cpf).ifPresent(existing -> {
             if (!existing.getKeycloakUserId().equals(keycloakUserId)) {
                 throw new RuntimeException("CPF já cadastrado para outro usuário");
             }
@@ -118,7 +356,7 @@ public class CustomerService {
     
     private Customer saveCustomerToDatabase(Customer customer) {
         customer.setUpdatedAt(LocalDateTime.now());
-        return customerRepository.save(customer);
+        return saveAndCache(customer);
     }
     
     private void syncWithKeycloak(String keycloakUserId, String cleanDocument, 
@@ -128,8 +366,11 @@ public class CustomerService {
         }
         
         try {
-            updateKeycloakCustomAttributes(keycloakUserId, cleanDocument, dto);
-            updateKeycloakUsernameIfNeeded(keycloakUserId, cleanDocument, customer);
+            keycloakAdminService.withUserLookupMemo(() -> {
+                updateKeycloakCustomAttributes(keycloakUserId, cleanDocument, dto);
+                updateKeycloakUsernameIfNeeded(keycloakUserId, cleanDocument, customer);
+                return null;
+            });
         } catch (Exception e) {
             log.error("Erro ao sincronizar com Keycloak: {}", e.getMessage());
         }
@@ -138,7 +379,29 @@ public class CustomerService {
     private void updateKeycloakCustomAttributes(String keycloakUserId, String cleanDocument, 
                                                 UpdateCustomerInfoDTO dto) {
         java.util.Map<String, java.util.List<String>> attributes = buildKeycloakAttributes(cleanDocument, dto);
-        keycloakAdminService.updateCustomAttributes(keycloakUserId, attributes);
+        try {
+            keycloakAttributeSync.sync(keycloakUserId, attributes);
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Conflito ao sincronizar atributos do usuário {}; reenviando o estado atual do cliente: {}",
+                    keycloakUserId, e.getMessage());
+            keycloakAttributeSync.sync(keycloakUserId, storedKeycloakAttributes(keycloakUserId, attributes.keySet()));
+        }
+    }
+
+    private java.util.Map<String, java.util.List<String>> storedKeycloakAttributes(String keycloakUserId,
+                                                                                  Set<String> keys) {
+        Customer current = findCustomerByKeycloakUserId(keycloakUserId);
+        java.util.Map<String, java.util.List<String>> attributes = new java.util.HashMap<>();
+
+        if (keys.contains("document") && current.getDocument() != null) {
+            attributes.put("document", java.util.List.of(current.getDocument().toString()));
+        }
+
+        if (keys.contains("birthDate") && current.getBirthDate() != null) {
+            attributes.put("birthDate", java.util.List.of(current.getBirthDate().toString()));
+        }
+
+        return attributes;
     }
     
     private java.util.Map<String, java.util.List<String>> buildKeycloakAttributes(
@@ -194,33 +457,41 @@ public class CustomerService {
             return;
         }
         
+        evictCaches(customer);
+        keycloakAttributeSync.forget(oldKeycloakUserId);
         customer.setKeycloakUserId(newKeycloakUserId);
-        customerRepository.save(customer);
+        saveAndCache(customer);
     }
     
     public void delete(String id) {
-        Customer customer = customerRepository.findById(id)
+        Customer customer = customerRepository.findByIdAndTenant(id, tenant())
                 .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
         
         String keycloakUserId = customer.getKeycloakUserId();
         
         customerRepository.deleteById(id);
+        evictCaches(customer);
+        if (keycloakUserId != null) {
+            keycloakAttributeSync.forget(keycloakUserId);
+        }
         
         if (keycloakUserId != null) {
             try {
                 keycloakAdminService.deleteUser(keycloakUserId);
             } catch (Exception e) {
-                log.error("Erro ao deletar usuário do Keycloak: {}", e.getMessage());
+                log.error("Erro ao deletar usuário do Keycloak, agendando nova tentativa: {}", e.getMessage());
+                customerBulkService.scheduleKeycloakCleanup(keycloakUserId);
             }
         }
     }
 
-    private static Customer buildCustomer(CustomerDTO dto) {
+    private Customer buildCustomer(CustomerDTO dto) {
         return Customer.builder()
+                .tenant(tenant())
                 .name(dto.getName())
                 .email(dto.getEmail())
                 .birthDate(dto.getBirthDate())
-                .document(dto.getDocument())
+                .document(dto.getDocument() != null ? Cpf.of(dto.getDocument()) : null)
                 .keycloakUserId(dto.getKeycloakUserId())
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
@@ -228,32 +499,35 @@ public class CustomerService {
     }
 
     private void validateDataToCreation(CustomerDTO dto) {
-        if (customerRepository.existsByEmail(dto.getEmail())) {
+        if (customerRepository.existsByEmail(tenant(), dto.getEmail())) {
             throw new RuntimeException("Email já cadastrado");
         }
 
-        if (dto.getDocument() != null && customerRepository.existsByDocument(dto.getDocument())) {
+        if (dto.getDocument() != null && customerRepository.existsByTenantAndDocument(tenant(), Cpf.of(dto.getDocument()))) {
             throw new RuntimeException("Documento já cadastrado");
         }
 
-        if (dto.getKeycloakUserId() != null && customerRepository.existsByKeycloakUserId(dto.getKeycloakUserId())) {
+        if (dto.getKeycloakUserId() != null && customerRepository.existsByTenantAndKeycloakUserId(tenant(), dto.getKeycloakUserId())) {
             throw new RuntimeException("Usuário Keycloak já possui cadastro");
         }
     }
 
     private void validateDataToUpdate(CustomerDTO dto, Customer customer) {
         if (dto.getEmail() != null && !dto.getEmail().equals(customer.getEmail())) {
-            if (customerRepository.existsByEmail(dto.getEmail())) {
+            boolean sameIdentity = SearchNormalizer.normalizeEmail(dto.getEmail())
+                    .equals(SearchNormalizer.normalizeEmail(customer.getEmail()));
+            if (!sameIdentity && customerRepository.existsByEmail(tenant(), dto.getEmail())) {
                 throw new RuntimeException("Email já cadastrado");
             }
             customer.setEmail(dto.getEmail());
         }
 
-        if (dto.getDocument() != null && !dto.getDocument().equals(customer.getDocument())) {
-            if (customerRepository.existsByDocument(dto.getDocument())) {
+        Cpf cpf = dto.getDocument() != null ? Cpf.of(dto.getDocument()) : null;
+        if (cpf != null && !cpf.equals(customer.getDocument())) {
+            if (customerRepository.existsByTenantAndDocument(tenant(), cpf)) {
                 throw new RuntimeException("Documento já cadastrado");
             }
-            customer.setDocument(dto.getDocument());
+            customer.setDocument(cpf);
         }
 
         if (dto.getName() != null) {
@@ -265,14 +539,34 @@ public class CustomerService {
         }
     }
 
+    private String tenant() {
+        return tenantRegistry.current().getId();
+    }
+
     private CustomerDTO toDTO(Customer customer) {
         return CustomerDTO.builder()
                 .id(customer.getId())
                 .name(customer.getName())
                 .email(customer.getEmail())
                 .birthDate(customer.getBirthDate())
-                .document(customer.getDocument())
+                .document(customer.getDocument() != null ? customer.getDocument().toString() : null)
                 .keycloakUserId(customer.getKeycloakUserId())
+                .lastLoginAt(customer.getLastLoginAt())
+                .loginCount(customer.getLoginCount())
+                .lastIdentityProvider(customer.getLastIdentityProvider())
+                .version(customer.getVersion())
                 .build();
     }
+    
+    private record UpdateInfoResult(CustomerDTO customer, Long version) {
+        
+        static UpdateInfoResult of(CustomerDTO customer) {
+            return new UpdateInfoResult(customer, customer.getVersion());
+        }
+        
+        CustomerDTO toDTO() {
+            customer.setVersion(version);
+            return customer;
+        }
+    }
 }
@@ -1,91 +1,145 @@
 package com.example.backend.service;
 
-import com.example.backend.config.KeycloakProperties;
+import com.example.backend.mirror.KeycloakUserMirror;
+import com.example.backend.resilience.HedgedRequests;
+import com.example.backend.tenant.KeycloakTenant;
+import com.example.backend.tenant.TenantRegistry;
+import com.example.backend.util.SingleFlight;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.net.URI;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
 public class KeycloakAdminService {
 
     @Autowired
-    private KeycloakProperties keycloakProperties;
+    private TenantRegistry tenantRegistry;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private KeycloakUserMirror userMirror;
 
-    private String adminAccessToken;
-    private LocalDateTime tokenExpiration;
+    @Autowired
+    private HedgedRequests hedgedRequests;
+
+    private final Map<String, AdminToken> adminTokens = new ConcurrentHashMap<>();
+    private final Map<String, UserEndpoints> userEndpoints = new HashMap<>();
+
+    private final SingleFlight<String, Map<String, Object>> userLookups = new SingleFlight<>();
+    private final ThreadLocal<Map<String, Map<String, Object>>> userLookupMemo = new ThreadLocal<>();
+
+    @PostConstruct
+    void initUriTemplates() {
+        tenantRegistry.all().forEach(tenant -> userEndpoints.put(tenant.getId(), UserEndpoints.of(tenant)));
+    }
 
     public String getAdminAccessToken() {
-        if (isTokenValid()) {
-            return adminAccessToken;
+        KeycloakTenant tenant = tenantRegistry.current();
+        AdminToken token = adminTokens.get(tenant.getId());
+        if (token != null && token.isValid()) {
+            return token.value();
         }
-        return refreshAdminToken();
+        return refreshAdminToken(tenant);
     }
 
-    public Map<String, Object> getUserById(String keycloakUserId) {
-        String url = buildUserByIdUrl(keycloakUserId);
-        HttpEntity<Void> request = buildAuthenticatedGetRequest();
+    public <T> T withUserLookupMemo(Supplier<T> action) {
+        if (userLookupMemo.get() != null) {
+            return action.get();
+        }
 
+        userLookupMemo.set(new HashMap<>());
         try {
-            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, request, Map.class);
-            return response.getBody();
-        } catch (Exception e) {
-            log.error("Erro ao buscar usuário por ID: {}", e.getMessage());
-            throw new RuntimeException("Falha ao buscar usuário no Keycloak", e);
+            return action.get();
+        } finally {
+            userLookupMemo.remove();
         }
     }
 
-    public Map<String, Object> getUserByEmail(String email) {
-        String url = buildUserByEmailUrl(email);
-        HttpEntity<Void> request = buildAuthenticatedGetRequest();
+    public Map<String, Object> getUserById(String keycloakUserId) {
+        return lookupUser("id:" + keycloakUserId,
+                () -> mirroredOrLive(userMirror.findById(keycloakUserId), () -> fetchAndMirrorUserById(keycloakUserId)));
+    }
 
-        try {
-            ResponseEntity<List> response = restTemplate.exchange(url, HttpMethod.GET, request, List.class);
-            return extractFirstUser(response.getBody());
-        } catch (Exception e) {
-            log.error("Erro ao buscar usuário por email: {}", e.getMessage());
-            throw new RuntimeException("Falha ao buscar usuário", e);
-        }
+    public Map<String, Object> getUserByEmail(String email) {
+        return lookupUser("email:" + email,
+                () -> mirroredOrLive(userMirror.findByEmail(email), () -> fetchUserByEmail(email)));
     }
 
     public Map<String, Object> getUserByUsername(String username) {
-        String url = buildUserByUsernameUrl(username);
-        HttpEntity<Void> request = buildAuthenticatedGetRequest();
+        return lookupUser("username:" + username,
+                () -> mirroredOrLive(userMirror.findByUsername(username), () -> fetchUserByUsername(username)));
+    }
 
+    public Map<String, Object> findUserInKeycloak(String keycloakUserId) {
         try {
-            ResponseEntity<List> response = restTemplate.exchange(url, HttpMethod.GET, request, List.class);
-            return extractFirstUser(response.getBody());
-        } catch (Exception e) {
-            log.error("Erro ao buscar usuário por username: {}", e.getMessage());
-            return null;
+            return fetchUserById(keycloakUserId);
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof HttpClientErrorException.NotFound) {
+                return null;
+            }
+            throw e;
         }
     }
 
+    public List<Map<String, Object>> listUsers(int first, int max) {
+        URI url = expand(endpoints().usersPage(), first, max);
+        return fetchList(url, "Falha ao listar usuários do Keycloak");
+    }
+
+    public List<Map<String, Object>> getAdminEvents(long sinceMillis, int first, int max) {
+        URI url = expand(endpoints().adminEvents(), eventsDateFrom(sinceMillis), first, max);
+        return fetchList(url, "Falha ao buscar eventos administrativos do Keycloak");
+    }
+
+    public List<Map<String, Object>> getUserEvents(long sinceMillis, int first, int max) {
+        URI url = expand(endpoints().userEvents(), eventsDateFrom(sinceMillis), first, max);
+        return fetchList(url, "Falha ao buscar eventos de usuário do Keycloak");
+    }
+
+    public String getUserIdByEmail(String email) {
+        return extractId(getUserByEmail(email));
+    }
+
+    public String getUserIdByUsername(String username) {
+        return extractId(getUserByUsername(username));
+    }
+
     public String createUser(String username, String email, String firstName, String lastName,
                             Map<String, List<String>> attributes, String password) {
         Map<String, Object> body = buildCreateUserBody(username, email, firstName, lastName, attributes, password);
         HttpEntity<Map<String, Object>> request = buildAuthenticatedPostRequest(body);
 
         try {
-            ResponseEntity<Void> response = restTemplate.exchange(
-                keycloakProperties.getAdminUsersEndpoint(), 
+            ResponseEntity<Void> response = restTemplate().exchange(
+                endpoints().users(), 
                 HttpMethod.POST, 
                 request, 
                 Void.class
             );
+            forgetMemoizedUsers();
             return extractUserIdFromResponse(response, email);
         } catch (Exception e) {
             log.error("Erro ao criar usuário: {}", e.getMessage());
@@ -93,15 +147,34 @@ public class KeycloakAdminService {
         }
     }
 
-    public void updateCustomAttributes(String keycloakUserId, Map<String, List<String>> attributes) {
-        Map<String, Object> currentUser = getUserById(keycloakUserId);
-        Map<String, Object> updatedUser = buildUserWithUpdatedAttributes(currentUser, attributes);
-        
-        String url = buildUserByIdUrl(keycloakUserId);
+    public Map<String, List<String>> updateCustomAttributes(String keycloakUserId,
+                                                           Map<String, List<String>> changes,
+                                                           Map<String, List<String>> lastSynced) {
+        Map<String, Object> currentUser = getLiveUserById(keycloakUserId);
+        validateUserExists(currentUser, keycloakUserId);
+        Map<String, List<String>> remoteAttributes = extractAttributes(currentUser);
+        detectConcurrentModification(keycloakUserId, changes, remoteAttributes, lastSynced);
+
+        Map<String, List<String>> effectiveChanges = new HashMap<>();
+        changes.forEach((key, value) -> {
+            if (!Objects.equals(remoteAttributes.get(key), value)) {
+                effectiveChanges.put(key, value);
+            }
+        });
+
+        if (effectiveChanges.isEmpty()) {
+            return remoteAttributes;
+        }
+
+        Map<String, Object> updatedUser = buildUserWithUpdatedAttributes(currentUser, effectiveChanges);
+        URI url = buildUserByIdUrl(keycloakUserId);
         HttpEntity<Map<String, Object>> request = buildAuthenticatedPutRequest(updatedUser);
 
         try {
-            restTemplate.exchange(url, HttpMethod.PUT, request, String.class);
+            restTemplate().exchange(url, HttpMethod.PUT, request, String.class);
+            rememberUpdatedUser(keycloakUserId, updatedUser);
+            userMirror.store(updatedUser, false);
+            return extractAttributes(updatedUser);
         } catch (HttpStatusCodeException e) {
             log.error("Erro ao atualizar atributos: status={}, body={}", e.getStatusCode(), e.getResponseBodyAsString());
             throw new RuntimeException("Falha ao atualizar atributos: " + e.getResponseBodyAsString(), e);
@@ -112,7 +185,7 @@ public class KeycloakAdminService {
     }
 
     public String updateUsername(String oldKeycloakUserId, String newUsername) {
-        Map<String, Object> currentUser = getUserById(oldKeycloakUserId);
+        Map<String, Object> currentUser = getLiveUserById(oldKeycloakUserId);
         validateUserExists(currentUser, oldKeycloakUserId);
 
         String currentUsername = (String) currentUser.get("username");
@@ -123,31 +196,55 @@ public class KeycloakAdminService {
 
         validateUsernameAvailable(newUsername, oldKeycloakUserId);
         
-        List<Map<String, Object>> federatedIdentities = getFederatedIdentities(oldKeycloakUserId);
+        List<Map<String, Object>> federatedIdentities = fetchFederatedIdentities(oldKeycloakUserId);
         
         return recreateUserWithNewUsername(oldKeycloakUserId, newUsername, currentUser, federatedIdentities);
     }
 
     public void deleteUser(String keycloakUserId) {
-        String url = buildUserByIdUrl(keycloakUserId);
+        URI url = buildUserByIdUrl(keycloakUserId);
         HttpEntity<Void> request = buildAuthenticatedDeleteRequest();
 
         try {
-            restTemplate.exchange(url, HttpMethod.DELETE, request, Void.class);
+            restTemplate().exchange(url, HttpMethod.DELETE, request, Void.class);
+            forgetMemoizedUsers();
+            userMirror.evict(keycloakUserId);
         } catch (Exception e) {
             log.error("Erro ao deletar usuário: {}", e.getMessage());
             throw new RuntimeException("Falha ao deletar usuário do Keycloak", e);
         }
     }
 
+    public boolean disableUser(String keycloakUserId) {
+        Map<String, Object> currentUser = findUserInKeycloak(keycloakUserId);
+        if (currentUser == null) {
+            return false;
+        }
+
+        Map<String, Object> disabledUser = buildUserWithUpdatedAttributes(currentUser, Map.of());
+        disabledUser.put("enabled", false);
+        HttpEntity<Map<String, Object>> request = buildAuthenticatedPutRequest(disabledUser);
+
+        try {
+            restTemplate().exchange(buildUserByIdUrl(keycloakUserId), HttpMethod.PUT, request, String.class);
+            forgetMemoizedUsers();
+            userMirror.store(disabledUser, false);
+            return true;
+        } catch (Exception e) {
+            log.error("Erro ao desativar usuário: {}", e.getMessage());
+            throw new RuntimeException("Falha ao desativar usuário no Keycloak", e);
+        }
+    }
+
     public void linkIdentityProvider(String keycloakUserId, String identityProvider,
                                      String federatedUserId, String federatedUsername) {
-        String url = buildIdentityProviderUrl(keycloakUserId, identityProvider);
+        URI url = buildIdentityProviderUrl(keycloakUserId, identityProvider);
         Map<String, Object> body = buildLinkIdentityBody(identityProvider, federatedUserId, federatedUsername);
         HttpEntity<Map<String, Object>> request = buildAuthenticatedPostRequest(body);
 
         try {
-            restTemplate.exchange(url, HttpMethod.POST, request, Void.class);
+            restTemplate().exchange(url, HttpMethod.POST, request, Void.class);
+            userMirror.resetFederatedIdentities(keycloakUserId);
         } catch (Exception e) {
             log.error("Erro ao vincular Identity Provider: {}", e.getMessage());
             throw new RuntimeException("Falha ao vincular Identity Provider", e);
@@ -155,11 +252,12 @@ public class KeycloakAdminService {
     }
 
     public void unlinkIdentityProvider(String keycloakUserId, String identityProvider) {
-        String url = buildIdentityProviderUrl(keycloakUserId, identityProvider);
+        URI url = buildIdentityProviderUrl(keycloakUserId, identityProvider);
         HttpEntity<Void> request = buildAuthenticatedDeleteRequest();
 
         try {
-            restTemplate.exchange(url, HttpMethod.DELETE, request, Void.class);
+            restTemplate().exchange(url, HttpMethod.DELETE, request, Void.class);
+            userMirror.resetFederatedIdentities(keycloakUserId);
         } catch (Exception e) {
             log.error("Erro ao desvincular Identity Provider: {}", e.getMessage());
             throw new RuntimeException("Falha ao desvincular Identity Provider", e);
@@ -167,11 +265,25 @@ public class KeycloakAdminService {
     }
 
     public List<Map<String, Object>> getFederatedIdentities(String keycloakUserId) {
-        String url = keycloakProperties.getAdminUsersEndpoint() + "/" + keycloakUserId + "/federated-identity";
+        Optional<List<Map<String, Object>>> mirrored = userMirror.findFederatedIdentities(keycloakUserId);
+        if (mirrored.isPresent() && mirrored.get() != null) {
+            return mirrored.get();
+        }
+
+        List<Map<String, Object>> federatedIdentities = fetchFederatedIdentities(keycloakUserId);
+        if (federatedIdentities != null) {
+            userMirror.storeFederatedIdentities(keycloakUserId, federatedIdentities);
+        }
+        return federatedIdentities;
+    }
+
+    private List<Map<String, Object>> fetchFederatedIdentities(String keycloakUserId) {
+        URI url = expand(endpoints().federatedIdentities(), keycloakUserId);
         HttpEntity<Void> request = buildAuthenticatedGetRequest();
 
         try {
-            ResponseEntity<List> response = restTemplate.exchange(url, HttpMethod.GET, request, List.class);
+            ResponseEntity<List> response = hedgedRequests.call("admin.federated-identities",
+                    () -> restTemplate().exchange(url, HttpMethod.GET, request, List.class));
             return response.getBody();
         } catch (Exception e) {
             log.error("Erro ao buscar federated identities: {}", e.getMessage());
@@ -179,42 +291,156 @@ public class KeycloakAdminService {
         }
     }
 
-    private boolean isTokenValid() {
-        return adminAccessToken != null && 
-               tokenExpiration != null && 
-               LocalDateTime.now().isBefore(tokenExpiration);
+    private Map<String, Object> getLiveUserById(String keycloakUserId) {
+        return lookupUser("live:id:" + keycloakUserId, () -> fetchAndMirrorUserById(keycloakUserId));
+    }
+
+    private Map<String, Object> mirroredOrLive(Optional<Map<String, Object>> mirrored,
+                                               Supplier<Map<String, Object>> live) {
+        return mirrored.orElseGet(live);
+    }
+
+    private Map<String, Object> fetchAndMirrorUserById(String keycloakUserId) {
+        Map<String, Object> user = fetchUserById(keycloakUserId);
+        if (user != null) {
+            userMirror.store(user, false);
+        }
+        return user;
+    }
+
+    private List<Map<String, Object>> fetchList(URI url, String failureMessage) {
+        HttpEntity<Void> request = buildAuthenticatedGetRequest();
+
+        try {
+            ResponseEntity<List> response = restTemplate().exchange(url, HttpMethod.GET, request, List.class);
+            return response.getBody() != null ? response.getBody() : List.of();
+        } catch (Exception e) {
+            log.error("{}: {}", failureMessage, e.getMessage());
+            throw new RuntimeException(failureMessage, e);
+        }
+    }
+
+    private String eventsDateFrom(long sinceMillis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(sinceMillis), ZoneOffset.UTC).minusDays(1).toString();
+    }
+
+    private Map<String, Object> fetchUserById(String keycloakUserId) {
+        URI url = buildUserByIdUrl(keycloakUserId);
+        HttpEntity<Void> request = buildAuthenticatedGetRequest();
+
+        try {
+            ResponseEntity<Map> response = hedgedRequests.call("admin.user-by-id",
+                    () -> restTemplate().exchange(url, HttpMethod.GET, request, Map.class));
+            return response.getBody();
+        } catch (Exception e) {
+            log.error("Erro ao buscar usuário por ID: {}", e.getMessage());
+            throw new RuntimeException("Falha ao buscar usuário no Keycloak", e);
+        }
+    }
+
+    private Map<String, Object> fetchUserByEmail(String email) {
+        URI url = expand(endpoints().byEmail(), email);
+        HttpEntity<Void> request = buildAuthenticatedGetRequest();
+
+        try {
+            ResponseEntity<List> response = hedgedRequests.call("admin.user-by-email",
+                    () -> restTemplate().exchange(url, HttpMethod.GET, request, List.class));
+            return extractFirstUser(response.getBody());
+        } catch (Exception e) {
+            log.error("Erro ao buscar usuário por email: {}", e.getMessage());
+            throw new RuntimeException("Falha ao buscar usuário", e);
+        }
     }
 
-    private String refreshAdminToken() {
-        MultiValueMap<String, String> body = buildAdminTokenRequestBody();
+    private Map<String, Object> fetchUserByUsername(String username) {
+        URI url = expand(endpoints().byUsername(), username);
+        HttpEntity<Void> request = buildAuthenticatedGetRequest();
+
+        try {
+            ResponseEntity<List> response = hedgedRequests.call("admin.user-by-username",
+                    () -> restTemplate().exchange(url, HttpMethod.GET, request, List.class));
+            return extractFirstUser(response.getBody());
+        } catch (Exception e) {
+            log.error("Erro ao buscar usuário por username: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private Map<String, Object> lookupUser(String lookup, Supplier<Map<String, Object>> loader) {
+        String key = scopedKey(lookup);
+        Map<String, Map<String, Object>> memo = userLookupMemo.get();
+        if (memo != null && memo.containsKey(key)) {
+            return memo.get(key);
+        }
+
+        Map<String, Object> user = userLookups.execute(key, loader);
+        if (memo != null) {
+            memo.put(key, user);
+        }
+        return user;
+    }
+
+    private void rememberUpdatedUser(String keycloakUserId, Map<String, Object> updatedUser) {
+        Map<String, Map<String, Object>> memo = userLookupMemo.get();
+        if (memo != null) {
+            memo.clear();
+            memo.put(scopedKey("id:" + keycloakUserId), updatedUser);
+        }
+    }
+
+    private void forgetMemoizedUsers() {
+        Map<String, Map<String, Object>> memo = userLookupMemo.get();
+        if (memo != null) {
+            memo.clear();
+        }
+    }
+
+    private String scopedKey(String lookup) {
+        return tenantRegistry.current().getId() + ":" + lookup;
+    }
+
+    private RestTemplate restTemplate() {
+        return tenantRegistry.current().getRestTemplate();
+    }
+
+    private UserEndpoints endpoints() {
+        return userEndpoints.get(tenantRegistry.current().getId());
+    }
+
+    private static URI expand(UriComponents template, Object... values) {
+        return template.expand(values).toUri();
+    }
+
+    private String refreshAdminToken(KeycloakTenant tenant) {
+        MultiValueMap<String, String> body = buildAdminTokenRequestBody(tenant);
         HttpEntity<MultiValueMap<String, String>> request = buildFormRequest(body);
 
         try {
-            ResponseEntity<Map> response = restTemplate.postForEntity(
-                keycloakProperties.getAdminTokenEndpoint(), 
+            ResponseEntity<Map> response = tenant.getRestTemplate().postForEntity(
+                tenant.getAdminTokenEndpoint(), 
                 request, 
                 Map.class
             );
-            return extractAndCacheToken(response.getBody());
+            return extractAndCacheToken(tenant, response.getBody());
         } catch (Exception e) {
             log.error("Erro ao obter token de admin: {}", e.getMessage());
             throw new RuntimeException("Falha ao autenticar como admin no Keycloak", e);
         }
     }
 
-    private String extractAndCacheToken(Map<String, Object> responseBody) {
-        adminAccessToken = (String) responseBody.get("access_token");
+    private String extractAndCacheToken(KeycloakTenant tenant, Map<String, Object> responseBody) {
+        String accessToken = (String) responseBody.get("access_token");
         Integer expiresIn = (Integer) responseBody.get("expires_in");
-        tokenExpiration = LocalDateTime.now().plusSeconds(expiresIn - 30);
-        return adminAccessToken;
+        adminTokens.put(tenant.getId(), new AdminToken(accessToken, LocalDateTime.now().plusSeconds(expiresIn - 30)));
+        return accessToken;
     }
 
-    private MultiValueMap<String, String> buildAdminTokenRequestBody() {
+    private MultiValueMap<String, String> buildAdminTokenRequestBody(KeycloakTenant tenant) {
         MultiValueMap<String, String> body = new LinkedMultiValueMap<>();
         body.add("grant_type", "password");
         body.add("client_id", "admin-cli");
-        body.add("username", keycloakProperties.getAdminUsername());
-        body.add("password", keycloakProperties.getAdminPassword());
+        body.add("username", tenant.getAdminUsername());
+        body.add("password", tenant.getAdminPassword());
         return body;
     }
 
@@ -248,12 +474,42 @@ public class KeycloakAdminService {
         return credential;
     }
 
+    private Map<String, List<String>> extractAttributes(Map<String, Object> user) {
+        Map<String, List<String>> attributes = (Map<String, List<String>>) user.get("attributes");
+        return attributes != null ? attributes : Map.of();
+    }
+
+    private void detectConcurrentModification(String keycloakUserId, Map<String, List<String>> changes,
+                                              Map<String, List<String>> remoteAttributes,
+                                              Map<String, List<String>> lastSynced) {
+        List<String> modified = lastSynced.keySet().stream()
+                .filter(key -> !Objects.equals(remoteAttributes.get(key), lastSynced.get(key)))
+                .toList();
+
+        if (modified.isEmpty()) {
+            return;
+        }
+
+        List<String> conflicting = modified.stream()
+                .filter(key -> changes.containsKey(key) && !Objects.equals(remoteAttributes.get(key), changes.get(key)))
+                .toList();
+
+        if (!conflicting.isEmpty()) {
+            forgetMemoizedUsers();
+            throw new OptimisticLockingFailureException("Atributos " + conflicting + " do usuário " + keycloakUserId
+                    + " foram alterados por outra requisição desde a última sincronização");
+        }
+
+        log.warn("Atributos {} do usuário {} foram alterados fora desta instância desde a última sincronização; "
+                + "valores remotos preservados", modified, keycloakUserId);
+    }
+
     private Map<String, Object> buildUserWithUpdatedAttributes(Map<String, Object> currentUser,
                                                                 Map<String, List<String>> newAttributes) {
-        Map<String, List<String>> existingAttributes = (Map<String, List<String>>) currentUser.get("attributes");
-        if (existingAttributes == null) {
-            existingAttributes = new HashMap<>();
-        }
+        Map<String, List<String>> currentAttributes = (Map<String, List<String>>) currentUser.get("attributes");
+        Map<String, List<String>> existingAttributes = currentAttributes != null
+                ? new HashMap<>(currentAttributes)
+                : new HashMap<>();
         existingAttributes.putAll(newAttributes);
 
         Map<String, Object> updatedUser = new HashMap<>();
@@ -317,8 +573,8 @@ public class KeycloakAdminService {
         HttpEntity<Map<String, Object>> request = buildAuthenticatedPostRequest(body);
 
         try {
-            ResponseEntity<String> response = restTemplate.exchange(
-                keycloakProperties.getAdminUsersEndpoint(),
+            ResponseEntity<String> response = restTemplate().exchange(
+                endpoints().users(),
                 HttpMethod.POST,
                 request,
                 String.class
@@ -354,8 +610,8 @@ public class KeycloakAdminService {
     }
 
     private void validateUsernameAvailable(String newUsername, String currentUserId) {
-        Map<String, Object> existingUser = getUserByUsername(newUsername);
-        if (existingUser != null && !currentUserId.equals(existingUser.get("id"))) {
+        String existingUserId = extractId(fetchUserByUsername(newUsername));
+        if (existingUserId != null && !currentUserId.equals(existingUserId)) {
             throw new RuntimeException("Username já está em uso por outro usuário: " + newUsername);
         }
     }
@@ -365,7 +621,11 @@ public class KeycloakAdminService {
         if (locationHeader != null) {
             return extractUserIdFromLocation(locationHeader);
         }
-        return getUserIdByEmail(email);
+        String userId = getUserIdByEmail(email);
+        if (userId == null) {
+            throw new RuntimeException("Não foi possível obter o ID do usuário criado");
+        }
+        return userId;
     }
 
     private String extractUserIdFromLocation(String locationHeader) {
@@ -380,12 +640,8 @@ public class KeycloakAdminService {
         return extractUserIdFromLocation(location);
     }
 
-    private String getUserIdByEmail(String email) {
-        Map<String, Object> createdUser = getUserByEmail(email);
-        if (createdUser != null) {
-            return (String) createdUser.get("id");
-        }
-        throw new RuntimeException("Não foi possível obter o ID do usuário criado");
+    private String extractId(Map<String, Object> user) {
+        return user != null ? (String) user.get("id") : null;
     }
 
     private Map<String, Object> extractFirstUser(List<Map<String, Object>> users) {
@@ -395,21 +651,12 @@ public class KeycloakAdminService {
         return null;
     }
 
-    private String buildUserByIdUrl(String keycloakUserId) {
-        return keycloakProperties.getAdminUsersEndpoint() + "/" + keycloakUserId;
-    }
-
-    private String buildUserByEmailUrl(String email) {
-        return keycloakProperties.getAdminUsersEndpoint() + "?email=" + email;
-    }
-
-    private String buildUserByUsernameUrl(String username) {
-        return keycloakProperties.getAdminUsersEndpoint() + "?username=" + username + "&exact=true";
+    private URI buildUserByIdUrl(String keycloakUserId) {
+        return expand(endpoints().byId(), keycloakUserId);
     }
 
-    private String buildIdentityProviderUrl(String keycloakUserId, String identityProvider) {
-        return keycloakProperties.getAdminUsersEndpoint() + "/" + keycloakUserId +
-               "/federated-identity/" + identityProvider;
+    private URI buildIdentityProviderUrl(String keycloakUserId, String identityProvider) {
+        return expand(endpoints().identityProvider(), keycloakUserId, identityProvider);
     }
 
     private HttpEntity<Void> buildAuthenticatedGetRequest() {
@@ -445,4 +692,38 @@ public class KeycloakAdminService {
     }
 
     private record UserData(String email, String firstName, String lastName, Map<String, Object> attributes) {}
+
+    private record AdminToken(String value, LocalDateTime expiration) {
+        boolean isValid() {
+            return value != null && LocalDateTime.now().isBefore(expiration);
+        }
+    }
+
+    private record UserEndpoints(String users, UriComponents byId, UriComponents byEmail, UriComponents byUsername,
+                                 UriComponents federatedIdentities, UriComponents identityProvider,
+                                 UriComponents usersPage, UriComponents adminEvents, UriComponents userEvents) {
+        static UserEndpoints of(KeycloakTenant tenant) {
+            String users = tenant.getAdminUsersEndpoint();
+            String realm = tenant.getAdminRealmEndpoint();
+            String briefExactSingle = "&exact=true&briefRepresentation=true&max=1";
+            return new UserEndpoints(
+                    users,
+                    template(users + "/{id}"),
+                    template(users + "?email={email}" + briefExactSingle),
+                    template(users + "?username={username}" + briefExactSingle),
+                    template(users + "/{id}/federated-identity"),
+                    template(users + "/{id}/federated-identity/{provider}"),
+                    template(users + "?first={first}&max={max}&briefRepresentation=false"),
+                    template(realm + "/admin-events?dateFrom={dateFrom}&first={first}&max={max}"
+                            + "&resourceTypes=USER&resourceTypes=USER_FEDERATED_IDENTITY"),
+                    template(realm + "/events?dateFrom={dateFrom}&first={first}&max={max}"
+                            + "&type=REGISTER&type=UPDATE_PROFILE&type=UPDATE_EMAIL&type=VERIFY_EMAIL"
+                            + "&type=FEDERATED_IDENTITY_LINK&type=REMOVE_FEDERATED_IDENTITY"
+                            + "&type=IDENTITY_PROVIDER_FIRST_LOGIN&type=DELETE_ACCOUNT"));
+        }
+
+        private static UriComponents template(String uriTemplate) {
+            return UriComponentsBuilder.fromUriString(uriTemplate).encode().build();
+        }
+    }
 }
@@ -0,0 +1,200 @@
+package com.example.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class KeycloakAttributeSync {
+
+    private final KeycloakAdminService keycloakAdminService;
+    private final ConcurrentHashMap<String, UserSyncState> states = new ConcurrentHashMap<>();
+
+    @Value("${keycloak.attribute-sync.max-tracked-users:10000}")
+    private int maxTrackedUsers;
+
+    public void sync(String keycloakUserId, Map<String, List<String>> attributes) {
+        UserSyncState state = stateFor(keycloakUserId);
+        CompletableFuture<Void> done;
+        boolean leader = false;
+
+        synchronized (state) {
+            Map<String, List<String>> changes = state.diff(attributes);
+
+            if (changes.isEmpty()) {
+                done = state.pendingOrInFlight();
+            } else {
+                done = state.enqueue(changes);
+                if (!state.flushing) {
+                    state.flushing = true;
+                    leader = true;
+                }
+            }
+        }
+
+        if (leader) {
+            flush(keycloakUserId, state);
+        }
+
+        if (done != null) {
+            await(done);
+        }
+    }
+
+    public void forget(String keycloakUserId) {
+        states.remove(keycloakUserId);
+    }
+
+    private UserSyncState stateFor(String keycloakUserId) {
+        if (states.size() >= maxTrackedUsers) {
+            states.values().removeIf(UserSyncState::isIdle);
+        }
+        return states.computeIfAbsent(keycloakUserId, id -> new UserSyncState());
+    }
+
+    private void flush(String keycloakUserId, UserSyncState state) {
+        boolean drained = false;
+        try {
+            while (true) {
+                Map<String, List<String>> batch;
+                Map<String, List<String>> lastSynced;
+                CompletableFuture<Void> batchDone;
+
+                synchronized (state) {
+                    if (state.pending.isEmpty()) {
+                        state.flushing = false;
+                        drained = true;
+                        return;
+                    }
+                    batch = state.pending;
+                    batchDone = state.pendingDone;
+                    lastSynced = new HashMap<>(state.synced);
+                    state.startFlight();
+                }
+
+                try {
+                    Map<String, List<String>> remote = keycloakAdminService.updateCustomAttributes(keycloakUserId, batch, lastSynced);
+                    synchronized (state) {
+                        state.finishFlight(remote);
+                    }
+                    batchDone.complete(null);
+                } catch (RuntimeException e) {
+                    synchronized (state) {
+                        state.failFlight();
+                    }
+                    batchDone.completeExceptionally(e);
+                }
+            }
+        } finally {
+            if (!drained) {
+                synchronized (state) {
+                    state.flushing = false;
+                    state.failPending(new IllegalStateException("Sincronização de atributos interrompida"));
+                }
+            }
+        }
+    }
+
+    private void await(CompletableFuture<Void> done) {
+        try {
+            done.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class UserSyncState {
+
+        private final Map<String, List<String>> synced = new HashMap<>();
+        private Map<String, List<String>> inFlight = new HashMap<>();
+        private CompletableFuture<Void> inFlightDone;
+        private Map<String, List<String>> pending = new HashMap<>();
+        private CompletableFuture<Void> pendingDone;
+        private boolean flushing;
+
+        Map<String, List<String>> diff(Map<String, List<String>> attributes) {
+            Map<String, List<String>> changes = new HashMap<>();
+
+            attributes.forEach((key, value) -> {
+                if (!Objects.equals(expected(key), value)) {
+                    changes.put(key, value);
+                }
+            });
+
+            return changes;
+        }
+
+        CompletableFuture<Void> enqueue(Map<String, List<String>> changes) {
+            pending.putAll(changes);
+            if (pendingDone == null) {
+                pendingDone = new CompletableFuture<>();
+            }
+            return pendingDone;
+        }
+
+        CompletableFuture<Void> pendingOrInFlight() {
+            return pendingDone != null ? pendingDone : inFlightDone;
+        }
+
+        void startFlight() {
+            inFlight = pending;
+            inFlightDone = pendingDone;
+            pending = new HashMap<>();
+            pendingDone = null;
+        }
+
+        void finishFlight(Map<String, List<String>> remote) {
+            inFlight.keySet().forEach(key -> synced.put(key, null));
+            synced.replaceAll((key, value) -> remote.get(key));
+            clearFlight();
+        }
+
+        void failFlight() {
+            synced.clear();
+            clearFlight();
+        }
+
+        void failPending(RuntimeException cause) {
+            if (pendingDone != null) {
+                pendingDone.completeExceptionally(cause);
+                pending = new HashMap<>();
+                pendingDone = null;
+            }
+        }
+
+        boolean isIdle() {
+            synchronized (this) {
+                return !flushing && pending.isEmpty();
+            }
+        }
+
+        private List<String> expected(String key) {
+            if (pending.containsKey(key)) {
+                return pending.get(key);
+            }
+            if (inFlight.containsKey(key)) {
+                return inFlight.get(key);
+            }
+            return synced.get(key);
+        }
+
+        private void clearFlight() {
+            inFlight = new HashMap<>();
+            inFlightDone = null;
+        }
+    }
+}
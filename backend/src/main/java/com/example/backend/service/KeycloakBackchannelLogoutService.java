@@ -0,0 +1,84 @@
+package com.example.backend.service;
+
+import com.example.backend.resilience.HedgedRequests;
+import com.example.backend.security.SessionRevocationRegistry;
+import com.example.backend.tenant.TenantJwtDecoder;
+import com.example.backend.tenant.TenantRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Slf4j
+public class KeycloakBackchannelLogoutService {
+
+    private static final String BACKCHANNEL_LOGOUT_EVENT = "http://schemas.openid.net/event/backchannel-logout";
+
+    private final TenantRegistry tenantRegistry;
+    private final SessionRevocationRegistry revocationRegistry;
+    private final JwtDecoder logoutTokenDecoder;
+
+    @Autowired
+    public KeycloakBackchannelLogoutService(TenantRegistry tenantRegistry,
+                                            SessionRevocationRegistry revocationRegistry,
+                                            HedgedRequests hedgedRequests) {
+        this.tenantRegistry = tenantRegistry;
+        this.revocationRegistry = revocationRegistry;
+        this.logoutTokenDecoder = new TenantJwtDecoder(tenantRegistry, hedgedRequests, builder -> builder
+                .jwtProcessorCustomizer(processor -> processor.setJWSTypeVerifier((type, context) -> { })));
+    }
+
+    public void handleLogoutToken(String logoutToken) {
+        Jwt jwt = decodeLogoutToken(logoutToken);
+        validateLogoutClaims(jwt);
+
+        String sessionId = jwt.getClaimAsString("sid");
+        String subject = jwt.getSubject();
+
+        if (sessionId != null) {
+            revocationRegistry.revokeSession(sessionId);
+            log.info("Sessão revogada via backchannel logout: sid={}", sessionId);
+        } else {
+            revocationRegistry.revokeSubject(subject);
+            log.info("Sessões do usuário revogadas via backchannel logout: sub={}", subject);
+        }
+    }
+
+    private Jwt decodeLogoutToken(String logoutToken) {
+        if (logoutToken == null || logoutToken.isBlank()) {
+            throw new IllegalArgumentException("logout_token é obrigatório");
+        }
+
+        try {
+            return logoutTokenDecoder.decode(logoutToken);
+        } catch (Exception e) {
+            log.error("Logout token inválido: {}", e.getMessage());
+            throw new IllegalArgumentException("logout_token inválido", e);
+        }
+    }
+
+    private void validateLogoutClaims(Jwt jwt) {
+        Object events = jwt.getClaims().get("events");
+        if (!(events instanceof Map<?, ?> eventMap) || !eventMap.containsKey(BACKCHANNEL_LOGOUT_EVENT)) {
+            throw new IllegalArgumentException("logout_token sem evento de backchannel logout");
+        }
+
+        if (jwt.getClaims().containsKey("nonce")) {
+            throw new IllegalArgumentException("logout_token não pode conter nonce");
+        }
+
+        List<String> audience = jwt.getAudience();
+        if (audience == null || !audience.contains(tenantRegistry.current().getClientId())) {
+            throw new IllegalArgumentException("logout_token emitido para outro cliente");
+        }
+
+        if (jwt.getClaimAsString("sid") == null && jwt.getSubject() == null) {
+            throw new IllegalArgumentException("logout_token sem sid e sem sub");
+        }
+    }
+}
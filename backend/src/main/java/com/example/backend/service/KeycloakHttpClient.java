@@ -1,11 +1,12 @@
 package com.example.backend.service;
 
-import com.example.backend.config.KeycloakProperties;
+import com.example.backend.resilience.HedgedRequests;
+import com.example.backend.tenant.KeycloakTenant;
+import com.example.backend.tenant.TenantRegistry;
 import com.example.backend.util.UrlUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -13,13 +14,13 @@ import java.util.Map;
 @Service
 public class KeycloakHttpClient {
     
-    private final RestTemplate restTemplate;
-    private final KeycloakProperties keycloakProperties;
+    private final TenantRegistry tenantRegistry;
+    private final HedgedRequests hedgedRequests;
     
     @Autowired
-    public KeycloakHttpClient(RestTemplate restTemplate, KeycloakProperties keycloakProperties) {
-        this.restTemplate = restTemplate;
-        this.keycloakProperties = keycloakProperties;
+    public KeycloakHttpClient(TenantRegistry tenantRegistry, HedgedRequests hedgedRequests) {
+        this.tenantRegistry = tenantRegistry;
+        this.hedgedRequests = hedgedRequests;
     }
     
     public Map<String, Object> exchangeCodeForToken(String code) {
@@ -28,30 +29,51 @@ public class KeycloakHttpClient {
         return extractTokens(response);
     }
     
+    public Map<String, Object> refreshToken(String refreshToken) {
+        Map<String, String> params = buildRefreshTokenParams(refreshToken);
+        return postForToken(params);
+    }
+    
     public Map<String, Object> getUserInfo(String bearerToken) {
         HttpHeaders headers = new HttpHeaders();
         headers.setBearerAuth(cleanBearerToken(bearerToken));
         
         HttpEntity<?> request = new HttpEntity<>(headers);
-        ResponseEntity<Map> response = restTemplate.exchange(
-                keycloakProperties.getUserInfoEndpoint(),
+        KeycloakTenant tenant = tenantRegistry.current();
+        ResponseEntity<Map> response = hedgedRequests.call("userinfo", () -> tenant.getRestTemplate().exchange(
+                tenant.getUserInfoEndpoint(),
                 HttpMethod.GET,
                 request,
                 Map.class
-        );
+        ));
         
         return response.getBody();
     }
     
     private Map<String, String> buildAuthorizationCodeParams(String code) {
+        KeycloakTenant tenant = tenantRegistry.current();
         Map<String, String> params = new HashMap<>();
         params.put("grant_type", "authorization_code");
-        params.put("client_id", keycloakProperties.getClientId());
+        params.put("client_id", tenant.getClientId());
         params.put("code", code);
-        params.put("redirect_uri", keycloakProperties.getRedirectUri());
+        params.put("redirect_uri", tenant.getRedirectUri());
+        
+        if (tenant.hasClientSecret()) {
+            params.put("client_secret", tenant.getClientSecret());
+        }
+        
+        return params;
+    }
+    
+    private Map<String, String> buildRefreshTokenParams(String refreshToken) {
+        KeycloakTenant tenant = tenantRegistry.current();
+        Map<String, String> params = new HashMap<>();
+        params.put("grant_type", "refresh_token");
+        params.put("client_id", tenant.getClientId());
+        params.put("refresh_token", refreshToken);
         
-        if (keycloakProperties.hasClientSecret()) {
-            params.put("client_secret", keycloakProperties.getClientSecret());
+        if (tenant.hasClientSecret()) {
+            params.put("client_secret", tenant.getClientSecret());
         }
         
         return params;
@@ -64,8 +86,9 @@ public class KeycloakHttpClient {
         String body = UrlUtils.buildFormBody(params);
         HttpEntity<String> request = new HttpEntity<>(body, headers);
         
-        ResponseEntity<Map> response = restTemplate.postForEntity(
-                keycloakProperties.getTokenEndpoint(),
+        KeycloakTenant tenant = tenantRegistry.current();
+        ResponseEntity<Map> response = tenant.getRestTemplate().postForEntity(
+                tenant.getTokenEndpoint(),
                 request,
                 Map.class
         );
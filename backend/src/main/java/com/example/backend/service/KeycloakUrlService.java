@@ -1,6 +1,7 @@
 package com.example.backend.service;
 
-import com.example.backend.config.KeycloakProperties;
+import com.example.backend.tenant.KeycloakTenant;
+import com.example.backend.tenant.TenantRegistry;
 import com.example.backend.util.UrlUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -11,29 +12,31 @@ import java.util.Map;
 @Service
 public class KeycloakUrlService {
     
-    private final KeycloakProperties keycloakProperties;
+    private final TenantRegistry tenantRegistry;
     
     @Autowired
-    public KeycloakUrlService(KeycloakProperties keycloakProperties) {
-        this.keycloakProperties = keycloakProperties;
+    public KeycloakUrlService(TenantRegistry tenantRegistry) {
+        this.tenantRegistry = tenantRegistry;
     }
     
     public String buildSocialAuthUrl() {
+        KeycloakTenant tenant = tenantRegistry.current();
         Map<String, String> params = new HashMap<>();
-        params.put("client_id", keycloakProperties.getClientId());
-        params.put("redirect_uri", keycloakProperties.getRedirectUri());
+        params.put("client_id", tenant.getClientId());
+        params.put("redirect_uri", tenant.getRedirectUri());
         params.put("response_type", "code");
         params.put("scope", "openid profile email");
-        params.put("kc_idp_hint", keycloakProperties.getIdpHint());
+        params.put("kc_idp_hint", tenant.getIdpHint());
 
-        return keycloakProperties.getAuthEndpoint() + "?" + UrlUtils.buildQueryString(params);
+        return tenant.getAuthEndpoint() + "?" + UrlUtils.buildQueryString(params);
     }
     
     public String buildLogoutUrl(String idToken) {
+        KeycloakTenant tenant = tenantRegistry.current();
         Map<String, String> params = new HashMap<>();
         params.put("id_token_hint", idToken);
-        params.put("post_logout_redirect_uri", keycloakProperties.getPostLogoutRedirectUri());
+        params.put("post_logout_redirect_uri", tenant.getPostLogoutRedirectUri());
         
-        return keycloakProperties.getLogoutEndpoint() + "?" + UrlUtils.buildQueryString(params);
+        return tenant.getLogoutEndpoint() + "?" + UrlUtils.buildQueryString(params);
     }
 }
\ No newline at end of file
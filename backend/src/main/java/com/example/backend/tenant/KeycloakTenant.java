@@ -0,0 +1,65 @@
+package com.example.backend.tenant;
+
+import com.example.backend.resilience.AdaptiveConcurrencyLimiter;
+import lombok.Getter;
+import org.springframework.web.client.RestTemplate;
+
+@Getter
+public final class KeycloakTenant {
+
+    private final String id;
+    private final String realm;
+    private final String clientId;
+    private final String clientSecret;
+    private final String redirectUri;
+    private final String postLogoutRedirectUri;
+    private final String idpHint;
+    private final String adminUsername;
+    private final String adminPassword;
+    private final int customerCacheMaxEntries;
+    private final AdaptiveConcurrencyLimiter outboundLimiter;
+    private final RestTemplate restTemplate;
+
+    private final String issuerUri;
+    private final String tokenEndpoint;
+    private final String authEndpoint;
+    private final String logoutEndpoint;
+    private final String userInfoEndpoint;
+    private final String jwksEndpoint;
+    private final String adminRealmEndpoint;
+    private final String adminUsersEndpoint;
+    private final String adminTokenEndpoint;
+
+    KeycloakTenant(String id, String url, String realm, String adminRealm, String clientId, String clientSecret,
+                   String redirectUri, String postLogoutRedirectUri, String idpHint,
+                   String adminUsername, String adminPassword, int customerCacheMaxEntries,
+                   AdaptiveConcurrencyLimiter outboundLimiter, RestTemplate restTemplate) {
+        this.id = id;
+        this.realm = realm;
+        this.clientId = clientId;
+        this.clientSecret = clientSecret;
+        this.redirectUri = redirectUri;
+        this.postLogoutRedirectUri = postLogoutRedirectUri;
+        this.idpHint = idpHint;
+        this.adminUsername = adminUsername;
+        this.adminPassword = adminPassword;
+        this.customerCacheMaxEntries = customerCacheMaxEntries;
+        this.outboundLimiter = outboundLimiter;
+        this.restTemplate = restTemplate;
+
+        String openIdConnect = url + "/realms/" + realm + "/protocol/openid-connect";
+        this.issuerUri = url + "/realms/" + realm;
+        this.tokenEndpoint = openIdConnect + "/token";
+        this.authEndpoint = openIdConnect + "/auth";
+        this.logoutEndpoint = openIdConnect + "/logout";
+        this.userInfoEndpoint = openIdConnect + "/userinfo";
+        this.jwksEndpoint = openIdConnect + "/certs";
+        this.adminRealmEndpoint = url + "/admin/realms/" + realm;
+        this.adminUsersEndpoint = adminRealmEndpoint + "/users";
+        this.adminTokenEndpoint = url + "/realms/" + adminRealm + "/protocol/openid-connect/token";
+    }
+
+    public boolean hasClientSecret() {
+        return clientSecret != null && !clientSecret.trim().isEmpty();
+    }
+}
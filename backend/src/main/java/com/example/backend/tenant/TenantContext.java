@@ -0,0 +1,49 @@
+package com.example.backend.tenant;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.function.Supplier;
+
+@UtilityClass
+public class TenantContext {
+
+    private static final ThreadLocal<KeycloakTenant> CURRENT = new ThreadLocal<>();
+
+    static KeycloakTenant get() {
+        return CURRENT.get();
+    }
+
+    public static String currentId() {
+        KeycloakTenant tenant = CURRENT.get();
+        return tenant != null ? tenant.getId() : null;
+    }
+
+    static void set(KeycloakTenant tenant) {
+        CURRENT.set(tenant);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    public static <T> T callAs(KeycloakTenant tenant, Supplier<T> action) {
+        KeycloakTenant previous = CURRENT.get();
+        CURRENT.set(tenant);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    public static void runAs(KeycloakTenant tenant, Runnable action) {
+        callAs(tenant, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
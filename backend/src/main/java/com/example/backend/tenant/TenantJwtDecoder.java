@@ -0,0 +1,45 @@
+package com.example.backend.tenant;
+
+import com.example.backend.resilience.HedgedRequests;
+import com.example.backend.resilience.HedgedRestTemplate;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+public class TenantJwtDecoder implements JwtDecoder {
+
+    private final TenantRegistry tenantRegistry;
+    private final HedgedRequests hedgedRequests;
+    private final UnaryOperator<NimbusJwtDecoder.JwkSetUriJwtDecoderBuilder> customizer;
+    private final ConcurrentHashMap<String, JwtDecoder> decoders = new ConcurrentHashMap<>();
+
+    public TenantJwtDecoder(TenantRegistry tenantRegistry, HedgedRequests hedgedRequests) {
+        this(tenantRegistry, hedgedRequests, UnaryOperator.identity());
+    }
+
+    public TenantJwtDecoder(TenantRegistry tenantRegistry, HedgedRequests hedgedRequests,
+                            UnaryOperator<NimbusJwtDecoder.JwkSetUriJwtDecoderBuilder> customizer) {
+        this.tenantRegistry = tenantRegistry;
+        this.hedgedRequests = hedgedRequests;
+        this.customizer = customizer;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        KeycloakTenant tenant = tenantRegistry.current();
+        return decoders.computeIfAbsent(tenant.getId(), id -> buildDecoder(tenant)).decode(token);
+    }
+
+    private JwtDecoder buildDecoder(KeycloakTenant tenant) {
+        NimbusJwtDecoder decoder = customizer.apply(NimbusJwtDecoder.withJwkSetUri(tenant.getJwksEndpoint())
+                        .restOperations(new HedgedRestTemplate(tenant.getRestTemplate(), hedgedRequests, "jwks")))
+                .build();
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(tenant.getIssuerUri()));
+        return decoder;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.backend.tenant;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "app.tenancy")
+@Data
+public class TenantProperties {
+
+    private String defaultTenant = "default";
+    private String header = "X-Tenant-Id";
+    private Map<String, String> hosts = new LinkedHashMap<>();
+    private Map<String, Realm> realms = new LinkedHashMap<>();
+    private int maxConcurrentRequests = 20;
+    private Duration acquireTimeout = Duration.ofSeconds(2);
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    private Duration readTimeout = Duration.ofSeconds(10);
+
+    @Data
+    public static class Realm {
+        private String realm;
+        private String clientId;
+        private String clientSecret;
+        private String redirectUri;
+        private String postLogoutRedirectUri;
+        private String idpHint;
+        private String adminRealm;
+        private String adminUsername;
+        private String adminPassword;
+        private Integer maxConcurrentRequests;
+        private Integer customerCacheMaxEntries;
+    }
+}
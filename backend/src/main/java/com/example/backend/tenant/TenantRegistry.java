@@ -0,0 +1,132 @@
+package com.example.backend.tenant;
+
+import com.example.backend.config.KeycloakProperties;
+import com.example.backend.resilience.AdaptiveConcurrencyLimiter;
+import com.example.backend.resilience.AdaptiveLimitInterceptor;
+import com.example.backend.resilience.ConcurrencyLimitProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+@Slf4j
+public class TenantRegistry {
+
+    private final TenantProperties properties;
+    private final ConcurrencyLimitProperties concurrencyLimitProperties;
+    private final Map<String, KeycloakTenant> tenants = new LinkedHashMap<>();
+    private final Map<String, KeycloakTenant> tenantsByHost = new LinkedHashMap<>();
+    private final KeycloakTenant defaultTenant;
+
+    public TenantRegistry(KeycloakProperties keycloakProperties, TenantProperties properties,
+                          ConcurrencyLimitProperties concurrencyLimitProperties,
+                          @Value("${customer.cache.max-entries:10000}") int customerCacheMaxEntries) {
+        this.properties = properties;
+        this.concurrencyLimitProperties = concurrencyLimitProperties;
+
+        tenants.put(properties.getDefaultTenant(),
+                buildTenant(properties.getDefaultTenant(), keycloakProperties, new TenantProperties.Realm(), customerCacheMaxEntries));
+        properties.getRealms().forEach((id, realm) ->
+                tenants.put(id, buildTenant(id, keycloakProperties, realm, customerCacheMaxEntries)));
+        this.defaultTenant = tenants.get(properties.getDefaultTenant());
+
+        properties.getHosts().forEach((host, id) -> tenantsByHost.put(host.toLowerCase(Locale.ROOT), require(id)));
+        log.info("Tenants Keycloak registrados: {}", tenants.keySet());
+    }
+
+    public KeycloakTenant current() {
+        KeycloakTenant tenant = TenantContext.get();
+        return tenant != null ? tenant : defaultTenant;
+    }
+
+    public KeycloakTenant defaultTenant() {
+        return defaultTenant;
+    }
+
+    public Collection<KeycloakTenant> all() {
+        return Collections.unmodifiableCollection(tenants.values());
+    }
+
+    public Optional<KeycloakTenant> get(String id) {
+        return Optional.ofNullable(tenants.get(id));
+    }
+
+    public Optional<KeycloakTenant> resolve(String headerValue, String host) {
+        if (headerValue != null && !headerValue.isBlank()) {
+            return get(headerValue.trim());
+        }
+
+        if (host != null) {
+            KeycloakTenant byHost = tenantsByHost.get(host.toLowerCase(Locale.ROOT));
+            if (byHost != null) {
+                return Optional.of(byHost);
+            }
+        }
+
+        return Optional.of(defaultTenant);
+    }
+
+    private KeycloakTenant require(String id) {
+        KeycloakTenant tenant = tenants.get(id);
+        if (tenant == null) {
+            throw new IllegalStateException("Tenant não configurado: " + id);
+        }
+        return tenant;
+    }
+
+    private KeycloakTenant buildTenant(String id, KeycloakProperties defaults, TenantProperties.Realm realm,
+                                       int defaultCacheEntries) {
+        int maxConcurrentRequests = or(realm.getMaxConcurrentRequests(), properties.getMaxConcurrentRequests());
+        AdaptiveConcurrencyLimiter outboundLimiter = concurrencyLimitProperties.isEnabled()
+                ? new AdaptiveConcurrencyLimiter("keycloak-outbound", concurrencyLimitProperties.getOutbound())
+                : null;
+
+        return new KeycloakTenant(
+                id,
+                defaults.getUrl(),
+                or(realm.getRealm(), defaults.getRealm()),
+                or(realm.getAdminRealm(), defaults.getAdminRealm()),
+                or(realm.getClientId(), defaults.getClientId()),
+                or(realm.getClientSecret(), defaults.getClientSecret()),
+                or(realm.getRedirectUri(), defaults.getRedirectUri()),
+                or(realm.getPostLogoutRedirectUri(), defaults.getPostLogoutRedirectUri()),
+                or(realm.getIdpHint(), defaults.getIdpHint()),
+                or(realm.getAdminUsername(), defaults.getAdminUsername()),
+                or(realm.getAdminPassword(), defaults.getAdminPassword()),
+                or(realm.getCustomerCacheMaxEntries(), defaultCacheEntries),
+                outboundLimiter,
+                buildRestTemplate(id, maxConcurrentRequests, outboundLimiter)
+        );
+    }
+
+    private RestTemplate buildRestTemplate(String id, int maxConcurrentRequests,
+                                           AdaptiveConcurrencyLimiter outboundLimiter) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(properties.getReadTimeout());
+
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        if (outboundLimiter != null) {
+            restTemplate.getInterceptors().add(new AdaptiveLimitInterceptor(outboundLimiter));
+        }
+        restTemplate.getInterceptors().add(
+                new TenantBulkheadInterceptor(id, maxConcurrentRequests, properties.getAcquireTimeout()));
+        return restTemplate;
+    }
+
+    private static <T> T or(T value, T fallback) {
+        return value != null ? value : fallback;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.backend.tenant;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+public class TenantResolutionFilter extends OncePerRequestFilter {
+
+    private final TenantRegistry tenantRegistry;
+    private final String header;
+
+    public TenantResolutionFilter(TenantRegistry tenantRegistry, TenantProperties properties) {
+        this.tenantRegistry = tenantRegistry;
+        this.header = properties.getHeader();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Optional<KeycloakTenant> tenant = tenantRegistry.resolve(request.getHeader(header), request.getServerName());
+
+        if (tenant.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Tenant desconhecido");
+            return;
+        }
+
+        TenantContext.set(tenant.get());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.backend.tracing;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+public class Span {
+
+    private String name;
+    private final double startMillis;
+    private double durationMillis;
+    private String outcome = "success";
+    private String errorType;
+    private final List<Span> children = new ArrayList<>();
+
+    @JsonIgnore
+    private final long startNanos;
+
+    Span(String name, long traceStartNanos) {
+        this.name = name;
+        this.startNanos = System.nanoTime();
+        this.startMillis = toMillis(startNanos - traceStartNanos);
+    }
+
+    void rename(String name) {
+        this.name = name;
+    }
+
+    void finish(Throwable error) {
+        durationMillis = toMillis(System.nanoTime() - startNanos);
+        if (error != null) {
+            outcome = "error";
+            errorType = error.getClass().getSimpleName();
+        }
+    }
+
+    void addChild(Span child) {
+        children.add(child);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.backend.tracing;
+
+import java.time.Instant;
+
+public record Trace(String traceId, String endpoint, int status, Instant startedAt,
+                    double durationMillis, int droppedSpans, Span root) {
+}
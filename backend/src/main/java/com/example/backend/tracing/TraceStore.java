@@ -0,0 +1,108 @@
+package com.example.backend.tracing;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+@Component
+public class TraceStore {
+
+    private static final Comparator<Trace> BY_DURATION = Comparator.comparingDouble(Trace::durationMillis);
+
+    private final TracingProperties properties;
+    private final PriorityQueue<Trace> slowest = new PriorityQueue<>(BY_DURATION);
+    private final Deque<Trace> sampled = new ArrayDeque<>();
+    private final Map<String, Histogram> latencies = new ConcurrentHashMap<>();
+    private final long highestTrackableMicros;
+
+    public TraceStore(TracingProperties properties) {
+        this.properties = properties;
+        this.highestTrackableMicros = properties.getHistogramMaxLatency().toNanos() / 1_000;
+    }
+
+    public void record(Trace trace, boolean sampledTrace) {
+        recordLatency(trace);
+        keepIfSlow(trace);
+        if (sampledTrace) {
+            keepSampled(trace);
+        }
+    }
+
+    public synchronized List<Trace> slowest() {
+        List<Trace> traces = new ArrayList<>(slowest);
+        traces.sort(BY_DURATION.reversed());
+        return traces;
+    }
+
+    public synchronized List<Trace> sampled() {
+        return new ArrayList<>(sampled);
+    }
+
+    public synchronized Optional<Trace> find(String traceId) {
+        return Stream.concat(slowest.stream(), sampled.stream())
+                .filter(trace -> trace.traceId().equals(traceId))
+                .findFirst();
+    }
+
+    public Map<String, Map<String, Object>> latencies() {
+        Map<String, Map<String, Object>> summaries = new TreeMap<>();
+        latencies.forEach((endpoint, histogram) -> summaries.put(endpoint, summarize(histogram.copy())));
+        return summaries;
+    }
+
+    private void recordLatency(Trace trace) {
+        Histogram histogram = latencies.computeIfAbsent(trace.endpoint(),
+                endpoint -> new ConcurrentHistogram(highestTrackableMicros, properties.getHistogramSignificantDigits()));
+        long micros = (long) (trace.durationMillis() * 1_000);
+        histogram.recordValue(Math.max(1, Math.min(micros, highestTrackableMicros)));
+    }
+
+    private synchronized void keepIfSlow(Trace trace) {
+        if (slowest.size() < properties.getSlowestTraces()) {
+            slowest.add(trace);
+            return;
+        }
+
+        Trace fastestKept = slowest.peek();
+        if (fastestKept != null && trace.durationMillis() > fastestKept.durationMillis()) {
+            slowest.poll();
+            slowest.add(trace);
+        }
+    }
+
+    private synchronized void keepSampled(Trace trace) {
+        if (sampled.size() >= properties.getSampledTraces()) {
+            sampled.pollFirst();
+        }
+        sampled.addLast(trace);
+    }
+
+    private static Map<String, Object> summarize(Histogram histogram) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("meanMillis", histogram.getMean() / 1_000);
+        summary.put("p50Millis", percentileMillis(histogram, 50));
+        summary.put("p90Millis", percentileMillis(histogram, 90));
+        summary.put("p99Millis", percentileMillis(histogram, 99));
+        summary.put("p999Millis", percentileMillis(histogram, 99.9));
+        summary.put("maxMillis", histogram.getMaxValue() / 1_000.0);
+        return summary;
+    }
+
+    private static double percentileMillis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1_000.0;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.backend.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+@RequiredArgsConstructor
+public class Tracer {
+
+    public static final String MDC_TRACE_ID = "traceId";
+
+    private static final ThreadLocal<ActiveTrace> ACTIVE = new ThreadLocal<>();
+
+    private final TracingProperties properties;
+    private final TraceStore traceStore;
+
+    public String begin(String name) {
+        String traceId = UUID.randomUUID().toString().replace("-", "");
+        ACTIVE.set(new ActiveTrace(traceId, name));
+        MDC.put(MDC_TRACE_ID, traceId);
+        return traceId;
+    }
+
+    public void end(String endpoint, int status, Throwable error) {
+        ActiveTrace active = ACTIVE.get();
+        if (active == null) {
+            return;
+        }
+
+        ACTIVE.remove();
+        MDC.remove(MDC_TRACE_ID);
+        active.root.rename(endpoint);
+        active.root.finish(error);
+
+        Trace trace = new Trace(active.traceId, endpoint, status, active.startedAt,
+                active.root.getDurationMillis(), active.droppedSpans, active.root);
+        traceStore.record(trace, ThreadLocalRandom.current().nextDouble() < properties.getSampleRate());
+    }
+
+    Span openSpan(String name) {
+        ActiveTrace active = ACTIVE.get();
+        if (active == null) {
+            return null;
+        }
+
+        if (active.spanCount >= properties.getMaxSpansPerTrace()) {
+            active.droppedSpans++;
+            return null;
+        }
+
+        Span span = new Span(name, active.root.getStartNanos());
+        active.stack.peek().addChild(span);
+        active.stack.push(span);
+        active.spanCount++;
+        return span;
+    }
+
+    void closeSpan(Span span, Throwable error) {
+        ActiveTrace active = ACTIVE.get();
+        if (span == null || active == null) {
+            return;
+        }
+
+        span.finish(error);
+        active.stack.remove(span);
+    }
+
+    private static final class ActiveTrace {
+
+        private final String traceId;
+        private final Instant startedAt = Instant.now();
+        private final Span root;
+        private final Deque<Span> stack = new ArrayDeque<>();
+        private int spanCount;
+        private int droppedSpans;
+
+        private ActiveTrace(String traceId, String name) {
+            this.traceId = traceId;
+            this.root = new Span(name, System.nanoTime());
+            this.stack.push(root);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.backend.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@Endpoint(id = "traces")
+@RequiredArgsConstructor
+public class TracesEndpoint {
+
+    private final TraceStore traceStore;
+
+    @ReadOperation
+    public Map<String, Object> traces() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("latencies", traceStore.latencies());
+        result.put("slowest", traceStore.slowest());
+        result.put("sampled", traceStore.sampled());
+        return result;
+    }
+
+    @ReadOperation
+    public Trace trace(@Selector String traceId) {
+        return traceStore.find(traceId).orElse(null);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.backend.tracing;
+
+import com.example.backend.controller.AuthorizationController;
+import com.example.backend.repository.CustomerRepository;
+import com.example.backend.service.AuthorizationService;
+import com.example.backend.service.KeycloakAdminService;
+import com.example.backend.service.KeycloakHttpClient;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactoryBean;
+
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.tracing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TracingConfig {
+
+    private static final Map<Class<?>, String> TRACED_BEANS = Map.of(
+            AuthorizationController.class, "AuthorizationController",
+            AuthorizationService.class, "AuthorizationService",
+            KeycloakHttpClient.class, "KeycloakHttpClient",
+            KeycloakAdminService.class, "KeycloakAdminService"
+    );
+
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(Tracer tracer) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(tracer));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public static BeanPostProcessor tracingInstrumentation(ObjectProvider<Tracer> tracer) {
+        return new BeanPostProcessor() {
+
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof MongoRepositoryFactoryBean<?, ?, ?> factoryBean
+                        && CustomerRepository.class.equals(factoryBean.getObjectType())) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) ->
+                                    proxyFactory.addAdvice(new TracingInterceptor(tracer, "CustomerRepository"))));
+                }
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                for (Map.Entry<Class<?>, String> traced : TRACED_BEANS.entrySet()) {
+                    if (traced.getKey().isInstance(bean)) {
+                        return instrument(bean, new TracingInterceptor(tracer, traced.getValue()));
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static Object instrument(Object bean, TracingInterceptor interceptor) {
+        if (bean instanceof Advised advised) {
+            advised.addAdvice(interceptor);
+            return bean;
+        }
+
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.backend.tracing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+
+class TracingInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<Tracer> tracer;
+    private final String component;
+
+    TracingInterceptor(ObjectProvider<Tracer> tracer, String component) {
+        this.tracer = tracer;
+        this.component = component;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+
+        Tracer activeTracer = tracer.getObject();
+        Span span = activeTracer.openSpan(component + "." + method.getName());
+        try {
+            Object result = invocation.proceed();
+            activeTracer.closeSpan(span, null);
+            return result;
+        } catch (Throwable e) {
+            activeTracer.closeSpan(span, e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.backend.tracing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "app.tracing")
+@Data
+public class TracingProperties {
+
+    private boolean enabled = true;
+    private int slowestTraces = 50;
+    private int sampledTraces = 100;
+    private double sampleRate = 0.01;
+    private int maxSpansPerTrace = 200;
+    private Duration histogramMaxLatency = Duration.ofMinutes(1);
+    private int histogramSignificantDigits = 2;
+}
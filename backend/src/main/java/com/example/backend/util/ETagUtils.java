@@ -0,0 +1,46 @@
+package com.example.backend.util;
+
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class ETagUtils {
+
+    public static String fromVersion(Long version) {
+        return version != null ? "\"" + version + "\"" : null;
+    }
+
+    public static boolean matchesIfNoneMatch(String header, String etag) {
+        return matches(header, etag, true);
+    }
+
+    public static boolean matchesIfMatch(String header, String etag) {
+        return matches(header, etag, false);
+    }
+
+    private static boolean matches(String header, String etag, boolean weakComparison) {
+        if (header == null || etag == null) {
+            return false;
+        }
+
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+
+            if (value.equals("*")) {
+                return true;
+            }
+
+            if (value.startsWith("W/")) {
+                if (!weakComparison) {
+                    continue;
+                }
+                value = value.substring(2);
+            }
+
+            if (value.equals(etag)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record KeysetCursor(String value, String id) {
+
+    private static final char SEPARATOR = '\u0000';
+
+    public String encode() {
+        String raw = (value != null ? value : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Cursor inválido");
+        }
+
+        int separator = raw.lastIndexOf(SEPARATOR);
+        if (separator < 0 || separator == raw.length() - 1) {
+            throw new RuntimeException("Cursor inválido");
+        }
+
+        return new KeysetCursor(raw.substring(0, separator), raw.substring(separator + 1));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.backend.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+@UtilityClass
+public class SearchNormalizer {
+
+    public static String normalizeName(String name) {
+        if (name == null) {
+            return null;
+        }
+
+        String decomposed = Normalizer.normalize(name.trim(), Normalizer.Form.NFD);
+        return decomposed.replaceAll("\\p{M}", "").toLowerCase(Locale.ROOT);
+    }
+
+    public static String normalizeEmail(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * Menor string maior que todas as que começam com {@code prefix} na ordem binária UTF-8 do MongoDB (ordem de code
+     * point): incrementa o último code point, descartando os que já estão no máximo. {@code null} quando não há limite.
+     */
+    public static String prefixUpperBound(String prefix) {
+        int[] codePoints = prefix.codePoints().toArray();
+
+        for (int i = codePoints.length - 1; i >= 0; i--) {
+            if (codePoints[i] < Character.MAX_CODE_POINT) {
+                int next = codePoints[i] + 1;
+                codePoints[i] = next == Character.MIN_SURROGATE ? Character.MAX_SURROGATE + 1 : next;
+                return new String(codePoints, 0, i + 1);
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.backend.warmup;
+
+import com.example.backend.service.KeycloakAdminService;
+import com.example.backend.tenant.TenantContext;
+import com.example.backend.tenant.TenantRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(1)
+@RequiredArgsConstructor
+public class AdminTokenWarmupStep implements WarmupStep {
+
+    private final KeycloakAdminService keycloakAdminService;
+    private final TenantRegistry tenantRegistry;
+
+    @Override
+    public String name() {
+        return "admin-token";
+    }
+
+    @Override
+    public void run() {
+        tenantRegistry.all().forEach(tenant ->
+                TenantContext.runAs(tenant, keycloakAdminService::getAdminAccessToken));
+    }
+}
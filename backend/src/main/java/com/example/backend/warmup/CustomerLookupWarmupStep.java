@@ -0,0 +1,43 @@
+package com.example.backend.warmup;
+
+import com.example.backend.service.CustomerService;
+import com.example.backend.tenant.TenantContext;
+import com.example.backend.tenant.TenantRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(5)
+@RequiredArgsConstructor
+public class CustomerLookupWarmupStep implements WarmupStep {
+
+    private static final String SYNTHETIC_KEYCLOAK_USER_ID = "warmup";
+
+    private final CustomerService customerService;
+    private final TenantRegistry tenantRegistry;
+    private final WarmupProperties warmupProperties;
+
+    @Override
+    public String name() {
+        return "customer-lookup";
+    }
+
+    @Override
+    public void run() {
+        tenantRegistry.all().forEach(tenant -> TenantContext.runAs(tenant, () -> {
+            for (int i = 0; i < warmupProperties.getLookupIterations(); i++) {
+                customerService.findETagByKeycloakUserId(SYNTHETIC_KEYCLOAK_USER_ID);
+                findMissingCustomer();
+            }
+        }));
+    }
+
+    private void findMissingCustomer() {
+        try {
+            customerService.findByKeycloakUserId(SYNTHETIC_KEYCLOAK_USER_ID);
+        } catch (RuntimeException expected) {
+            // O cliente sintético não existe: a busca consulta o cache e o Mongo antes de falhar com "não encontrado"
+        }
+    }
+}
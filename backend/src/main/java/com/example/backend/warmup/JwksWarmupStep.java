@@ -0,0 +1,50 @@
+package com.example.backend.warmup;
+
+import com.example.backend.tenant.KeycloakTenant;
+import com.example.backend.tenant.TenantContext;
+import com.example.backend.tenant.TenantRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@Component
+@Order(2)
+@RequiredArgsConstructor
+public class JwksWarmupStep implements WarmupStep {
+
+    private static final String SYNTHETIC_TOKEN = encode("{\"alg\":\"RS256\",\"typ\":\"JWT\",\"kid\":\"warmup\"}")
+            + "." + encode("{\"sub\":\"warmup\"}")
+            + "." + encode("warmup");
+
+    private final JwtDecoder jwtDecoder;
+    private final TenantRegistry tenantRegistry;
+
+    @Override
+    public String name() {
+        return "jwks";
+    }
+
+    @Override
+    public void run() {
+        tenantRegistry.all().forEach(tenant -> TenantContext.runAs(tenant, () -> warmUp(tenant)));
+    }
+
+    private void warmUp(KeycloakTenant tenant) {
+        tenant.getRestTemplate().getForEntity(tenant.getJwksEndpoint(), String.class);
+
+        try {
+            jwtDecoder.decode(SYNTHETIC_TOKEN);
+        } catch (JwtException expected) {
+            // A chave "warmup" não existe: o decoder busca e mantém em cache o JWKS do realm antes de rejeitar o token
+        }
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.backend.warmup;
+
+import com.example.backend.tenant.KeycloakTenant;
+import com.example.backend.tenant.TenantRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(3)
+@RequiredArgsConstructor
+public class KeycloakConnectionsWarmupStep implements WarmupStep {
+
+    private final TenantRegistry tenantRegistry;
+    private final WarmupProperties warmupProperties;
+
+    @Override
+    public String name() {
+        return "keycloak-connections";
+    }
+
+    @Override
+    public void run() throws Exception {
+        for (KeycloakTenant tenant : tenantRegistry.all()) {
+            WarmupTasks.runConcurrently(warmupProperties.getKeycloakConnections(),
+                    () -> tenant.getRestTemplate().getForEntity(tenant.getJwksEndpoint(), String.class));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.backend.warmup;
+
+import com.example.backend.repository.CustomerReadRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(4)
+@RequiredArgsConstructor
+public class MongoConnectionsWarmupStep implements WarmupStep {
+
+    private final MongoTemplate mongoTemplate;
+    private final CustomerReadRepository customerReadRepository;
+    private final WarmupProperties warmupProperties;
+
+    @Override
+    public String name() {
+        return "mongo-connections";
+    }
+
+    @Override
+    public void run() throws Exception {
+        WarmupTasks.runConcurrently(warmupProperties.getMongoConnections(), () -> {
+            mongoTemplate.executeCommand("{ ping: 1 }");
+            customerReadRepository.findVersionByKeycloakUserId("warmup");
+        });
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.backend.warmup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "app.warmup")
+@Data
+public class WarmupProperties {
+
+    private boolean enabled = true;
+    private Duration timeout = Duration.ofSeconds(30);
+    private int keycloakConnections = 4;
+    private int mongoConnections = 4;
+    private int lookupIterations = 50;
+}
@@ -0,0 +1,47 @@
+package com.example.backend.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Etapa com falha ou warmup interrompido deixam o componente {@code UNKNOWN}: o status é visível no health, mas não
+ * derruba o grupo de readiness (o agregador só rebaixa o grupo para {@code DOWN}/{@code OUT_OF_SERVICE}).
+ */
+@Component("warmup")
+public class WarmupReport implements HealthIndicator {
+
+    private static final Set<String> INCOMPLETE = Set.of("TIMED_OUT", "FAILED");
+
+    private final Map<String, StepResult> results = new LinkedHashMap<>();
+    private volatile String status = "PENDING";
+
+    public synchronized void record(String step, long durationMillis, String outcome, boolean succeeded) {
+        results.put(step, new StepResult(durationMillis, outcome, succeeded));
+    }
+
+    public void finish(String finalStatus) {
+        this.status = finalStatus;
+    }
+
+    @Override
+    public synchronized Health health() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        results.forEach((step, result) -> details.put(step, Map.of(
+                "durationMs", result.durationMillis(),
+                "outcome", result.outcome()
+        )));
+
+        boolean failed = INCOMPLETE.contains(status) || results.values().stream().anyMatch(result -> !result.succeeded());
+        return (failed ? Health.unknown() : Health.up())
+                .withDetail("status", status)
+                .withDetail("steps", details)
+                .build();
+    }
+
+    private record StepResult(long durationMillis, String outcome, boolean succeeded) {}
+}
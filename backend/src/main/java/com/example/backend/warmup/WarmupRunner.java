@@ -0,0 +1,81 @@
+package com.example.backend.warmup;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class WarmupRunner implements ApplicationRunner {
+
+    private final WarmupProperties warmupProperties;
+    private final WarmupReport warmupReport;
+    private final List<WarmupStep> steps;
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        if (!warmupProperties.isEnabled()) {
+            warmupReport.finish("DISABLED");
+            return;
+        }
+
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        try {
+            Future<?> warmup = executor.submit(this::runSteps);
+            warmup.get(warmupProperties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            warmupReport.finish("COMPLETED");
+        } catch (TimeoutException e) {
+            log.warn("Warmup excedeu o timeout de {}; liberando readiness", warmupProperties.getTimeout());
+            warmupReport.finish("TIMED_OUT");
+        } catch (Exception e) {
+            log.error("Erro inesperado no warmup: {}", e.getMessage());
+            warmupReport.finish("FAILED");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        log.info("Warmup finalizado em {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void runSteps() {
+        for (WarmupStep step : steps) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            String outcome = "OK";
+            boolean succeeded = true;
+            try {
+                step.run();
+            } catch (Exception e) {
+                outcome = "FAILED: " + e.getMessage();
+                succeeded = false;
+                log.warn("Warmup step {} falhou: {}", step.name(), e.getMessage());
+            }
+
+            long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            warmupReport.record(step.name(), durationMillis, outcome, succeeded);
+            log.info("Warmup step {}: {} ms ({})", step.name(), durationMillis, outcome);
+        }
+    }
+}
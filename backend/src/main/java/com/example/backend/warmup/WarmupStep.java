@@ -0,0 +1,8 @@
+package com.example.backend.warmup;
+
+public interface WarmupStep {
+
+    String name();
+
+    void run() throws Exception;
+}
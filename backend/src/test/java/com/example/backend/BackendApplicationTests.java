@@ -3,7 +3,9 @@ package com.example.backend;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {"app.migrations.enabled=false", "app.warmup.enabled=false",
+        "customer.cache.invalidation.enabled=false", "keycloak.mirror.enabled=false",
+        "customer.bulk.worker-enabled=false"})
 class BackendApplicationTests {
 
     @Test
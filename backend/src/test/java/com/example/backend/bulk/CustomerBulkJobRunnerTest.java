@@ -0,0 +1,210 @@
+package com.example.backend.bulk;
+
+import com.example.backend.cache.CustomerCache;
+import com.example.backend.cache.CustomerVersionCache;
+import com.example.backend.service.KeycloakAdminService;
+import com.example.backend.service.KeycloakAttributeSync;
+import com.example.backend.tenant.KeycloakTenant;
+import com.example.backend.tenant.TenantRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomerBulkJobRunnerTest {
+
+    private static final String NODE_ID = "node-a";
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final KeycloakAdminService keycloakAdminService = mock(KeycloakAdminService.class);
+    private final BulkJobProperties properties = new BulkJobProperties();
+    private CustomerBulkJobRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        properties.setPollInterval(Duration.ofHours(1));
+        properties.setKeycloakRequestsPerSecond(1_000);
+        properties.setRetryBackoff(Duration.ofSeconds(30));
+        properties.setMaxAttempts(3);
+
+        KeycloakTenant tenant = mock(KeycloakTenant.class);
+        when(tenant.getId()).thenReturn("acme");
+        TenantRegistry tenantRegistry = mock(TenantRegistry.class);
+        when(tenantRegistry.get("acme")).thenReturn(Optional.of(tenant));
+
+        runner = new CustomerBulkJobRunner(mongoTemplate, tenantRegistry, keycloakAdminService,
+                mock(KeycloakAttributeSync.class), mock(CustomerCache.class), mock(CustomerVersionCache.class),
+                properties, NODE_ID);
+        runner.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        runner.stop();
+    }
+
+    @Test
+    void claimsOnlyDueJobsWithoutALiveLeaseFromAnotherNode() {
+        Instant before = Instant.now();
+        tick();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class),
+                eq(CustomerBulkJob.class));
+
+        Document criteria = query.getValue().getQueryObject();
+        assertThat(criteria.get("nextRunAt", Document.class)).containsKey("$lte");
+        assertThat(criteria.get("$or", List.class)).containsExactly(
+                new Document("leaseOwner", NODE_ID),
+                new Document("leaseUntil", new Document("$lt", criteria.get("nextRunAt", Document.class).get("$lte"))),
+                new Document("leaseUntil", new Document("$exists", false)));
+
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertThat(set.getString("leaseOwner")).isEqualTo(NODE_ID);
+        assertThat((Instant) set.get("leaseUntil"))
+                .isCloseTo(before.plus(properties.getLeaseDuration()), within(5, ChronoUnit.SECONDS));
+    }
+
+    @Test
+    void failedCleanupIsRetriedWithBackoffAndNotFoundCountsAsDone() {
+        CustomerBulkJob job = cleaningJob();
+        CustomerBulkJobItem unavailable = CustomerBulkJobItem.pending(job.getId(), "kc-1");
+        CustomerBulkJobItem alreadyGone = CustomerBulkJobItem.pending(job.getId(), "kc-2");
+        claimOnce(job);
+        when(mongoTemplate.find(any(Query.class), eq(CustomerBulkJobItem.class)))
+                .thenReturn(List.of(unavailable, alreadyGone), List.of());
+        doThrow(new RuntimeException("Falha ao deletar usuário do Keycloak"))
+                .when(keycloakAdminService).deleteUser("kc-1");
+        doThrow(new RuntimeException("Falha ao deletar usuário do Keycloak",
+                HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null)))
+                .when(keycloakAdminService).deleteUser("kc-2");
+        Instant retryAt = Instant.now().plus(properties.getRetryBackoff());
+        when(mongoTemplate.findOne(any(Query.class), eq(CustomerBulkJobItem.class)))
+                .thenReturn(CustomerBulkJobItem.builder().id(unavailable.getId()).nextAttemptAt(retryAt).build());
+
+        Instant before = Instant.now();
+        tick();
+
+        Document failed = itemUpdate(unavailable);
+        assertThat(failed.get("status")).isEqualTo(CustomerBulkJobItem.Status.FAILED);
+        assertThat(failed.get("attempts")).isEqualTo(1);
+        assertThat((Instant) failed.get("nextAttemptAt"))
+                .isCloseTo(before.plus(properties.getRetryBackoff()), within(5, ChronoUnit.SECONDS));
+        assertThat(itemUpdate(alreadyGone).get("status")).isEqualTo(CustomerBulkJobItem.Status.DONE);
+
+        Update rescheduled = lastJobUpdate();
+        assertThat(rescheduled.getUpdateObject().get("$set", Document.class).get("nextRunAt")).isEqualTo(retryAt);
+        assertThat(rescheduled.getUpdateObject().get("$unset", Document.class)).containsKeys("leaseOwner", "leaseUntil");
+    }
+
+    @Test
+    void backoffDoublesWithEachAttempt() {
+        CustomerBulkJob job = cleaningJob();
+        CustomerBulkJobItem item = CustomerBulkJobItem.pending(job.getId(), "kc-1");
+        item.setAttempts(2);
+        claimOnce(job);
+        when(mongoTemplate.find(any(Query.class), eq(CustomerBulkJobItem.class))).thenReturn(List.of(item), List.of());
+        doThrow(new RuntimeException("Keycloak indisponível")).when(keycloakAdminService).deleteUser("kc-1");
+
+        Instant before = Instant.now();
+        tick();
+
+        Document failed = itemUpdate(item);
+        assertThat(failed.get("attempts")).isEqualTo(3);
+        assertThat((Instant) failed.get("nextAttemptAt"))
+                .isCloseTo(before.plus(properties.getRetryBackoff().multipliedBy(4)), within(5, ChronoUnit.SECONDS));
+    }
+
+    @Test
+    void jobFinishesWithFailuresOnceNoItemCanBeRetried() {
+        CustomerBulkJob job = cleaningJob();
+        claimOnce(job);
+        when(mongoTemplate.find(any(Query.class), eq(CustomerBulkJobItem.class))).thenReturn(List.of());
+        when(mongoTemplate.count(any(Query.class), eq(CustomerBulkJobItem.class))).thenReturn(1L);
+
+        tick();
+
+        Document set = lastJobUpdate().getUpdateObject().get("$set", Document.class);
+        assertThat(set.get("status")).isEqualTo(CustomerBulkJob.Status.COMPLETED_WITH_FAILURES);
+        assertThat(set).containsKey("finishedAt");
+    }
+
+    @Test
+    void leaseIsRenewedOnlyWhileOwned() {
+        CustomerBulkJob job = cleaningJob();
+        claimOnce(job);
+        when(mongoTemplate.find(any(Query.class), eq(CustomerBulkJobItem.class)))
+                .thenReturn(List.of(CustomerBulkJobItem.pending(job.getId(), "kc-1")), List.of());
+
+        tick();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, atLeastOnce()).updateFirst(query.capture(), update.capture(), eq(CustomerBulkJob.class));
+        assertThat(query.getAllValues().get(0).getQueryObject()).containsEntry("leaseOwner", NODE_ID);
+        assertThat(update.getAllValues().get(0).getUpdateObject().get("$set", Document.class)).containsKey("leaseUntil");
+    }
+
+    private void tick() {
+        ReflectionTestUtils.invokeMethod(runner, "tick");
+    }
+
+    private void claimOnce(CustomerBulkJob job) {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(CustomerBulkJob.class))).thenReturn(job, (CustomerBulkJob) null);
+    }
+
+    private Document itemUpdate(CustomerBulkJobItem item) {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, atLeastOnce()).updateFirst(query.capture(), update.capture(), eq(CustomerBulkJobItem.class));
+
+        for (int i = 0; i < query.getAllValues().size(); i++) {
+            if (item.getId().equals(query.getAllValues().get(i).getQueryObject().get("id"))) {
+                return update.getAllValues().get(i).getUpdateObject().get("$set", Document.class);
+            }
+        }
+        throw new AssertionError("Item " + item.getId() + " não foi atualizado");
+    }
+
+    private Update lastJobUpdate() {
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, atLeastOnce()).updateFirst(any(Query.class), update.capture(), eq(CustomerBulkJob.class));
+        return update.getValue();
+    }
+
+    private static CustomerBulkJob cleaningJob() {
+        return CustomerBulkJob.builder()
+                .id("job-1")
+                .action(CustomerBulkJob.Action.DELETE)
+                .status(CustomerBulkJob.Status.CLEANING_KEYCLOAK)
+                .tenant("acme")
+                .nextRunAt(Instant.now())
+                .build();
+    }
+}
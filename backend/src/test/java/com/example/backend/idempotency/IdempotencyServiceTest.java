@@ -0,0 +1,167 @@
+package com.example.backend.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTest {
+
+    private final Map<String, IdempotencyRecord> records = new ConcurrentHashMap<>();
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final IdempotencyProperties properties = new IdempotencyProperties();
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        properties.setWaitTimeout(Duration.ofMillis(50));
+        properties.setPollInterval(Duration.ofMillis(5));
+
+        when(mongoTemplate.findById(anyString(), eq(IdempotencyRecord.class)))
+                .thenAnswer(invocation -> records.get(invocation.<String>getArgument(0)));
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            IdempotencyRecord record = invocation.getArgument(0);
+            if (records.putIfAbsent(record.getId(), record) != null) {
+                throw new DuplicateKeyException(record.getId());
+            }
+            return record;
+        });
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(IdempotencyRecord.class)))
+                .thenAnswer(invocation -> {
+                    IdempotencyRecord record = records.get(idOf(invocation.getArgument(0)));
+                    Document set = invocation.<Update>getArgument(1).getUpdateObject().get("$set", Document.class);
+                    record.setStatus((IdempotencyRecord.Status) set.get("status"));
+                    record.setResult(set.getString("result"));
+                    record.setExpiresAt((Instant) set.get("expiresAt"));
+                    return null;
+                });
+        when(mongoTemplate.remove(any(Query.class), eq(IdempotencyRecord.class)))
+                .thenAnswer(invocation -> {
+                    records.remove(idOf(invocation.getArgument(0)));
+                    return null;
+                });
+    }
+
+    @Test
+    void replaysStoredResultForTheSameKeyAndPayload() {
+        Receipt first = execute(service(), "key-1", "maria");
+        Receipt replayed = execute(service(), "key-1", "maria");
+
+        assertThat(replayed).isEqualTo(first);
+        assertThat(executions).hasValue(1);
+        assertThat(records.get("register:key-1").getStatus()).isEqualTo(IdempotencyRecord.Status.COMPLETED);
+    }
+
+    @Test
+    void replaysFromTheFrontCacheWithoutReadingMongo() {
+        IdempotencyService service = service();
+        Receipt first = execute(service, "key-1", "maria");
+        records.clear();
+
+        assertThat(execute(service, "key-1", "maria")).isEqualTo(first);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void sameKeyWithAnotherPayloadIsRejected() {
+        execute(service(), "key-1", "maria");
+
+        assertThatThrownBy(() -> execute(service(), "key-1", "joana"))
+                .isInstanceOfSatisfying(IdempotencyConflictException.class, e ->
+                        assertThat(e.getStatus()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void keyStillInProgressIsAConflictAfterTheWaitTimeout() {
+        IdempotencyService service = service();
+        records.put("register:key-1", IdempotencyRecord.builder()
+                .id("register:key-1")
+                .fingerprint(fingerprintOf("maria"))
+                .status(IdempotencyRecord.Status.IN_PROGRESS)
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build());
+
+        assertThatThrownBy(() -> execute(service, "key-1", "maria"))
+                .isInstanceOfSatisfying(IdempotencyConflictException.class, e ->
+                        assertThat(e.getStatus()).isEqualTo(HttpStatus.CONFLICT));
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    void abandonedKeyIsTakenOver() {
+        records.put("register:key-1", IdempotencyRecord.builder()
+                .id("register:key-1")
+                .fingerprint(fingerprintOf("maria"))
+                .status(IdempotencyRecord.Status.IN_PROGRESS)
+                .expiresAt(Instant.now().minusSeconds(1))
+                .build());
+
+        execute(service(), "key-1", "maria");
+
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void failedActionReleasesTheKey() {
+        IdempotencyService service = service();
+
+        assertThatThrownBy(() -> service.execute("register", "key-1", "maria", Receipt.class, () -> {
+            throw new IllegalStateException("Keycloak indisponível");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(records).isEmpty();
+
+        execute(service, "key-1", "maria");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void requestsWithoutKeyAlwaysRun() {
+        IdempotencyService service = service();
+        execute(service, null, "maria");
+        execute(service, " ", "maria");
+
+        assertThat(executions).hasValue(2);
+        assertThat(records).isEmpty();
+    }
+
+    private IdempotencyService service() {
+        return new IdempotencyService(mongoTemplate, new ObjectMapper(), properties);
+    }
+
+    private Receipt execute(IdempotencyService service, String key, String payload) {
+        return service.execute("register", key, payload, Receipt.class,
+                () -> new Receipt("customer-" + executions.incrementAndGet()));
+    }
+
+    private String fingerprintOf(String payload) {
+        IdempotencyService probe = service();
+        probe.execute("probe", "fingerprint", payload, Receipt.class, () -> new Receipt("probe"));
+        return records.remove("probe:fingerprint").getFingerprint();
+    }
+
+    private static String idOf(Query query) {
+        return query.getQueryObject().getString("_id");
+    }
+
+    record Receipt(String customerId) {}
+}
@@ -0,0 +1,114 @@
+package com.example.backend.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resume uma gravação JFR por etapa: quantidade, erros, percentis e tempo total.
+ * Ferramenta de linha de comando, fora do artefato da aplicação. Uso:
+ * {@code java src/test/java/com/example/backend/jfr/StageRecordingAnalyzer.java gravacao.jfr [fluxo]}
+ */
+public class StageRecordingAnalyzer {
+
+    private static final String EVENT_PREFIX = "com.example.backend.";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Uso: StageRecordingAnalyzer <gravacao.jfr> [fluxo]");
+            System.exit(1);
+        }
+
+        String flowFilter = args.length > 1 ? args[1] : null;
+        Map<String, StageStats> stats = summarize(Path.of(args[0]), flowFilter);
+        print(stats.values());
+    }
+
+    static Map<String, StageStats> summarize(Path recording, String flowFilter) throws IOException {
+        Map<String, StageStats> stats = new TreeMap<>();
+
+        for (RecordedEvent event : RecordingFile.readAllEvents(recording)) {
+            String type = event.getEventType().getName();
+            if (!type.startsWith(EVENT_PREFIX)) {
+                continue;
+            }
+
+            String flow = event.getString("flow");
+            if (flowFilter != null && !flowFilter.equals(flow)) {
+                continue;
+            }
+
+            String component = type.substring(EVENT_PREFIX.length());
+            String stage = event.getString("stage");
+            stats.computeIfAbsent(component + "/" + stage, key -> new StageStats(component, stage))
+                    .add(event.getDuration(), event.getString("outcome"));
+        }
+
+        return stats;
+    }
+
+    private static void print(Iterable<StageStats> stats) {
+        List<StageStats> sorted = new ArrayList<>();
+        stats.forEach(sorted::add);
+        sorted.sort(Comparator.comparing(StageStats::totalNanos).reversed());
+
+        System.out.printf("%-20s %-34s %8s %7s %9s %9s %9s %9s %10s%n",
+                "componente", "etapa", "qtd", "erros", "p50(ms)", "p95(ms)", "p99(ms)", "max(ms)", "total(ms)");
+        for (StageStats stage : sorted) {
+            System.out.printf("%-20s %-34s %8d %7d %9.2f %9.2f %9.2f %9.2f %10.1f%n",
+                    stage.component, stage.stage, stage.count(), stage.errors,
+                    stage.percentileMillis(0.50), stage.percentileMillis(0.95), stage.percentileMillis(0.99),
+                    stage.percentileMillis(1.0), stage.totalNanos() / 1_000_000.0);
+        }
+    }
+
+    static final class StageStats {
+
+        private final String component;
+        private final String stage;
+        private final List<Long> durations = new ArrayList<>();
+        private long errors;
+        private long totalNanos;
+        private boolean sorted;
+
+        StageStats(String component, String stage) {
+            this.component = component;
+            this.stage = stage;
+        }
+
+        void add(Duration duration, String outcome) {
+            long nanos = duration.toNanos();
+            durations.add(nanos);
+            totalNanos += nanos;
+            sorted = false;
+            if ("error".equals(outcome)) {
+                errors++;
+            }
+        }
+
+        int count() {
+            return durations.size();
+        }
+
+        long totalNanos() {
+            return totalNanos;
+        }
+
+        double percentileMillis(double percentile) {
+            if (!sorted) {
+                durations.sort(null);
+                sorted = true;
+            }
+            int index = (int) Math.ceil(percentile * durations.size()) - 1;
+            return durations.get(Math.max(0, index)) / 1_000_000.0;
+        }
+    }
+}
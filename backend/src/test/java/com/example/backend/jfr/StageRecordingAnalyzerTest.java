@@ -0,0 +1,50 @@
+package com.example.backend.jfr;
+
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StageRecordingAnalyzerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void summarizesStagesOfTheRequestedFlow() throws Exception {
+        Path file = tempDir.resolve("auth.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(AuthFlowStageEvent.class).withoutThreshold();
+            recording.start();
+            emit("login", "passwordGrant", "success");
+            emit("login", "passwordGrant", "error");
+            emit("login", "decodeJwt", "success");
+            emit("register", "passwordGrant", "success");
+            recording.stop();
+            recording.dump(file);
+        }
+
+        Map<String, StageRecordingAnalyzer.StageStats> stats = StageRecordingAnalyzer.summarize(file, "login");
+
+        assertThat(stats).containsOnlyKeys("AuthFlowStage/passwordGrant", "AuthFlowStage/decodeJwt");
+        StageRecordingAnalyzer.StageStats passwordGrant = stats.get("AuthFlowStage/passwordGrant");
+        assertThat(passwordGrant.count()).isEqualTo(2);
+        assertThat(passwordGrant.percentileMillis(1.0)).isGreaterThanOrEqualTo(passwordGrant.percentileMillis(0.5));
+        assertThat(StageRecordingAnalyzer.summarize(file, null).get("AuthFlowStage/passwordGrant").count())
+                .isEqualTo(3);
+    }
+
+    private static void emit(String flow, String stage, String outcome) {
+        AuthFlowStageEvent event = new AuthFlowStageEvent();
+        event.begin();
+        event.flow = flow;
+        event.stage = stage;
+        event.outcome = outcome;
+        event.end();
+        event.commit();
+    }
+}
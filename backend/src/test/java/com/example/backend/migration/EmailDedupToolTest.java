@@ -0,0 +1,102 @@
+package com.example.backend.migration;
+
+import com.example.backend.bulk.CustomerBulkService;
+import com.example.backend.model.Customer;
+import com.example.backend.tenant.TenantProperties;
+import com.mongodb.MongoException;
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmailDedupToolTest {
+
+    private final ObjectId survivorId = new ObjectId();
+    private final ObjectId loserId = new ObjectId();
+    private final Map<Object, Document> archived = new HashMap<>();
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private MongoCollection<Document> customers;
+    private EmailDedupTool tool;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        customers = mock(MongoCollection.class);
+        MongoCollection<Document> archive = mock(MongoCollection.class);
+        when(mongoTemplate.getCollectionName(Customer.class)).thenReturn("customers");
+        when(mongoTemplate.getCollection("customers")).thenReturn(customers);
+        when(mongoTemplate.getCollection(EmailDedupTool.ARCHIVE_COLLECTION)).thenReturn(archive);
+
+        Document survivor = new Document("_id", survivorId).append("tenant", "acme")
+                .append("emailNormalized", "maria@example.com").append("keycloakUserId", "kc-1");
+        Document loser = new Document("_id", loserId).append("tenant", "acme")
+                .append("emailNormalized", "maria@example.com").append("keycloakUserId", "kc-2");
+        Document group = new Document("_id", new Document("tenant", "acme").append("email", "maria@example.com"))
+                .append("count", 2).append("ids", List.of(survivorId, loserId));
+
+        AggregateIterable<Document> groups = mock(AggregateIterable.class);
+        when(customers.aggregate(anyList())).thenReturn(groups);
+        when(groups.into(any())).thenAnswer(invocation -> fill(invocation.getArgument(0), List.of(group)));
+        FindIterable<Document> duplicates = mock(FindIterable.class);
+        when(customers.find(any(Bson.class))).thenReturn(duplicates);
+        when(duplicates.sort(any())).thenReturn(duplicates);
+        when(duplicates.into(any())).thenAnswer(invocation -> fill(invocation.getArgument(0), List.of(survivor, loser)));
+
+        when(archive.bulkWrite(anyList())).thenAnswer(invocation -> {
+            for (WriteModel<Document> model : invocation.<List<WriteModel<Document>>>getArgument(0)) {
+                ReplaceOneModel<Document> replace = (ReplaceOneModel<Document>) model;
+                assertThat(replace.getReplaceOptions().isUpsert()).isTrue();
+                archived.put(replace.getReplacement().get("_id"), replace.getReplacement());
+            }
+            return null;
+        });
+
+        tool = new EmailDedupTool(mock(CustomerBulkService.class), new TenantProperties());
+    }
+
+    @Test
+    void rerunAfterPartialFailureRewritesTheArchivedLoser() {
+        when(customers.deleteMany(any(Bson.class)))
+                .thenThrow(new MongoException("conexão perdida"))
+                .thenReturn(null);
+
+        assertThatThrownBy(() -> tool.deduplicate(mongoTemplate, true)).isInstanceOf(MongoException.class);
+        EmailDedupTool.DedupReport report = tool.deduplicate(mongoTemplate, true);
+
+        assertThat(report.removed()).isEqualTo(1);
+        assertThat(archived).containsOnlyKeys(loserId);
+        assertThat(archived.get(loserId).get("mergedInto")).isEqualTo(survivorId);
+    }
+
+    @Test
+    void dryRunArchivesNothing() {
+        EmailDedupTool.DedupReport report = tool.deduplicate(mongoTemplate, false);
+
+        assertThat(report.groups()).isEqualTo(1);
+        assertThat(archived).isEmpty();
+    }
+
+    private static <T extends Collection<Document>> T fill(T target, List<Document> documents) {
+        documents.forEach(document -> target.add(new Document(document)));
+        return target;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.backend.record;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CpfTest {
+
+    @Test
+    void acceptsValidCheckDigits() {
+        assertThat(Cpf.hasValidCheckDigits(52998224725L)).isTrue();
+        assertThat(Cpf.hasValidCheckDigits(11144477735L)).isTrue();
+    }
+
+    @Test
+    void rejectsWrongCheckDigits() {
+        assertThat(Cpf.hasValidCheckDigits(52998224724L)).isFalse();
+        assertThat(Cpf.hasValidCheckDigits(52998224715L)).isFalse();
+    }
+
+    @Test
+    void rejectsRepeatedDigitsAndOutOfRangeValues() {
+        assertThat(Cpf.hasValidCheckDigits(11111111111L)).isFalse();
+        assertThat(Cpf.hasValidCheckDigits(0L)).isFalse();
+        assertThat(Cpf.hasValidCheckDigits(-52998224725L)).isFalse();
+        assertThat(Cpf.hasValidCheckDigits(529982247250L)).isFalse();
+    }
+
+    @Test
+    void normalizesMaskedAndPlainInput() {
+        assertThat(Cpf.normalize("529.982.247-25")).isEqualTo(52998224725L);
+        assertThat(Cpf.normalize(" 52998224725 ")).isEqualTo(52998224725L);
+        assertThat(Cpf.normalize("012.345.678-90")).isEqualTo(1234567890L);
+    }
+
+    @Test
+    void normalizeRejectsMalformedInput() {
+        assertThat(Cpf.normalize(null)).isEqualTo(Cpf.INVALID);
+        assertThat(Cpf.normalize("529.982.247/25")).isEqualTo(Cpf.INVALID);
+        assertThat(Cpf.normalize("5299822472")).isEqualTo(Cpf.INVALID);
+        assertThat(Cpf.normalize("529982247250")).isEqualTo(Cpf.INVALID);
+        assertThat(Cpf.normalize("maria@example.com")).isEqualTo(Cpf.INVALID);
+    }
+
+    @Test
+    void formatsAsElevenDigitsKeepingLeadingZeros() {
+        assertThat(Cpf.of("012.345.678-90")).hasToString("01234567890");
+        assertThat(new Cpf(191L)).hasToString("00000000191");
+    }
+
+    @Test
+    void parseAndOfAgreeOnInvalidInput() {
+        assertThat(Cpf.parse("529.982.247-24")).isEmpty();
+        assertThat(Cpf.parse("529.982.247-25")).contains(new Cpf(52998224725L));
+        assertThatThrownBy(() -> Cpf.of("529.982.247-24")).hasMessage("CPF inválido");
+        assertThatThrownBy(() -> new Cpf(52998224724L)).hasMessage("CPF inválido");
+    }
+}
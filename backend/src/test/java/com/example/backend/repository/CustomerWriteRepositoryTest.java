@@ -0,0 +1,129 @@
+package com.example.backend.repository;
+
+import com.example.backend.config.MongoConversionsConfig;
+import com.example.backend.model.Customer;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CustomerWriteRepositoryTest {
+
+    private static final LocalDateTime FLUSHED_LOGIN = LocalDateTime.of(2026, 10, 1, 12, 0);
+
+    private MappingMongoConverter converter;
+    private MongoTemplate mongoTemplate;
+    private CustomerWriteRepository repository;
+    private Document stored;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoConversionsConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Customer.class))).thenAnswer(invocation -> findAndModify(invocation.getArgument(0),
+                invocation.getArgument(1)));
+        repository = new CustomerWriteRepository(mongoTemplate);
+    }
+
+    @Test
+    void profileSaveKeepsActivityFlushedAfterTheRead() {
+        Customer read = customer(3L, "Maria", LocalDateTime.of(2026, 9, 1, 8, 0), 2L, "google");
+        stored = document(customer(3L, "Maria", FLUSHED_LOGIN, 5L, "github"));
+
+        read.setName("Maria Souza");
+        Customer saved = repository.updateProfile(read);
+
+        assertThat(saved.getName()).isEqualTo("Maria Souza");
+        assertThat(saved.getVersion()).isEqualTo(4L);
+        assertThat(saved.getLoginCount()).isEqualTo(5L);
+        assertThat(saved.getLastLoginAt()).isEqualTo(FLUSHED_LOGIN);
+        assertThat(saved.getLastIdentityProvider()).isEqualTo("github");
+    }
+
+    @Test
+    void absentProfileFieldsAreUnset() {
+        Customer current = customer(1L, "Maria", FLUSHED_LOGIN, 1L, null);
+        current.setBirthDate(LocalDate.of(1990, 1, 1));
+        stored = document(current);
+
+        Customer saved = repository.updateProfile(customer(1L, "Maria", null, null, null));
+
+        assertThat(saved.getBirthDate()).isNull();
+        assertThat(saved.getLastLoginAt()).isEqualTo(FLUSHED_LOGIN);
+    }
+
+    @Test
+    void staleVersionIsRejected() {
+        stored = document(customer(4L, "Maria", FLUSHED_LOGIN, 5L, null));
+
+        assertThatThrownBy(() -> repository.updateProfile(customer(3L, "Maria Souza", null, null, null)))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(stored.getString("name")).isEqualTo("Maria");
+    }
+
+    private Customer findAndModify(Query query, Update update) {
+        Document criteria = query.getQueryObject();
+        if (!criteria.get("_id").equals(stored.get("_id"))
+                || !criteria.get("tenant").equals(stored.get("tenant"))
+                || !criteria.get("version").equals(stored.get("version"))) {
+            return null;
+        }
+
+        Document operations = update.getUpdateObject();
+        operations.get("$set", Document.class).forEach(stored::put);
+        Document unset = operations.get("$unset", Document.class);
+        if (unset != null) {
+            unset.keySet().forEach(stored::remove);
+        }
+        operations.get("$inc", Document.class).forEach((field, delta) ->
+                stored.put(field, stored.getLong(field) + ((Number) delta).longValue()));
+        return converter.read(Customer.class, new Document(stored));
+    }
+
+    private Document document(Customer customer) {
+        Document document = new Document();
+        converter.write(customer, document);
+        return document;
+    }
+
+    private static Customer customer(Long version, String name, LocalDateTime lastLoginAt, Long loginCount,
+                                     String identityProvider) {
+        return Customer.builder()
+                .id("c-1")
+                .tenant("acme")
+                .email("maria@example.com")
+                .name(name)
+                .version(version)
+                .lastLoginAt(lastLoginAt)
+                .loginCount(loginCount)
+                .lastIdentityProvider(identityProvider)
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.backend.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void rejectsRequestsBeyondTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 1, 10);
+
+        AdaptiveConcurrencyLimiter.Permit first = limiter.tryAcquire().orElseThrow();
+        limiter.tryAcquire().orElseThrow();
+
+        assertThat(limiter.tryAcquire()).isEmpty();
+        assertThat(limiter.getRejected()).isEqualTo(1);
+
+        first.onIgnore();
+        assertThat(limiter.tryAcquire()).isPresent();
+    }
+
+    @Test
+    void releasingTwiceFreesASingleSlot() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 1, 10);
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire().orElseThrow();
+        limiter.tryAcquire().orElseThrow();
+
+        permit.onIgnore();
+        permit.onIgnore();
+
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void dropsShrinkTheLimitDownToTheMinimum() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 7, 20);
+
+        limiter.tryAcquire().orElseThrow().onDropped();
+        assertThat(limiter.getLimit()).isEqualTo(9);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire().orElseThrow().onDropped();
+        }
+        assertThat(limiter.getLimit()).isEqualTo(7);
+    }
+
+    @Test
+    void saturatedWithoutQueueingGrowsUpToTheMaximum() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 1, 8);
+
+        limiter.tryAcquire().orElseThrow();
+        limiter.tryAcquire().orElseThrow().onSuccess();
+
+        assertThat(limiter.getLimit()).isEqualTo(8);
+    }
+
+    @Test
+    void lowUtilizationDoesNotGrowTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 1, 100);
+
+        limiter.tryAcquire().orElseThrow().onSuccess();
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void ignoredPermitsAreNotSampled() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 1, 100);
+
+        limiter.tryAcquire().orElseThrow().onIgnore();
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(int initial, int min, int max) {
+        ConcurrencyLimitProperties.Limit settings = new ConcurrencyLimitProperties.Limit(initial, min, max);
+        settings.setSmoothing(1.0);
+        return new AdaptiveConcurrencyLimiter("test", settings);
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.backend.resilience;
+
+import com.example.backend.tenant.KeycloakTenant;
+import com.example.backend.tenant.TenantContext;
+import com.example.backend.tenant.TenantRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HedgedRequestsTest {
+
+    private final HedgingProperties properties = new HedgingProperties();
+    private final KeycloakTenant tenant = mock(KeycloakTenant.class);
+    private final AtomicInteger calls = new AtomicInteger();
+    private HedgedRequests hedgedRequests;
+
+    @BeforeEach
+    void setUp() {
+        properties.setMaxHedgeDelay(Duration.ofMillis(50));
+        properties.setInitialBackoff(Duration.ofMillis(1));
+        properties.setMaxBackoff(Duration.ofMillis(1));
+        when(tenant.getId()).thenReturn("acme");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (hedgedRequests != null) {
+            hedgedRequests.destroy();
+        }
+    }
+
+    @Test
+    void returnsTheFirstResponseInTheCallersTenant() {
+        String result = hedgedRequests().call("admin.user-by-id", () -> {
+            calls.incrementAndGet();
+            return TenantContext.currentId();
+        });
+
+        assertThat(result).isEqualTo("acme");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void retriesTransientFailures() {
+        String result = hedgedRequests().call("admin.user-by-id", () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+            }
+            return "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void retriesIoFailures() {
+        String result = hedgedRequests().call("admin.user-by-id", () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new ResourceAccessException("conexão recusada", new IOException("connection refused"));
+            }
+            return "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+    }
+
+    @Test
+    void doesNotRetryClientErrors() {
+        assertThatThrownBy(() -> hedgedRequests().call("admin.user-by-id", () -> {
+            calls.incrementAndGet();
+            throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+        })).isInstanceOf(HttpClientErrorException.class);
+
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void givesUpAfterMaxRetries() {
+        properties.setMaxRetries(2);
+
+        assertThatThrownBy(() -> hedgedRequests().call("admin.user-by-id", () -> {
+            calls.incrementAndGet();
+            throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+        })).isInstanceOf(HttpServerErrorException.class);
+
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void exhaustedRetryBudgetStopsRetries() {
+        properties.setRetryBudgetMaxTokens(0);
+        properties.setRetryBudgetMinPerSecond(0);
+        properties.setRetryBudgetRatio(0.0);
+
+        assertThatThrownBy(() -> hedgedRequests().call("admin.user-by-id", () -> {
+            calls.incrementAndGet();
+            throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+        })).isInstanceOf(HttpServerErrorException.class);
+
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void slowRequestIsHedgedAndTheLoserCancelled() throws InterruptedException {
+        CountDownLatch slowCancelled = new CountDownLatch(1);
+
+        long started = System.nanoTime();
+        String result = hedgedRequests().call("admin.user-by-id", () -> {
+            if (calls.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(5_000);
+                    return "slow";
+                } catch (InterruptedException e) {
+                    slowCancelled.countDown();
+                    return "cancelled";
+                }
+            }
+            return "hedge";
+        });
+
+        assertThat(result).isEqualTo("hedge");
+        assertThat(calls).hasValue(2);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(2_000);
+        assertThat(slowCancelled.await(2, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void disabledHedgingCallsDirectly() {
+        properties.setEnabled(false);
+
+        String result = hedgedRequests().call("admin.user-by-id", () -> {
+            calls.incrementAndGet();
+            return Thread.currentThread().isVirtual() ? "virtual" : "caller";
+        });
+
+        assertThat(result).isEqualTo("caller");
+        assertThat(calls).hasValue(1);
+    }
+
+    private HedgedRequests hedgedRequests() {
+        TenantRegistry tenantRegistry = mock(TenantRegistry.class);
+        when(tenantRegistry.current()).thenReturn(tenant);
+        hedgedRequests = new HedgedRequests(properties, tenantRegistry);
+        return hedgedRequests;
+    }
+}
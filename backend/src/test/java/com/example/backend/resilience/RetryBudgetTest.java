@@ -0,0 +1,57 @@
+package com.example.backend.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryBudgetTest {
+
+    @Test
+    void startsFullAndStopsWhenDrained() {
+        RetryBudget budget = new RetryBudget(0.1, 0, 3);
+
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void requestsDepositAFractionOfAToken() {
+        RetryBudget budget = drained(new RetryBudget(0.5, 0, 10));
+
+        budget.recordRequest();
+        assertThat(budget.tryAcquire()).isFalse();
+
+        budget.recordRequest();
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void balanceIsCappedAtMaxTokens() {
+        RetryBudget budget = new RetryBudget(1.0, 0, 2);
+
+        for (int i = 0; i < 100; i++) {
+            budget.recordRequest();
+        }
+
+        assertThat(budget.available()).isEqualTo(2.0);
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        RetryBudget budget = drained(new RetryBudget(0.0, 1_000, 5));
+
+        Thread.sleep(20);
+
+        assertThat(budget.tryAcquire()).isTrue();
+    }
+
+    private static RetryBudget drained(RetryBudget budget) {
+        while (budget.tryAcquire()) {
+            // esvazia o saldo inicial
+        }
+        return budget;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.backend.security;
+
+import com.example.backend.tenant.KeycloakTenant;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ClaimPolicyDecisionTest {
+
+    private static final CompiledPolicy ADMIN = new CompiledPolicy("CustomerController#findAll", ClaimPolicy.Rule.ADMIN, null);
+    private static final CompiledPolicy OWNER_OR_ADMIN = new CompiledPolicy("CustomerController#findByKeycloakUserId",
+            ClaimPolicy.Rule.OWNER_OR_ADMIN, "keycloakUserId");
+    private static final CompiledPolicy AUTHENTICATED = new CompiledPolicy("CustomerController#search",
+            ClaimPolicy.Rule.AUTHENTICATED, null);
+
+    private final KeycloakTenant acme = tenant("acme");
+    private final KeycloakTenant globex = tenant("globex");
+    private final AuthorizationDecisionCache decisionCache = new AuthorizationDecisionCache(new AuthorizationProperties());
+
+    @Test
+    void ownerReadsOnlyTheirOwnCustomer() {
+        Jwt token = token(acme, "kc-1", List.of());
+
+        assertThat(decisionCache.decide(acme, token, OWNER_OR_ADMIN, owner("kc-1"))).isTrue();
+        assertThat(decisionCache.decide(acme, token, OWNER_OR_ADMIN, owner("kc-2"))).isFalse();
+        assertThat(decisionCache.decide(acme, token, ADMIN, Map.of())).isFalse();
+    }
+
+    @Test
+    void tenantAdminReadsAnyCustomerOfTheTenant() {
+        Jwt token = token(acme, "kc-admin", List.of("customer-admin"));
+
+        assertThat(decisionCache.decide(acme, token, ADMIN, Map.of())).isTrue();
+        assertThat(decisionCache.decide(acme, token, OWNER_OR_ADMIN, owner("kc-2"))).isTrue();
+    }
+
+    @Test
+    void adminRoleFromTheTenantClientCounts() {
+        Jwt token = baseToken(acme, "kc-admin")
+                .claim("resource_access", Map.of("acme-client", Map.of("roles", List.of("customer-admin"))))
+                .build();
+
+        assertThat(decisionCache.decide(acme, token, ADMIN, Map.of())).isTrue();
+    }
+
+    @Test
+    void adminOfAnotherTenantIsDenied() {
+        Jwt globexAdmin = token(globex, "kc-admin", List.of("customer-admin"));
+
+        assertThat(decisionCache.decide(acme, globexAdmin, ADMIN, Map.of())).isFalse();
+        assertThat(decisionCache.decide(acme, globexAdmin, OWNER_OR_ADMIN, owner("kc-2"))).isFalse();
+    }
+
+    @Test
+    void decisionsAreNotSharedAcrossTenants() {
+        Jwt globexAdmin = token(globex, "kc-admin", List.of("customer-admin"));
+
+        assertThat(decisionCache.decide(globex, globexAdmin, ADMIN, Map.of())).isTrue();
+        assertThat(decisionCache.decide(acme, globexAdmin, ADMIN, Map.of())).isFalse();
+    }
+
+    @Test
+    void principalOfAnotherTenantIsNotAdminHere() {
+        ClaimPrincipal globexAdmin = new ClaimPrincipal("kc-admin", "globex", Set.of("customer-admin"), true,
+                Instant.now().plusSeconds(300));
+
+        assertThat(ADMIN.permits(globexAdmin, "acme", Map.of())).isFalse();
+        assertThat(ADMIN.permits(globexAdmin, "globex", Map.of())).isTrue();
+    }
+
+    @Test
+    void authenticatedRequiresASubject() {
+        assertThat(decisionCache.decide(acme, token(acme, "kc-1", List.of()), AUTHENTICATED, Map.of())).isTrue();
+        assertThat(decisionCache.decide(acme, baseToken(acme, null).build(), AUTHENTICATED, Map.of())).isFalse();
+    }
+
+    @Test
+    void ownerDecisionsAreKeyedByTheOwner() {
+        assertThat(OWNER_OR_ADMIN.decisionKey(owner("kc-1"))).isNotEqualTo(OWNER_OR_ADMIN.decisionKey(owner("kc-2")));
+        assertThat(ADMIN.decisionKey(owner("kc-1"))).isEqualTo(ADMIN.decisionKey(Map.of()));
+    }
+
+    private static Map<String, String> owner(String keycloakUserId) {
+        return Map.of("keycloakUserId", keycloakUserId);
+    }
+
+    private static Jwt token(KeycloakTenant issuer, String subject, List<String> realmRoles) {
+        return baseToken(issuer, subject).claim("realm_access", Map.of("roles", realmRoles)).build();
+    }
+
+    private static Jwt.Builder baseToken(KeycloakTenant issuer, String subject) {
+        Jwt.Builder builder = Jwt.withTokenValue(issuer.getId() + "-" + subject)
+                .header("alg", "RS256")
+                .issuer(issuer.getIssuerUri())
+                .jti(issuer.getId() + ":" + subject)
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(300));
+        return subject != null ? builder.subject(subject) : builder;
+    }
+
+    private static KeycloakTenant tenant(String id) {
+        KeycloakTenant tenant = mock(KeycloakTenant.class);
+        when(tenant.getId()).thenReturn(id);
+        when(tenant.getClientId()).thenReturn(id + "-client");
+        when(tenant.getIssuerUri()).thenReturn("http://keycloak/realms/" + id);
+        return tenant;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.backend.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PublicPathBearerTokenResolverTest {
+
+    private final PublicPathBearerTokenResolver resolver = new PublicPathBearerTokenResolver("/auth/**", "/api/auth/**");
+
+    @Test
+    void ignoresTokenOnPublicAuthPaths() {
+        assertThat(resolver.resolve(request("/auth/refresh"))).isNull();
+        assertThat(resolver.resolve(request("/api/auth/login"))).isNull();
+    }
+
+    @Test
+    void resolvesTokenOnProtectedPaths() {
+        assertThat(resolver.resolve(request("/api/customers/by-keycloak/kc-1"))).isEqualTo("expired-token");
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setServletPath(path);
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer expired-token");
+        return request;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.backend.service;
+
+import com.example.backend.mirror.KeycloakUserMirror;
+import com.example.backend.resilience.HedgedRequests;
+import com.example.backend.tenant.KeycloakTenant;
+import com.example.backend.tenant.TenantRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KeycloakAdminServiceTest {
+
+    private static final String USER_ID = "kc-1";
+
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private KeycloakAdminService keycloakAdminService;
+    private Map<String, List<String>> remoteAttributes;
+
+    @BeforeEach
+    void setUp() {
+        KeycloakTenant tenant = mock(KeycloakTenant.class);
+        when(tenant.getId()).thenReturn("acme");
+        when(tenant.getAdminRealmEndpoint()).thenReturn("http://keycloak/admin/realms/acme");
+        when(tenant.getAdminUsersEndpoint()).thenReturn("http://keycloak/admin/realms/acme/users");
+        when(tenant.getAdminTokenEndpoint()).thenReturn("http://keycloak/realms/master/protocol/openid-connect/token");
+        when(tenant.getRestTemplate()).thenReturn(restTemplate);
+
+        TenantRegistry tenantRegistry = mock(TenantRegistry.class);
+        when(tenantRegistry.current()).thenReturn(tenant);
+        when(tenantRegistry.all()).thenReturn(List.of(tenant));
+
+        HedgedRequests hedgedRequests = mock(HedgedRequests.class);
+        when(hedgedRequests.call(anyString(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<?>>getArgument(1).get());
+
+        when(restTemplate.postForEntity(anyString(), any(), eq(Map.class)))
+                .thenAnswer(invocation -> ResponseEntity.ok(Map.of("access_token", "admin-token", "expires_in", 300)));
+        when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class), eq(Map.class)))
+                .thenAnswer(invocation -> ResponseEntity.ok(remoteUser()));
+
+        keycloakAdminService = new KeycloakAdminService();
+        ReflectionTestUtils.setField(keycloakAdminService, "tenantRegistry", tenantRegistry);
+        ReflectionTestUtils.setField(keycloakAdminService, "userMirror", mock(KeycloakUserMirror.class));
+        ReflectionTestUtils.setField(keycloakAdminService, "hedgedRequests", hedgedRequests);
+        keycloakAdminService.initUriTemplates();
+    }
+
+    @Test
+    void changedAttributeModifiedElsewhereIsRejected() {
+        remoteAttributes = Map.of("document", List.of("11144477735"));
+
+        assertThatThrownBy(() -> keycloakAdminService.updateCustomAttributes(USER_ID,
+                Map.of("document", List.of("52998224725")),
+                Map.of("document", List.of("39053344705"))))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+
+        verify(restTemplate, never()).exchange(any(URI.class), eq(HttpMethod.PUT), any(HttpEntity.class), eq(String.class));
+    }
+
+    @Test
+    void attributeModifiedElsewhereIsPreservedWhenNotChanged() {
+        remoteAttributes = Map.of("document", List.of("39053344705"), "birthDate", List.of("1990-05-01"));
+
+        Map<String, List<String>> result = keycloakAdminService.updateCustomAttributes(USER_ID,
+                Map.of("document", List.of("52998224725")),
+                Map.of("document", List.of("39053344705"), "birthDate", List.of("1989-01-01")));
+
+        ArgumentCaptor<HttpEntity<Map<String, Object>>> request = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate).exchange(any(URI.class), eq(HttpMethod.PUT), request.capture(), eq(String.class));
+        assertThat(request.getValue().getBody()).containsEntry("attributes", result);
+        assertThat(result)
+                .containsEntry("document", List.of("52998224725"))
+                .containsEntry("birthDate", List.of("1990-05-01"));
+    }
+
+    @Test
+    void remoteAlreadyHoldingTheNewValueIsNotAConflict() {
+        remoteAttributes = Map.of("document", List.of("52998224725"));
+
+        Map<String, List<String>> result = keycloakAdminService.updateCustomAttributes(USER_ID,
+                Map.of("document", List.of("52998224725")),
+                Map.of("document", List.of("39053344705")));
+
+        assertThat(result).containsEntry("document", List.of("52998224725"));
+        verify(restTemplate, never()).exchange(any(URI.class), eq(HttpMethod.PUT), any(HttpEntity.class), eq(String.class));
+    }
+
+    private Map<String, Object> remoteUser() {
+        Map<String, Object> user = new HashMap<>();
+        user.put("id", USER_ID);
+        user.put("username", "maria");
+        user.put("email", "maria@example.com");
+        user.put("enabled", true);
+        user.put("attributes", new HashMap<>(remoteAttributes));
+        return user;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.backend.stress;
+
+import com.example.backend.model.Customer;
+import com.example.backend.record.Cpf;
+import com.example.backend.repository.CustomerRepository;
+import com.example.backend.repository.CustomerWriteRepository;
+import com.example.backend.util.SearchNormalizer;
+import org.bson.types.ObjectId;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Coleção customer em memória com os mesmos índices únicos por tenant do MongoDB (emailNormalized, document e
+ * keycloakUserId) e o controle otimista de {@code @Version}.
+ * Cada escrita é atômica como um insert/update de documento único; consultas recebem cópias e atrasos aleatórios
+ * para alargar as janelas de check-then-act.
+ */
+class InMemoryCustomerStore {
+
+    private final Map<String, Customer> customers = new HashMap<>();
+    private final long maxLatencyNanos;
+
+    InMemoryCustomerStore(long maxLatencyNanos) {
+        this.maxLatencyNanos = maxLatencyNanos;
+    }
+
+    CustomerRepository repository() {
+        return mock(CustomerRepository.class, this::answer);
+    }
+
+    CustomerWriteRepository writeRepository() {
+        return mock(CustomerWriteRepository.class, this::answer);
+    }
+
+    synchronized List<Customer> all() {
+        return customers.values().stream().map(InMemoryCustomerStore::copy).toList();
+    }
+
+    Customer insertDirectly(Customer customer) {
+        return save(customer, false);
+    }
+
+    private Object answer(InvocationOnMock invocation) throws Throwable {
+        if (invocation.getMethod().isDefault()) {
+            return invocation.callRealMethod();
+        }
+
+        Object[] args = invocation.getArguments();
+        return switch (invocation.getMethod().getName()) {
+            case "save" -> save((Customer) args[0], false);
+            case "updateProfile" -> save((Customer) args[0], true);
+            case "existsByTenantAndEmailNormalized" -> findFirst(args[0], c -> Objects.equals(c.getEmailNormalized(), args[1])).isPresent();
+            case "existsByTenantAndDocument" -> findFirst(args[0], c -> Objects.equals(c.getDocument(), args[1])).isPresent();
+            case "existsByTenantAndKeycloakUserId" -> findFirst(args[0], c -> Objects.equals(c.getKeycloakUserId(), args[1])).isPresent();
+            case "findByTenantAndEmailNormalized" -> findFirst(args[0], c -> Objects.equals(c.getEmailNormalized(), args[1]));
+            case "findByTenantAndDocument" -> findFirst(args[0], c -> Objects.equals(c.getDocument(), args[1]));
+            case "findByTenantAndKeycloakUserId" -> findFirst(args[0], c -> Objects.equals(c.getKeycloakUserId(), args[1]));
+            case "findByIdAndTenant" -> findFirst(args[1], c -> Objects.equals(c.getId(), args[0]));
+            case "deleteById" -> {
+                synchronized (this) {
+                    customers.remove((String) args[0]);
+                }
+                yield null;
+            }
+            case "count" -> (long) all().size();
+            case "findAll" -> new ArrayList<>(all());
+            default -> throw new UnsupportedOperationException(invocation.getMethod().getName());
+        };
+    }
+
+    private Optional<Customer> findFirst(Object tenant, Predicate<Customer> matcher) {
+        pause();
+        synchronized (this) {
+            return customers.values().stream()
+                    .filter(c -> Objects.equals(c.getTenant(), tenant))
+                    .filter(matcher)
+                    .findFirst().map(InMemoryCustomerStore::copy);
+        }
+    }
+
+    /**
+     * {@code keepActivity} reproduz o {@code updateProfile}: os campos de atividade de login ficam com o valor gravado.
+     */
+    private Customer save(Customer customer, boolean keepActivity) {
+        pause();
+        Customer stored = copy(customer);
+        stored.setEmailNormalized(SearchNormalizer.normalizeEmail(stored.getEmail()));
+        stored.setNameNormalized(SearchNormalizer.normalizeName(stored.getName()));
+
+        synchronized (this) {
+            if (stored.getId() == null) {
+                stored.setId(new ObjectId().toHexString());
+            }
+            Customer current = customers.get(stored.getId());
+            checkVersion(current, stored.getVersion());
+            if (keepActivity && current != null) {
+                stored.setLastLoginAt(current.getLastLoginAt());
+                stored.setLoginCount(current.getLoginCount());
+                stored.setLastIdentityProvider(current.getLastIdentityProvider());
+            }
+            for (Customer existing : customers.values()) {
+                if (existing.getId().equals(stored.getId()) || !Objects.equals(existing.getTenant(), stored.getTenant())) {
+                    continue;
+                }
+                checkUnique("emailNormalized", existing.getEmailNormalized(), stored.getEmailNormalized());
+                checkUnique("document", existing.getDocument(), stored.getDocument());
+                checkUnique("keycloakUserId", existing.getKeycloakUserId(), stored.getKeycloakUserId());
+            }
+            stored.setVersion(stored.getVersion() == null ? 0 : stored.getVersion() + 1);
+            customers.put(stored.getId(), stored);
+        }
+
+        customer.setId(stored.getId());
+        customer.setVersion(stored.getVersion());
+        return copy(stored);
+    }
+
+    private static void checkVersion(Customer current, Long version) {
+        Long currentVersion = current != null ? current.getVersion() : null;
+        if (version != null && !version.equals(currentVersion)) {
+            throw new OptimisticLockingFailureException("Versão " + version + " desatualizada (atual: " + currentVersion + ")");
+        }
+    }
+
+    private static void checkUnique(String index, Object existing, Object candidate) {
+        if (candidate != null && candidate.equals(existing)) {
+            throw new DuplicateKeyException("E11000 duplicate key error index: " + index + " dup key: " + candidate);
+        }
+    }
+
+    private void pause() {
+        if (maxLatencyNanos > 0) {
+            LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(maxLatencyNanos));
+        }
+    }
+
+    private static Customer copy(Customer customer) {
+        return Customer.builder()
+                .id(customer.getId())
+                .tenant(customer.getTenant())
+                .email(customer.getEmail())
+                .name(customer.getName())
+                .birthDate(customer.getBirthDate())
+                .document(customer.getDocument() != null ? new Cpf(customer.getDocument().value()) : null)
+                .keycloakUserId(customer.getKeycloakUserId())
+                .createdAt(customer.getCreatedAt())
+                .updatedAt(customer.getUpdatedAt())
+                .version(customer.getVersion())
+                .nameNormalized(customer.getNameNormalized())
+                .emailNormalized(customer.getEmailNormalized())
+                .lastLoginAt(customer.getLastLoginAt())
+                .loginCount(customer.getLoginCount())
+                .lastIdentityProvider(customer.getLastIdentityProvider())
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.backend.stress;
+
+import com.example.backend.util.SearchNormalizer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Realm em memória com as restrições do Keycloak que importam para o provisionamento: username e email únicos
+ * (conflito equivale ao 409 do Admin API) e o first broker login, que cria um usuário federado por email
+ * ou reaproveita o já existente.
+ */
+class InMemoryKeycloak {
+
+    record User(String id, String username, String email, boolean federated) {
+    }
+
+    private final Map<String, User> users = new HashMap<>();
+    private final long maxLatencyNanos;
+
+    InMemoryKeycloak(long maxLatencyNanos) {
+        this.maxLatencyNanos = maxLatencyNanos;
+    }
+
+    String createUser(String username, String email) {
+        pause();
+        synchronized (this) {
+            if (findByUsername(username).isPresent()) {
+                throw new RuntimeException("Usuário com este CPF já existe no Keycloak");
+            }
+            if (findByEmail(email).isPresent()) {
+                throw new RuntimeException("Usuário com este email já existe no Keycloak");
+            }
+            return add(username, email, false).id();
+        }
+    }
+
+    User brokerLogin(String email) {
+        pause();
+        synchronized (this) {
+            Optional<User> existing = findByEmail(email);
+            if (existing.isPresent()) {
+                if (!existing.get().federated()) {
+                    throw new RuntimeException("Conta com este email já existe; vinculação exige confirmação");
+                }
+                return existing.get();
+            }
+            return add(email, email, true);
+        }
+    }
+
+    void deleteUser(String id) {
+        pause();
+        synchronized (this) {
+            if (users.remove(id) == null) {
+                throw new RuntimeException("Usuário não encontrado no Keycloak");
+            }
+        }
+    }
+
+    synchronized Optional<User> findByUsername(String username) {
+        return users.values().stream().filter(user -> user.username().equalsIgnoreCase(username)).findFirst();
+    }
+
+    synchronized List<User> all() {
+        return List.copyOf(users.values());
+    }
+
+    private Optional<User> findByEmail(String email) {
+        String normalized = SearchNormalizer.normalizeEmail(email);
+        return users.values().stream()
+                .filter(user -> SearchNormalizer.normalizeEmail(user.email()).equals(normalized))
+                .findFirst();
+    }
+
+    private User add(String username, String email, boolean federated) {
+        User user = new User(UUID.randomUUID().toString(), username, email, federated);
+        users.put(user.id(), user);
+        return user;
+    }
+
+    private void pause() {
+        if (maxLatencyNanos > 0) {
+            LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(maxLatencyNanos));
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package com.example.backend.stress;
+
+import com.example.backend.activity.CustomerActivityBuffer;
+import com.example.backend.bulk.CustomerBulkService;
+import com.example.backend.cache.CustomerCache;
+import com.example.backend.cache.CustomerVersionCache;
+import com.example.backend.idempotency.IdempotencyService;
+import com.example.backend.integration.KeycloakIntegration;
+import com.example.backend.model.Customer;
+import com.example.backend.model.dto.CustomerDTO;
+import com.example.backend.model.dto.RegisterRequestDTO;
+import com.example.backend.record.Cpf;
+import com.example.backend.repository.CustomerReadRepository;
+import com.example.backend.repository.CustomerRepository;
+import com.example.backend.repository.CustomerSearchRepository;
+import com.example.backend.service.AuthorizationService;
+import com.example.backend.service.CustomerService;
+import com.example.backend.service.KeycloakAdminService;
+import com.example.backend.service.KeycloakAttributeSync;
+import com.example.backend.tenant.KeycloakTenant;
+import com.example.backend.tenant.TenantRegistry;
+import com.example.backend.util.SearchNormalizer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Dispara registros, primeiros logins sociais e pré-cadastros concorrentes para emails/CPFs sobrepostos contra
+ * substitutos em memória do MongoDB e do Keycloak e verifica os invariantes de provisionamento: um customer por
+ * email, CPF e keycloakUserId, nenhum usuário órfão no Keycloak e no máximo um registro bem-sucedido por identidade.
+ */
+@Slf4j
+class ProvisioningStressTest {
+
+    private static final int THREADS = 16;
+    private static final long STORE_LATENCY_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+    private static final long KEYCLOAK_LATENCY_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+    private static final String TENANT = "loja";
+    private static final String TOKEN_ENDPOINT = "http://keycloak.test/realms/test/protocol/openid-connect/token";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Random random = new Random(42);
+
+    private InMemoryCustomerStore store;
+    private InMemoryKeycloak keycloak;
+    private CustomerService customerService;
+    private AuthorizationService authorizationService;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryCustomerStore(STORE_LATENCY_NANOS);
+        keycloak = new InMemoryKeycloak(KEYCLOAK_LATENCY_NANOS);
+        executor = Executors.newFixedThreadPool(THREADS);
+
+        TenantRegistry tenantRegistry = tenantRegistry();
+        CustomerRepository customerRepository = store.repository();
+        CustomerReadRepository customerReadRepository = readRepository(customerRepository);
+        KeycloakAdminService keycloakAdminService = keycloakAdminService();
+        IdempotencyService idempotencyService = idempotencyService();
+        CustomerBulkService customerBulkService = mock(CustomerBulkService.class);
+
+        customerService = new CustomerService(customerRepository, customerReadRepository, store.writeRepository(),
+                mock(CustomerSearchRepository.class), keycloakAdminService, mock(KeycloakAttributeSync.class),
+                mock(CustomerVersionCache.class), mock(CustomerCache.class), idempotencyService, customerBulkService,
+                tenantRegistry);
+
+        authorizationService = new AuthorizationService();
+        ReflectionTestUtils.setField(authorizationService, "keycloakIntegration", keycloakIntegration());
+        ReflectionTestUtils.setField(authorizationService, "customerService", customerService);
+        ReflectionTestUtils.setField(authorizationService, "customerRepository", customerRepository);
+        ReflectionTestUtils.setField(authorizationService, "customerReadRepository", customerReadRepository);
+        ReflectionTestUtils.setField(authorizationService, "keycloakAdminService", keycloakAdminService);
+        ReflectionTestUtils.setField(authorizationService, "tenantRegistry", tenantRegistry);
+        ReflectionTestUtils.setField(authorizationService, "idempotencyService", idempotencyService);
+        ReflectionTestUtils.setField(authorizationService, "customerActivityBuffer", mock(CustomerActivityBuffer.class));
+        ReflectionTestUtils.setField(authorizationService, "customerBulkService", customerBulkService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentRegistrationsWithOverlappingEmailsAndCpfsKeepOneCustomerPerIdentity() throws Exception {
+        List<String> emails = emails(40);
+        List<Cpf> cpfs = cpfs(40);
+        Map<String, AtomicInteger> registeredEmails = new ConcurrentHashMap<>();
+        Map<Cpf, AtomicInteger> registeredCpfs = new ConcurrentHashMap<>();
+        List<Callable<Boolean>> operations = new ArrayList<>();
+
+        for (int i = 0; i < 400; i++) {
+            String email = withRandomCase(pick(emails));
+            Cpf cpf = pick(cpfs);
+            operations.add(() -> register(email, cpf, registeredEmails, registeredCpfs));
+        }
+
+        int succeeded = runConcurrently("registros", operations);
+
+        assertThat(succeeded).isPositive();
+        assertAtMostOnce(registeredEmails);
+        assertAtMostOnce(registeredCpfs);
+        assertConsistent();
+        assertThat(store.all()).hasSize(succeeded);
+    }
+
+    @Test
+    void concurrentFirstSocialLoginsCreateOneCustomerPerIdentity() throws Exception {
+        List<String> emails = emails(30);
+        List<Callable<Boolean>> operations = new ArrayList<>();
+
+        for (String email : emails) {
+            for (int i = 0; i < 10; i++) {
+                String variant = withRandomCase(email);
+                operations.add(() -> socialLogin(variant));
+            }
+        }
+        Collections.shuffle(operations, random);
+
+        int succeeded = runConcurrently("primeiros logins sociais", operations);
+
+        assertThat(succeeded).isEqualTo(operations.size());
+        assertConsistent();
+        assertThat(store.all()).hasSize(emails.size())
+                .allSatisfy(customer -> assertThat(customer.getKeycloakUserId()).isNotNull());
+        assertThat(keycloak.all()).hasSize(emails.size());
+    }
+
+    @Test
+    void mixedProvisioningKeepsKeycloakAndCustomersConsistent() throws Exception {
+        List<String> emails = emails(30);
+        List<Cpf> cpfs = cpfs(30);
+        Map<String, AtomicInteger> registeredEmails = new ConcurrentHashMap<>();
+        Map<Cpf, AtomicInteger> registeredCpfs = new ConcurrentHashMap<>();
+        List<Callable<Boolean>> operations = new ArrayList<>();
+
+        for (int i = 0; i < 450; i++) {
+            String email = withRandomCase(pick(emails));
+            Cpf cpf = pick(cpfs);
+            operations.add(switch (i % 3) {
+                case 0 -> () -> register(email, cpf, registeredEmails, registeredCpfs);
+                case 1 -> () -> socialLogin(email);
+                default -> () -> preProvision(email, cpf);
+            });
+        }
+
+        int succeeded = runConcurrently("provisionamento misto", operations);
+
+        assertThat(succeeded).isPositive();
+        assertAtMostOnce(registeredEmails);
+        assertAtMostOnce(registeredCpfs);
+        assertConsistent();
+    }
+
+    private boolean register(String email, Cpf cpf, Map<String, AtomicInteger> registeredEmails,
+                             Map<Cpf, AtomicInteger> registeredCpfs) {
+        RegisterRequestDTO request = RegisterRequestDTO.builder()
+                .name("Cliente " + email)
+                .email(email)
+                .document(cpf.toString())
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .password("senha-forte")
+                .build();
+
+        try {
+            Map<String, Object> tokens = authorizationService.register(request, null);
+            assertThat(tokens).containsKey("access_token");
+        } catch (RuntimeException e) {
+            return false;
+        }
+
+        registeredEmails.computeIfAbsent(SearchNormalizer.normalizeEmail(email), key -> new AtomicInteger()).incrementAndGet();
+        registeredCpfs.computeIfAbsent(cpf, key -> new AtomicInteger()).incrementAndGet();
+        return true;
+    }
+
+    private boolean socialLogin(String email) {
+        String code = email + "|Cliente " + email;
+
+        try {
+            Map<String, Object> response = authorizationService.exchangeCodeForToken(code);
+            return response.containsKey("user_info");
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private boolean preProvision(String email, Cpf cpf) {
+        try {
+            customerService.create(CustomerDTO.builder()
+                    .name("Cliente " + email)
+                    .email(email)
+                    .document(cpf.toString())
+                    .build());
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private int runConcurrently(String scenario, List<Callable<Boolean>> operations) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        for (Callable<Boolean> operation : operations) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return operation.call();
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+
+        int succeeded = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(60, TimeUnit.SECONDS)) {
+                succeeded++;
+            }
+        }
+
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        log.info("Stress {}: {} operações ({} com sucesso) em {} ms, {} ops/s com {} threads",
+                scenario, operations.size(), succeeded, Math.round(seconds * 1000),
+                Math.round(operations.size() / seconds), THREADS);
+        return succeeded;
+    }
+
+    private void assertConsistent() {
+        List<Customer> customers = store.all();
+        List<InMemoryKeycloak.User> keycloakUsers = keycloak.all();
+
+        assertUnique(customers, Customer::getEmailNormalized);
+        assertUnique(customers, Customer::getDocument);
+        assertUnique(customers, Customer::getKeycloakUserId);
+
+        Set<String> keycloakIds = keycloakUsers.stream().map(InMemoryKeycloak.User::id).collect(Collectors.toSet());
+        Map<String, Long> customersByKeycloakId = customers.stream()
+                .filter(customer -> customer.getKeycloakUserId() != null)
+                .collect(Collectors.groupingBy(Customer::getKeycloakUserId, Collectors.counting()));
+
+        assertThat(keycloakIds)
+                .as("usuários do Keycloak sem customer (órfãos)")
+                .allSatisfy(id -> assertThat(customersByKeycloakId.get(id)).isEqualTo(1L));
+        assertThat(customersByKeycloakId.keySet())
+                .as("customers apontando para usuários inexistentes no Keycloak")
+                .isSubsetOf(keycloakIds);
+    }
+
+    private static <K> void assertUnique(Collection<Customer> customers, Function<Customer, K> key) {
+        Map<K, Long> counts = customers.stream()
+                .map(key)
+                .filter(value -> value != null)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+
+        assertThat(counts).allSatisfy((value, count) -> assertThat(count).as("duplicado: %s", value).isEqualTo(1L));
+    }
+
+    private static <K> void assertAtMostOnce(Map<K, AtomicInteger> successes) {
+        assertThat(successes).allSatisfy((key, count) ->
+                assertThat(count.get()).as("registros bem-sucedidos para %s", key).isEqualTo(1));
+    }
+
+    private List<String> emails(int count) {
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            emails.add("cliente" + i + "@loja.test");
+        }
+        return emails;
+    }
+
+    private List<Cpf> cpfs(int count) {
+        List<Cpf> cpfs = new ArrayList<>();
+        long base = 123_456_789L;
+
+        while (cpfs.size() < count) {
+            for (int checkDigits = 0; checkDigits < 100; checkDigits++) {
+                long value = base * 100 + checkDigits;
+                if (Cpf.hasValidCheckDigits(value)) {
+                    cpfs.add(new Cpf(value));
+                    break;
+                }
+            }
+            base += 7_919;
+        }
+        return cpfs;
+    }
+
+    private <T> T pick(List<T> values) {
+        synchronized (random) {
+            return values.get(random.nextInt(values.size()));
+        }
+    }
+
+    private String withRandomCase(String email) {
+        synchronized (random) {
+            return random.nextBoolean() ? email : email.toUpperCase();
+        }
+    }
+
+    private CustomerReadRepository readRepository(CustomerRepository customerRepository) {
+        CustomerReadRepository readRepository = mock(CustomerReadRepository.class);
+        when(readRepository.findByEmail(anyString()))
+                .thenAnswer(invocation -> customerRepository.findByEmail(TENANT, invocation.getArgument(0)));
+        when(readRepository.findByKeycloakUserId(anyString()))
+                .thenAnswer(invocation -> customerRepository.findByTenantAndKeycloakUserId(TENANT, invocation.getArgument(0)));
+        return readRepository;
+    }
+
+    private KeycloakAdminService keycloakAdminService() {
+        KeycloakAdminService keycloakAdminService = mock(KeycloakAdminService.class);
+        doAnswer(invocation -> keycloak.createUser(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(keycloakAdminService).createUser(anyString(), anyString(), any(), any(), any(), any());
+        doAnswer(invocation -> {
+            keycloak.deleteUser(invocation.getArgument(0));
+            return null;
+        }).when(keycloakAdminService).deleteUser(anyString());
+        return keycloakAdminService;
+    }
+
+    private IdempotencyService idempotencyService() {
+        IdempotencyService idempotencyService = mock(IdempotencyService.class);
+        doAnswer(invocation -> invocation.<Supplier<?>>getArgument(4).get())
+                .when(idempotencyService).execute(any(), any(), any(), any(), any());
+        return idempotencyService;
+    }
+
+    private KeycloakIntegration keycloakIntegration() {
+        KeycloakIntegration keycloakIntegration = mock(KeycloakIntegration.class);
+        when(keycloakIntegration.exchangeCodeForToken(anyString()))
+                .thenAnswer(invocation -> Map.of("access_token", invocation.getArgument(0)));
+        when(keycloakIntegration.getUserInfo(anyString())).thenAnswer(invocation -> {
+            String[] code = invocation.<String>getArgument(0).substring("Bearer ".length()).split("\\|", 2);
+            InMemoryKeycloak.User user = keycloak.brokerLogin(code[0]);
+            return Map.of("sub", user.id(), "email", user.email(), "name", code[1]);
+        });
+        return keycloakIntegration;
+    }
+
+    @SuppressWarnings("unchecked")
+    private TenantRegistry tenantRegistry() {
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        when(restTemplate.postForEntity(eq(TOKEN_ENDPOINT), any(), eq(Map.class))).thenAnswer(invocation -> {
+            MultiValueMap<String, String> form = (MultiValueMap<String, String>) invocation.<HttpEntity<?>>getArgument(1).getBody();
+            InMemoryKeycloak.User user = keycloak.findByUsername(form.getFirst("username"))
+                    .orElseThrow(() -> new HttpClientErrorException(HttpStatus.UNAUTHORIZED));
+            return ResponseEntity.ok(Map.of("access_token", accessToken(user)));
+        });
+
+        KeycloakTenant tenant = mock(KeycloakTenant.class);
+        when(tenant.getRestTemplate()).thenReturn(restTemplate);
+        when(tenant.getTokenEndpoint()).thenReturn(TOKEN_ENDPOINT);
+        when(tenant.getId()).thenReturn(TENANT);
+        when(tenant.getClientId()).thenReturn(TENANT);
+
+        TenantRegistry tenantRegistry = mock(TenantRegistry.class);
+        when(tenantRegistry.current()).thenReturn(tenant);
+        return tenantRegistry;
+    }
+
+    private static String accessToken(InMemoryKeycloak.User user) throws Exception {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        byte[] claims = MAPPER.writeValueAsBytes(Map.of(
+                "sub", user.id(),
+                "email", user.email(),
+                "preferred_username", user.username()));
+        return encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString(claims) + ".sig";
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.backend.tracing;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class TracingFilterTest {
+
+    private final TraceStore traceStore = mock(TraceStore.class);
+    private final TracingFilter filter = new TracingFilter(new Tracer(new TracingProperties(), traceStore));
+
+    @Test
+    void rootSpanIsNamedAfterTheRoutePattern() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/customers/by-keycloak/8f1c2e");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) ->
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/customers/by-keycloak/{keycloakUserId}"));
+
+        Trace trace = recordedTrace();
+        assertThat(trace.endpoint()).isEqualTo("GET /api/customers/by-keycloak/{keycloakUserId}");
+        assertThat(trace.root().getName()).isEqualTo("GET /api/customers/by-keycloak/{keycloakUserId}");
+    }
+
+    @Test
+    void unmatchedRequestDoesNotExposeTheUri() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/maria@example.com");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> { });
+
+        assertThat(recordedTrace().root().getName()).isEqualTo("GET unmatched");
+    }
+
+    private Trace recordedTrace() {
+        ArgumentCaptor<Trace> trace = ArgumentCaptor.forClass(Trace.class);
+        verify(traceStore).record(trace.capture(), anyBoolean());
+        return trace.getValue();
+    }
+}
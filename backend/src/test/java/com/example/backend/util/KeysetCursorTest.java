@@ -0,0 +1,43 @@
+package com.example.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsValueAndId() {
+        KeysetCursor cursor = new KeysetCursor("joão da silva", "65f1c0ffee");
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = new KeysetCursor("a/b+c?d=é", "65f1c0ffee").encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void missingValueDecodesAsEmpty() {
+        assertThat(KeysetCursor.decode(new KeysetCursor(null, "65f1c0ffee").encode()))
+                .isEqualTo(new KeysetCursor("", "65f1c0ffee"));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThatThrownBy(() -> KeysetCursor.decode("não é base64")).hasMessage("Cursor inválido");
+        assertThatThrownBy(() -> KeysetCursor.decode(encode("sem separador"))).hasMessage("Cursor inválido");
+        assertThatThrownBy(() -> KeysetCursor.decode(encode("valor\u0000"))).hasMessage("Cursor inválido");
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
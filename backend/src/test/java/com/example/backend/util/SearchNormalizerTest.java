@@ -0,0 +1,58 @@
+package com.example.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchNormalizerTest {
+
+    private static final String MAX = new String(Character.toChars(Character.MAX_CODE_POINT));
+
+    @Test
+    void normalizesNamesWithoutAccentsOrCase() {
+        assertThat(SearchNormalizer.normalizeName("  JOÃO Conceição ")).isEqualTo("joao conceicao");
+        assertThat(SearchNormalizer.normalizeName(null)).isNull();
+    }
+
+    @Test
+    void normalizesEmails() {
+        assertThat(SearchNormalizer.normalizeEmail(" Maria@Example.COM ")).isEqualTo("maria@example.com");
+        assertThat(SearchNormalizer.normalizeEmail(null)).isNull();
+    }
+
+    @Test
+    void upperBoundIncrementsTheLastCodePoint() {
+        assertThat(SearchNormalizer.prefixUpperBound("mar")).isEqualTo("mas");
+        assertThat(SearchNormalizer.prefixUpperBound("a\uFFFF")).isEqualTo("a\uD800\uDC00");
+    }
+
+    @Test
+    void upperBoundSkipsTheSurrogateRange() {
+        assertThat(SearchNormalizer.prefixUpperBound("a\uD7FF")).isEqualTo("a\uE000");
+    }
+
+    @Test
+    void upperBoundDropsCodePointsAlreadyAtTheMaximum() {
+        assertThat(SearchNormalizer.prefixUpperBound("a" + MAX)).isEqualTo("b");
+        assertThat(SearchNormalizer.prefixUpperBound(MAX + MAX)).isNull();
+    }
+
+    @Test
+    void upperBoundIsExclusiveForEveryStringWithThePrefix() {
+        String bound = SearchNormalizer.prefixUpperBound("mar");
+
+        for (String match : List.of("mar", "maria", "mar\uFFFF", "mar" + MAX, "mar" + MAX + MAX)) {
+            assertThat(compareUtf8(match, bound)).as(match).isNegative();
+        }
+        assertThat(compareUtf8("mas", bound)).isZero();
+        assertThat(compareUtf8("masa", bound)).isPositive();
+    }
+
+    private static int compareUtf8(String left, String right) {
+        return Arrays.compareUnsigned(left.getBytes(StandardCharsets.UTF_8), right.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.backend.warmup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WarmupReportTest {
+
+    private final WarmupReport report = new WarmupReport();
+
+    @Test
+    void completedWarmupIsUp() {
+        report.record("jwks", 12, "OK", true);
+        report.finish("COMPLETED");
+
+        assertThat(report.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    void failedStepIsUnknown() {
+        report.record("jwks", 12, "OK", true);
+        report.record("customer-lookup", 3, "FAILED: timeout", false);
+        report.finish("COMPLETED");
+
+        assertThat(report.health().getStatus()).isEqualTo(Status.UNKNOWN);
+    }
+
+    @Test
+    void timedOutWarmupIsUnknown() {
+        report.record("jwks", 12, "OK", true);
+        report.finish("TIMED_OUT");
+
+        assertThat(report.health().getStatus()).isEqualTo(Status.UNKNOWN);
+    }
+}
@@ -1,6 +1,7 @@
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpHeaders } from '@angular/common/http';
 import { firstValueFrom } from 'rxjs';
+import { AuthService } from '../../login/service/auth.service';
 
 @Injectable({
   providedIn: 'root'
@@ -8,7 +9,7 @@ import { firstValueFrom } from 'rxjs';
 export class CompleteProfileService {
   private readonly backendUrl = 'http://localhost:8081';
 
-  constructor(private http: HttpClient) {}
+  constructor(private http: HttpClient, private authService: AuthService) {}
 
   async updateCustomerInfo(
     keycloakUserId: string,
@@ -20,10 +21,14 @@ export class CompleteProfileService {
       birthDate: birthDate
     };
 
+    const token = this.authService.getToken();
+    const headers = token ? new HttpHeaders({ Authorization: `Bearer ${token}` }) : new HttpHeaders();
+
     return firstValueFrom(
       this.http.patch(
         `${this.backendUrl}/api/customers/update-info/${keycloakUserId}`,
-        payload
+        payload,
+        { headers }
       )
     );
   }